@@ -0,0 +1,69 @@
+package org.hiforce.lattice.benchmark;
+
+import org.hiforce.lattice.benchmark.fixture.BenchBizObject;
+import org.hiforce.lattice.benchmark.fixture.BenchSession;
+import org.hiforce.lattice.benchmark.fixture.BenchmarkFixture;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+/**
+ * The setup cost of BizSessionScope.invoke, the session body does nothing, so the result is
+ * the cost of building the scenario requests and the effective templates.
+ *
+ * @author Rocky Yu
+ * @since 2026/10/18
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class BizSessionScopeBenchmark {
+
+    private static final Supplier<Boolean> EMPTY_BODY = () -> Boolean.TRUE;
+
+    @Param({"1", "32"})
+    public int businesses;
+
+    @Param({"0", "8"})
+    public int products;
+
+    @Param({"1", "8"})
+    public int extensions;
+
+    private List<BenchBizObject> bizObjects;
+
+    private int cursor;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        BenchmarkFixture.start(businesses, products, extensions);
+        bizObjects = BenchmarkFixture.bizObjects(businesses);
+    }
+
+    @Benchmark
+    public Boolean invokeSingle() {
+        BenchBizObject bizObject = bizObjects.get(cursor++ % businesses);
+        return new BenchSession<>(bizObject, EMPTY_BODY).invoke();
+    }
+
+    @Benchmark
+    public Boolean invokeAll() {
+        return new BenchSession<>(bizObjects, EMPTY_BODY).invoke();
+    }
+}
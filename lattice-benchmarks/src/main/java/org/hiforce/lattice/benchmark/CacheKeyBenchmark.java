@@ -0,0 +1,91 @@
+package org.hiforce.lattice.benchmark;
+
+import org.hiforce.lattice.benchmark.ability.ext.BenchAbilityExt;
+import org.hiforce.lattice.benchmark.business.BenchBusiness;
+import org.hiforce.lattice.benchmark.fixture.BenchmarkFixture;
+import org.hiforce.lattice.model.business.ITemplate;
+import org.hiforce.lattice.model.register.TemplateSpec;
+import org.hiforce.lattice.runtime.Lattice;
+import org.hiforce.lattice.runtime.cache.key.ExtensionInvokeCacheKey;
+import org.hiforce.lattice.runtime.cache.key.ExtensionRunnerCacheKey;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The construction of ExtensionRunnerCacheKey and ExtensionInvokeCacheKey, including the
+ * index lookups and the unique id encoding.
+ *
+ * @author Rocky Yu
+ * @since 2026/10/18
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class CacheKeyBenchmark {
+
+    @Param({"1", "32"})
+    public int businesses;
+
+    @Param({"0", "8"})
+    public int products;
+
+    @Param({"1", "8"})
+    public int extensions;
+
+    private String[] bizCodes;
+
+    private String[] extCodes;
+
+    private TemplateSpec<? extends ITemplate>[] templates;
+
+    private int cursor;
+
+    @Setup(Level.Trial)
+    @SuppressWarnings("unchecked")
+    public void setUp() {
+        BenchmarkFixture.start(businesses, products, extensions);
+        bizCodes = new String[businesses];
+        for (int i = 0; i < businesses; i++) {
+            bizCodes[i] = BenchBusiness.code(i);
+        }
+        extCodes = new String[extensions];
+        for (int i = 0; i < extensions; i++) {
+            extCodes[i] = BenchAbilityExt.extCode(i);
+        }
+        List<TemplateSpec<? extends ITemplate>> specs = new ArrayList<>();
+        specs.addAll(Lattice.getInstance().getAllRegisteredProducts());
+        specs.addAll(Lattice.getInstance().getAllRegisteredBusinesses());
+        templates = specs.toArray(new TemplateSpec[0]);
+    }
+
+    @Benchmark
+    public ExtensionRunnerCacheKey runnerCacheKey() {
+        int index = cursor++;
+        return new ExtensionRunnerCacheKey(extCodes[index % extensions], bizCodes[index % businesses],
+                null, true, false);
+    }
+
+    @Benchmark
+    public ExtensionInvokeCacheKey invokeCacheKey() {
+        int index = cursor++;
+        return new ExtensionInvokeCacheKey(null, templates[index % templates.length],
+                extCodes[index % extensions]);
+    }
+}
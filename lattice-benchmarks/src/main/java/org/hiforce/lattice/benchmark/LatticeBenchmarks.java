@@ -0,0 +1,30 @@
+package org.hiforce.lattice.benchmark;
+
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.CommandLineOptionException;
+import org.openjdk.jmh.runner.options.CommandLineOptions;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * The entrance of the benchmarks, accepts the JMH command line options and always enables
+ * the GC profiler, e.g.
+ * <pre>
+ * java -jar lattice-benchmarks/target/benchmarks.jar ReduceExecuteBenchmark -p businesses=128
+ * </pre>
+ *
+ * @author Rocky Yu
+ * @since 2026/10/18
+ */
+public class LatticeBenchmarks {
+
+    public static void main(String[] args) throws RunnerException, CommandLineOptionException {
+        Options options = new OptionsBuilder()
+                .parent(new CommandLineOptions(args))
+                .addProfiler(GCProfiler.class)
+                .build();
+        new Runner(options).run();
+    }
+}
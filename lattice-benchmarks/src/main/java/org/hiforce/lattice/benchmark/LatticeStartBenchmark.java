@@ -0,0 +1,47 @@
+package org.hiforce.lattice.benchmark;
+
+import org.hiforce.lattice.benchmark.fixture.BenchmarkFixture;
+import org.hiforce.lattice.runtime.Lattice;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Lattice.start(), together with registering the synthetic businesses and products and
+ * compiling their business configs. The running Lattice is cleared before every start.
+ *
+ * @author Rocky Yu
+ * @since 2026/10/18
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class LatticeStartBenchmark {
+
+    @Param({"1", "32"})
+    public int businesses;
+
+    @Param({"0", "8"})
+    public int products;
+
+    @Param({"1", "8"})
+    public int extensions;
+
+    @Benchmark
+    public boolean start() {
+        BenchmarkFixture.start(businesses, products, extensions);
+        return Lattice.getInstance().isInitialized();
+    }
+}
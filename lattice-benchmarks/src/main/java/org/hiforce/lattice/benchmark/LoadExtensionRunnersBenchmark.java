@@ -0,0 +1,98 @@
+package org.hiforce.lattice.benchmark;
+
+import org.hiforce.lattice.benchmark.ability.BenchAbility;
+import org.hiforce.lattice.benchmark.ability.ext.BenchAbilityExt;
+import org.hiforce.lattice.benchmark.fixture.BenchBizObject;
+import org.hiforce.lattice.benchmark.fixture.BenchSession;
+import org.hiforce.lattice.benchmark.fixture.BenchmarkFixture;
+import org.hiforce.lattice.runtime.ability.delegate.BaseLatticeAbilityDelegate;
+import org.hiforce.lattice.runtime.ability.execute.RunnerCollection;
+import org.hiforce.lattice.runtime.cache.ability.AbilityCache;
+import org.hiforce.lattice.runtime.cache.exension.ExtensionInvokeCache;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import static org.hiforce.lattice.runtime.ability.execute.filter.ExtensionFilter.DEFAULT_FILTER;
+
+/**
+ * BaseLatticeAbilityDelegate.loadExtensionRunners in the warm state (the runners are cached),
+ * and in the cold state, which clears the extension runners and the realizations cache
+ * before every load, so the clearing is measured too.
+ *
+ * @author Rocky Yu
+ * @since 2026/10/18
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class LoadExtensionRunnersBenchmark {
+
+    @Param({"1", "32"})
+    public int businesses;
+
+    @Param({"0", "8"})
+    public int products;
+
+    @Param({"1", "8"})
+    public int extensions;
+
+    private BaseLatticeAbilityDelegate[] delegates;
+
+    private String[] extCodes;
+
+    private BenchSession<Void> session;
+
+    private int cursor;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        BenchmarkFixture.start(businesses, products, extensions);
+        List<BenchBizObject> bizObjects = BenchmarkFixture.bizObjects(businesses);
+        delegates = new BaseLatticeAbilityDelegate[businesses];
+        for (int i = 0; i < businesses; i++) {
+            delegates[i] = new BaseLatticeAbilityDelegate(new BenchAbility(bizObjects.get(i)));
+        }
+        extCodes = new String[extensions];
+        for (int i = 0; i < extensions; i++) {
+            extCodes[i] = BenchAbilityExt.extCode(i);
+        }
+        session = new BenchSession<>(bizObjects, () -> null);
+        session.open();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        session.close();
+    }
+
+    @Benchmark
+    public RunnerCollection<Object> warm() {
+        int index = cursor++;
+        return delegates[index % businesses].loadExtensionRunners(extCodes[index % extensions], DEFAULT_FILTER);
+    }
+
+    @Benchmark
+    public RunnerCollection<Object> cold() {
+        AbilityCache.getInstance().clearExtensionRunners();
+        ExtensionInvokeCache.getInstance().clear();
+        int index = cursor++;
+        return delegates[index % businesses].loadExtensionRunners(extCodes[index % extensions], DEFAULT_FILTER);
+    }
+}
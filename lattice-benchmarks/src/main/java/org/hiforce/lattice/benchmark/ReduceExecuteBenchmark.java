@@ -0,0 +1,160 @@
+package org.hiforce.lattice.benchmark;
+
+import org.hiforce.lattice.benchmark.ability.BenchAbility;
+import org.hiforce.lattice.benchmark.ability.ext.BlankBenchAbilityExt;
+import org.hiforce.lattice.benchmark.fixture.BenchBizObject;
+import org.hiforce.lattice.benchmark.fixture.BenchSession;
+import org.hiforce.lattice.benchmark.fixture.BenchmarkFixture;
+import org.hiforce.lattice.runtime.ability.reduce.Reducers;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * BaseLatticeAbility.reduceExecute with each reducer in {@link Reducers}, invoked inside an opened
+ * session, so all the products are effective. Every invocation moves to the next business and
+ * the next extension point. The batch benchmarks execute for all the business objects per operation.
+ *
+ * @author Rocky Yu
+ * @since 2026/10/18
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ReduceExecuteBenchmark {
+
+    @Param({"1", "32"})
+    public int businesses;
+
+    @Param({"0", "8"})
+    public int products;
+
+    @Param({"1", "8"})
+    public int extensions;
+
+    private List<BenchBizObject> bizObjects;
+
+    private BenchAbility[] abilities;
+
+    private BenchSession<Void> session;
+
+    private int cursor;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        BenchmarkFixture.start(businesses, products, extensions);
+        bizObjects = BenchmarkFixture.bizObjects(businesses);
+        abilities = new BenchAbility[businesses];
+        for (int i = 0; i < businesses; i++) {
+            abilities[i] = new BenchAbility(bizObjects.get(i));
+        }
+        session = new BenchSession<>(bizObjects, () -> null);
+        session.open();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        session.close();
+    }
+
+    @Benchmark
+    public List<String> none() {
+        int index = cursor++;
+        return ability(index).reduceExecute(BenchAbility.callback(index % extensions), Reducers.none());
+    }
+
+    @Benchmark
+    public String firstOf() {
+        int index = cursor++;
+        return ability(index).reduceExecute(BenchAbility.callback(index % extensions), Reducers.firstOf());
+    }
+
+    @Benchmark
+    public String firstOfNonNull() {
+        int index = cursor++;
+        return ability(index).reduceExecute(BenchAbility.callback(index % extensions),
+                Reducers.firstOf(Objects::nonNull));
+    }
+
+    @Benchmark
+    public Boolean allMatch() {
+        int index = cursor++;
+        return ability(index).reduceExecute(BenchAbility.callback(index % extensions),
+                Reducers.allMatch(Objects::nonNull));
+    }
+
+    @Benchmark
+    public Boolean allMatchNotEmpty() {
+        int index = cursor++;
+        return ability(index).reduceExecute(BenchAbility.callback(index % extensions),
+                Reducers.AllMatchNotEmpty(Objects::nonNull));
+    }
+
+    @Benchmark
+    public Boolean anyMatch() {
+        int index = cursor++;
+        return ability(index).reduceExecute(BenchAbility.callback(index % extensions),
+                Reducers.anyMatch(Objects::isNull));
+    }
+
+    @Benchmark
+    public Boolean noneMatch() {
+        int index = cursor++;
+        return ability(index).reduceExecute(BenchAbility.callback(index % extensions),
+                Reducers.noneMatch(Objects::isNull));
+    }
+
+    @Benchmark
+    public List<String> flatList() {
+        return ability(cursor++).reduceExecute(BlankBenchAbilityExt::listExtension,
+                Reducers.flatList(Objects::nonNull));
+    }
+
+    @Benchmark
+    public Map<String, String> flatMap() {
+        return ability(cursor++).reduceExecute(BlankBenchAbilityExt::mapExtension,
+                Reducers.flatMap(Objects::nonNull));
+    }
+
+    /**
+     * Execute for all the business objects one by one, the baseline of {@link #noneBatch()}.
+     */
+    @Benchmark
+    public List<List<String>> noneLoop() {
+        int index = cursor++;
+        List<List<String>> outputs = new ArrayList<>(businesses);
+        for (BenchAbility ability : abilities) {
+            outputs.add(ability.reduceExecute(BenchAbility.callback(index % extensions), Reducers.none()));
+        }
+        return outputs;
+    }
+
+    @Benchmark
+    public List<List<String>> noneBatch() {
+        int index = cursor++;
+        return abilities[0].reduceExecuteBatch(bizObjects, BenchAbility.callback(index % extensions), Reducers::none);
+    }
+
+    private BenchAbility ability(int index) {
+        return abilities[index % businesses];
+    }
+}
@@ -0,0 +1,46 @@
+package org.hiforce.lattice.benchmark.ability;
+
+import org.hiforce.lattice.annotation.Ability;
+import org.hiforce.lattice.benchmark.ability.ext.BlankBenchAbilityExt;
+import org.hiforce.lattice.model.ability.execute.ExtensionCallback;
+import org.hiforce.lattice.model.business.IBizObject;
+import org.hiforce.lattice.runtime.ability.BaseLatticeAbility;
+
+/**
+ * @author Rocky Yu
+ * @since 2026/10/18
+ */
+@Ability(name = "BenchAbility", code = BenchAbility.CODE)
+public class BenchAbility extends BaseLatticeAbility<BlankBenchAbilityExt> {
+
+    public static final String CODE = "bench.ability";
+
+    @SuppressWarnings("unchecked")
+    private static final ExtensionCallback<BlankBenchAbilityExt, String>[] CALLBACKS = new ExtensionCallback[]{
+            (ExtensionCallback<BlankBenchAbilityExt, String>) BlankBenchAbilityExt::extension0,
+            (ExtensionCallback<BlankBenchAbilityExt, String>) BlankBenchAbilityExt::extension1,
+            (ExtensionCallback<BlankBenchAbilityExt, String>) BlankBenchAbilityExt::extension2,
+            (ExtensionCallback<BlankBenchAbilityExt, String>) BlankBenchAbilityExt::extension3,
+            (ExtensionCallback<BlankBenchAbilityExt, String>) BlankBenchAbilityExt::extension4,
+            (ExtensionCallback<BlankBenchAbilityExt, String>) BlankBenchAbilityExt::extension5,
+            (ExtensionCallback<BlankBenchAbilityExt, String>) BlankBenchAbilityExt::extension6,
+            (ExtensionCallback<BlankBenchAbilityExt, String>) BlankBenchAbilityExt::extension7
+    };
+
+    public BenchAbility(IBizObject bizObject) {
+        super(bizObject);
+    }
+
+    /**
+     * @param index the index of the extension point, from 0 to MAX_INDEXED_EXTENSIONS - 1.
+     * @return the callback invokes the indexed extension point.
+     */
+    public static ExtensionCallback<BlankBenchAbilityExt, String> callback(int index) {
+        return CALLBACKS[index];
+    }
+
+    @Override
+    public BlankBenchAbilityExt getDefaultRealization() {
+        return new BlankBenchAbilityExt();
+    }
+}
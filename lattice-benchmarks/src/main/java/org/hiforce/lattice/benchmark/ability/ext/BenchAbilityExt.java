@@ -0,0 +1,59 @@
+package org.hiforce.lattice.benchmark.ability.ext;
+
+import org.hiforce.lattice.annotation.Extension;
+import org.hiforce.lattice.model.ability.IBusinessExt;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * The extension points of the benchmark ability, the benchmarks invoke the first N of
+ * the indexed extension points, N is the number of extensions parameter.
+ *
+ * @author Rocky Yu
+ * @since 2026/10/18
+ */
+public interface BenchAbilityExt extends IBusinessExt {
+
+    int MAX_INDEXED_EXTENSIONS = 8;
+
+    String EXT_CODE_PREFIX = "bench.ext.";
+
+    String EXT_LIST = "bench.ext.list";
+
+    String EXT_MAP = "bench.ext.map";
+
+    static String extCode(int index) {
+        return EXT_CODE_PREFIX + index;
+    }
+
+    @Extension(code = EXT_CODE_PREFIX + 0)
+    String extension0();
+
+    @Extension(code = EXT_CODE_PREFIX + 1)
+    String extension1();
+
+    @Extension(code = EXT_CODE_PREFIX + 2)
+    String extension2();
+
+    @Extension(code = EXT_CODE_PREFIX + 3)
+    String extension3();
+
+    @Extension(code = EXT_CODE_PREFIX + 4)
+    String extension4();
+
+    @Extension(code = EXT_CODE_PREFIX + 5)
+    String extension5();
+
+    @Extension(code = EXT_CODE_PREFIX + 6)
+    String extension6();
+
+    @Extension(code = EXT_CODE_PREFIX + 7)
+    String extension7();
+
+    @Extension(code = EXT_LIST)
+    List<String> listExtension();
+
+    @Extension(code = EXT_MAP)
+    Map<String, String> mapExtension();
+}
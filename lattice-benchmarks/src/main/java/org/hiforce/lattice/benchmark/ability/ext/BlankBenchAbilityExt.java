@@ -0,0 +1,63 @@
+package org.hiforce.lattice.benchmark.ability.ext;
+
+import org.hiforce.lattice.model.ability.BusinessExt;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * @author Rocky Yu
+ * @since 2026/10/18
+ */
+public class BlankBenchAbilityExt extends BusinessExt implements BenchAbilityExt {
+
+    @Override
+    public String extension0() {
+        return null;
+    }
+
+    @Override
+    public String extension1() {
+        return null;
+    }
+
+    @Override
+    public String extension2() {
+        return null;
+    }
+
+    @Override
+    public String extension3() {
+        return null;
+    }
+
+    @Override
+    public String extension4() {
+        return null;
+    }
+
+    @Override
+    public String extension5() {
+        return null;
+    }
+
+    @Override
+    public String extension6() {
+        return null;
+    }
+
+    @Override
+    public String extension7() {
+        return null;
+    }
+
+    @Override
+    public List<String> listExtension() {
+        return null;
+    }
+
+    @Override
+    public Map<String, String> mapExtension() {
+        return null;
+    }
+}
@@ -0,0 +1,21 @@
+package org.hiforce.lattice.benchmark.business;
+
+import org.hiforce.lattice.annotation.Stateless;
+import org.hiforce.lattice.model.business.BusinessTemplate;
+
+/**
+ * The template of the synthetic businesses, registered by the benchmark fixture
+ * with the codes bench.business.0 ~ bench.business.N-1.
+ *
+ * @author Rocky Yu
+ * @since 2026/10/18
+ */
+@Stateless
+public class BenchBusiness extends BusinessTemplate {
+
+    public static final String CODE_PREFIX = "bench.business.";
+
+    public static String code(int index) {
+        return CODE_PREFIX + index;
+    }
+}
@@ -0,0 +1,27 @@
+package org.hiforce.lattice.benchmark.business;
+
+import org.hiforce.lattice.annotation.Stateless;
+import org.hiforce.lattice.model.business.ProductTemplate;
+import org.hiforce.lattice.model.scenario.ScenarioRequest;
+
+/**
+ * The template of the synthetic products, registered by the benchmark fixture
+ * with the codes bench.product.0 ~ bench.product.N-1, always effective.
+ *
+ * @author Rocky Yu
+ * @since 2026/10/18
+ */
+@Stateless
+public class BenchProduct extends ProductTemplate {
+
+    public static final String CODE_PREFIX = "bench.product.";
+
+    public static String code(int index) {
+        return CODE_PREFIX + index;
+    }
+
+    @Override
+    public boolean isEffect(ScenarioRequest request) {
+        return true;
+    }
+}
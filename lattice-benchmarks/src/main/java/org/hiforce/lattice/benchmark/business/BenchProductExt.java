@@ -0,0 +1,75 @@
+package org.hiforce.lattice.benchmark.business;
+
+import com.google.common.collect.ImmutableMap;
+import com.google.common.collect.Lists;
+import org.hiforce.lattice.annotation.Realization;
+import org.hiforce.lattice.benchmark.ability.ext.BlankBenchAbilityExt;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Realizes all the benchmark extension points for the synthetic products.
+ *
+ * @author Rocky Yu
+ * @since 2026/10/18
+ */
+@Realization(codes = BenchProduct.CODE_PREFIX + "*")
+public class BenchProductExt extends BlankBenchAbilityExt {
+
+    private static final String VALUE = "product";
+
+    private static final List<String> LIST_VALUE = Lists.newArrayList(VALUE);
+
+    private static final Map<String, String> MAP_VALUE = ImmutableMap.of(VALUE, VALUE);
+
+    @Override
+    public String extension0() {
+        return VALUE;
+    }
+
+    @Override
+    public String extension1() {
+        return VALUE;
+    }
+
+    @Override
+    public String extension2() {
+        return VALUE;
+    }
+
+    @Override
+    public String extension3() {
+        return VALUE;
+    }
+
+    @Override
+    public String extension4() {
+        return VALUE;
+    }
+
+    @Override
+    public String extension5() {
+        return VALUE;
+    }
+
+    @Override
+    public String extension6() {
+        return VALUE;
+    }
+
+    @Override
+    public String extension7() {
+        return VALUE;
+    }
+
+    @Override
+    public List<String> listExtension() {
+        return LIST_VALUE;
+    }
+
+    @Override
+    public Map<String, String> mapExtension() {
+        return MAP_VALUE;
+    }
+}
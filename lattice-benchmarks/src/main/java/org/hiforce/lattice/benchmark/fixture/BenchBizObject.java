@@ -0,0 +1,42 @@
+package org.hiforce.lattice.benchmark.fixture;
+
+import org.hiforce.lattice.model.business.BizContext;
+import org.hiforce.lattice.model.business.IBizObject;
+
+import java.io.Serializable;
+
+/**
+ * @author Rocky Yu
+ * @since 2026/10/18
+ */
+public class BenchBizObject implements IBizObject {
+
+    private final BizContext bizContext;
+
+    public BenchBizObject(String bizCode, long bizId) {
+        this.bizContext = new BizContext() {
+
+            private static final long serialVersionUID = -5529722353394826514L;
+
+            @Override
+            public Serializable getBizId() {
+                return bizId;
+            }
+
+            @Override
+            public String getBizCode() {
+                return bizCode;
+            }
+
+            @Override
+            public String getScenario() {
+                return null;
+            }
+        };
+    }
+
+    @Override
+    public BizContext getBizContext() {
+        return bizContext;
+    }
+}
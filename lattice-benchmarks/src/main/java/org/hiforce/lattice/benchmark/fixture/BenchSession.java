@@ -0,0 +1,55 @@
+package org.hiforce.lattice.benchmark.fixture;
+
+import org.hiforce.lattice.model.business.IBizObject;
+import org.hiforce.lattice.model.scenario.ScenarioRequest;
+import org.hiforce.lattice.runtime.session.BizSessionScope;
+
+import java.util.List;
+import java.util.function.Supplier;
+
+/**
+ * The session of the benchmark business objects. Besides {@link #invoke()}, the session
+ * can be opened and closed explicitly, so a benchmark can run many iterations inside one session.
+ *
+ * @author Rocky Yu
+ * @since 2026/10/18
+ */
+public class BenchSession<Resp> extends BizSessionScope<Resp, BenchBizObject> {
+
+    private final Supplier<Resp> body;
+
+    public BenchSession(List<BenchBizObject> bizObjects, Supplier<Resp> body) {
+        super(bizObjects);
+        this.body = body;
+    }
+
+    public BenchSession(BenchBizObject bizObject, Supplier<Resp> body) {
+        super(bizObject);
+        this.body = body;
+    }
+
+    public void open() {
+        entrance();
+    }
+
+    public void close() {
+        exit();
+    }
+
+    @Override
+    public ScenarioRequest buildScenarioRequest(BenchBizObject bizObject) {
+        return new ScenarioRequest() {
+            private static final long serialVersionUID = 2468262446497414226L;
+
+            @Override
+            public IBizObject getBizObject() {
+                return bizObject;
+            }
+        };
+    }
+
+    @Override
+    protected Resp execute() {
+        return body.get();
+    }
+}
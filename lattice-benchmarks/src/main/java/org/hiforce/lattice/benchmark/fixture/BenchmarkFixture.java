@@ -0,0 +1,123 @@
+package org.hiforce.lattice.benchmark.fixture;
+
+import com.google.common.collect.Lists;
+import org.hiforce.lattice.benchmark.ability.ext.BenchAbilityExt;
+import org.hiforce.lattice.benchmark.business.BenchBusiness;
+import org.hiforce.lattice.benchmark.business.BenchProduct;
+import org.hiforce.lattice.model.config.BusinessConfig;
+import org.hiforce.lattice.model.config.ExtPriority;
+import org.hiforce.lattice.model.config.ExtPriorityConfig;
+import org.hiforce.lattice.model.config.ProductConfig;
+import org.hiforce.lattice.model.config.builder.BusinessConfigBuilder;
+import org.hiforce.lattice.model.register.BusinessSpec;
+import org.hiforce.lattice.model.register.ProductSpec;
+import org.hiforce.lattice.model.register.TemplateSpec;
+import org.hiforce.lattice.model.business.TemplateType;
+import org.hiforce.lattice.runtime.Lattice;
+import org.hiforce.lattice.runtime.ability.register.TemplateRegister;
+import org.hiforce.lattice.runtime.cache.index.TemplateIndex;
+
+import java.util.List;
+
+/**
+ * Start the Lattice with the synthetic businesses and products.
+ * <p>
+ * Every business installs all the products, and configures the first N indexed extension
+ * points (plus the list and map extension points) with all the products before the business.
+ * The realizations are registered by the wildcard codes bench.business.* and bench.product.*.
+ *
+ * @author Rocky Yu
+ * @since 2026/10/18
+ */
+public final class BenchmarkFixture {
+
+    private BenchmarkFixture() {
+
+    }
+
+    /**
+     * (Re)start the Lattice and register the synthetic businesses and products.
+     *
+     * @param businesses the number of businesses.
+     * @param products   the number of products.
+     * @param extensions the number of configured indexed extension points.
+     */
+    public static void start(int businesses, int products, int extensions) {
+        if (extensions < 1 || extensions > BenchAbilityExt.MAX_INDEXED_EXTENSIONS) {
+            throw new IllegalArgumentException("extensions should be in [1, "
+                    + BenchAbilityExt.MAX_INDEXED_EXTENSIONS + "]: " + extensions);
+        }
+        Lattice lattice = Lattice.getInstance();
+        lattice.setSimpleMode(true);
+        if (lattice.isInitialized()) {
+            lattice.clear();
+        }
+        lattice.start();
+
+        List<ProductConfig> productConfigs = Lists.newArrayList();
+        for (int i = 0; i < products; i++) {
+            ProductSpec spec = new ProductSpec();
+            spec.setProductClass(BenchProduct.class);
+            spec.setCode(BenchProduct.code(i));
+            spec.setName(spec.getCode());
+            spec.setPriority(i);
+            register(spec);
+            TemplateRegister.getInstance().addProduct(spec);
+            productConfigs.add(ProductConfig.of(spec.getCode()));
+        }
+        for (int i = 0; i < businesses; i++) {
+            BusinessSpec spec = new BusinessSpec();
+            spec.setBusinessClass(BenchBusiness.class);
+            spec.setCode(BenchBusiness.code(i));
+            spec.setName(spec.getCode());
+            spec.setPriority(i);
+            register(spec);
+            TemplateRegister.getInstance().addBusiness(spec);
+            lattice.addBusinessConfig(buildBusinessConfig(spec, productConfigs, extensions));
+        }
+    }
+
+    /**
+     * @param businesses the number of businesses.
+     * @return one business object for each synthetic business.
+     */
+    public static List<BenchBizObject> bizObjects(int businesses) {
+        List<BenchBizObject> bizObjects = Lists.newArrayListWithCapacity(businesses);
+        for (int i = 0; i < businesses; i++) {
+            bizObjects.add(new BenchBizObject(BenchBusiness.code(i), i));
+        }
+        return bizObjects;
+    }
+
+    @SuppressWarnings("rawtypes")
+    private static void register(TemplateSpec spec) {
+        spec.getRealizations().addAll(TemplateRegister.getInstance().getMatchedRealizations(spec.getCode()));
+        TemplateIndex.getInstance().addTemplateIndex(spec);
+    }
+
+    private static BusinessConfig buildBusinessConfig(BusinessSpec business, List<ProductConfig> products,
+                                                      int extensions) {
+        List<ExtPriorityConfig> priorityConfigs = Lists.newArrayList();
+        for (int i = 0; i < extensions; i++) {
+            priorityConfigs.add(buildExtPriorityConfig(BenchAbilityExt.extCode(i), business, products));
+        }
+        priorityConfigs.add(buildExtPriorityConfig(BenchAbilityExt.EXT_LIST, business, products));
+        priorityConfigs.add(buildExtPriorityConfig(BenchAbilityExt.EXT_MAP, business, products));
+        return BusinessConfigBuilder.builder()
+                .bizCode(business.getCode())
+                .priority(business.getPriority())
+                .install(products)
+                .extension(priorityConfigs)
+                .build();
+    }
+
+    private static ExtPriorityConfig buildExtPriorityConfig(String extCode, BusinessSpec business,
+                                                            List<ProductConfig> products) {
+        ExtPriorityConfig config = new ExtPriorityConfig(extCode);
+        for (ProductConfig product : products) {
+            config.getPriorities().add(ExtPriority.of(product.getCode(), TemplateType.PRODUCT));
+        }
+        config.getPriorities().add(ExtPriority.of(business.getCode(), TemplateType.BUSINESS));
+        return config;
+    }
+}
@@ -24,4 +24,37 @@ public @interface Extension {
     ReduceType reduceType() default ReduceType.UNKNOWN;
 
     ProtocolType protocolType() default ProtocolType.LOCAL;
+
+    /**
+     * Execute the matched runners of the extension point concurrently, only takes effect
+     * when the reducer never breaks early (e.g. None, Collect). The results are still
+     * reduced in the priority order of the runners.
+     */
+    boolean parallel() default false;
+
+    /**
+     * Whether the result of the extension point is a pure function of (bizCode, scenario, params),
+     * so the result of each runner can be cached across the requests.
+     * Only the invocation whose params are immutable values (String, the boxed primitives, enums ...,
+     * or the arrays and collections of them) is cached, as the cache key keeps a copy of the params.
+     * The cached results are shared by the requests, they should not be modified.
+     */
+    boolean cacheable() default false;
+
+    /**
+     * The time to live of the cached result, in seconds.
+     */
+    long cacheTtl() default 60;
+
+    /**
+     * The max cached results of the extension point.
+     */
+    long cacheSize() default 1024;
+
+    /**
+     * Memoize the result of each runner in current session, keyed by (bizCode, bizId, scenario, params),
+     * so the repeated invocations in one session execute the runners only once.
+     * The memoized results are cleared when the session exits.
+     */
+    boolean sessionMemoized() default false;
 }
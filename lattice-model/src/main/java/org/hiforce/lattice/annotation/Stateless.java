@@ -0,0 +1,20 @@
+package org.hiforce.lattice.annotation;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Inherited;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Mark the business, product or use case template as stateless,
+ * one instance of the template will be shared by all the requests.
+ *
+ * @author Rocky Yu
+ * @since 2026/10/18
+ */
+@Inherited
+@Retention(RetentionPolicy.RUNTIME)
+@Target({ElementType.TYPE})
+public @interface Stateless {
+}
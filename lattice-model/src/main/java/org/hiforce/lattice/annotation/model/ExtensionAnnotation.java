@@ -28,4 +28,24 @@ public class ExtensionAnnotation {
     @Getter
     @Setter
     private ProtocolType protocolType;
+
+    @Getter
+    @Setter
+    private boolean parallel;
+
+    @Getter
+    @Setter
+    private boolean cacheable;
+
+    @Getter
+    @Setter
+    private long cacheTtl;
+
+    @Getter
+    @Setter
+    private long cacheSize;
+
+    @Getter
+    @Setter
+    private boolean sessionMemoized;
 }
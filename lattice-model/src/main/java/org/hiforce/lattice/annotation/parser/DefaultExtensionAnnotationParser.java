@@ -37,6 +37,31 @@ public class DefaultExtensionAnnotationParser extends ExtensionAnnotationParser<
         return annotation.protocolType();
     }
 
+    @Override
+    public boolean isParallel(Extension annotation) {
+        return annotation.parallel();
+    }
+
+    @Override
+    public boolean isCacheable(Extension annotation) {
+        return annotation.cacheable();
+    }
+
+    @Override
+    public long getCacheTtl(Extension annotation) {
+        return annotation.cacheTtl();
+    }
+
+    @Override
+    public long getCacheSize(Extension annotation) {
+        return annotation.cacheSize();
+    }
+
+    @Override
+    public boolean isSessionMemoized(Extension annotation) {
+        return annotation.sessionMemoized();
+    }
+
     @Override
     public Class<Extension> getAnnotationClass() {
         return Extension.class;
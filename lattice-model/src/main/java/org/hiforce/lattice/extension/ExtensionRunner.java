@@ -10,6 +10,7 @@ import org.hiforce.lattice.model.business.IBizObject;
 
 import javax.annotation.Nonnull;
 import java.util.List;
+import java.util.concurrent.CompletableFuture;
 
 /**
  * @author Rocky Yu
@@ -43,6 +44,24 @@ public abstract class ExtensionRunner<R> {
     public abstract List<R> runAllMatched(
             IBizObject bizObject, ExtensionCallback<IBusinessExt, R> callback, RunnerExecuteResult executeResult);
 
+    /**
+     * The asynchronous variant of {@link #runAllMatched(IBizObject, ExtensionCallback, RunnerExecuteResult)},
+     * the runner which blocks on I/O (e.g. remote runner) should override it.
+     * The arguments of the invocation should be captured before returned.
+     *
+     * @return the future of the results, completed in current thread by default.
+     */
+    public CompletableFuture<List<R>> runAllMatchedAsync(
+            IBizObject bizObject, ExtensionCallback<IBusinessExt, R> callback, RunnerExecuteResult executeResult) {
+        CompletableFuture<List<R>> future = new CompletableFuture<>();
+        try {
+            future.complete(runAllMatched(bizObject, callback, executeResult));
+        } catch (Throwable th) {
+            future.completeExceptionally(th);
+        }
+        return future;
+    }
+
     public abstract ExtensionRunnerType getType();
 
     public static class RunnerExecuteResult {
@@ -55,6 +74,21 @@ public abstract class ExtensionRunner<R> {
         @Setter
         private ExtensionRunnerType runnerType;
 
+        /**
+         * The arguments of current invocation. The runners are cached and shared among the invocations,
+         * so the runner should read the arguments from here, rather than from the ability it is built with.
+         */
+        @Getter
+        @Setter
+        private List<Object> invokeParams;
+
+        /**
+         * The failure of the runner, only reported when the runners executed in parallel.
+         */
+        @Getter
+        @Setter
+        private Throwable error;
+
     }
 
     @SuppressWarnings("all")
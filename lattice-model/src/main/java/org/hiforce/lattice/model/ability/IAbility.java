@@ -6,6 +6,7 @@ import org.hiforce.lattice.model.ability.execute.Reducer;
 import org.hiforce.lattice.model.context.AbilityContext;
 
 import javax.annotation.Nonnull;
+import java.util.concurrent.CompletableFuture;
 
 /**
  * @param <BusinessExt> the ExtensionPoint which current Ability provided.
@@ -66,4 +67,22 @@ public interface IAbility<BusinessExt extends IBusinessExt> {
      */
     <T, R> R reduceExecute(ExtensionCallback<BusinessExt, T> callback,
                            @Nonnull Reducer<T, R> reducer);
+
+    /**
+     * The asynchronous variant of {@link #reduceExecute(ExtensionCallback, Reducer)}.
+     *
+     * @param callback callback of the function.
+     * @param reducer  The multi-result reduce policy.
+     * @return the future of the extension customization result, completed in current thread by default.
+     */
+    default <T, R> CompletableFuture<R> reduceExecuteAsync(ExtensionCallback<BusinessExt, T> callback,
+                                                          @Nonnull Reducer<T, R> reducer) {
+        CompletableFuture<R> future = new CompletableFuture<>();
+        try {
+            future.complete(reduceExecute(callback, reducer));
+        } catch (Throwable th) {
+            future.completeExceptionally(th);
+        }
+        return future;
+    }
 }
@@ -0,0 +1,174 @@
+package org.hiforce.lattice.model.ability.cache;
+
+import lombok.extern.slf4j.Slf4j;
+import org.apache.commons.lang3.StringUtils;
+import org.apache.commons.lang3.reflect.MethodUtils;
+import org.hiforce.lattice.annotation.model.ExtensionAnnotation;
+import org.hiforce.lattice.model.ability.IBusinessExt;
+import org.hiforce.lattice.utils.LatticeAnnotationUtils;
+
+import java.lang.reflect.Method;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+
+/**
+ * The metadata of a BusinessExt class, held by a {@link ClassValue}, so it is released
+ * together with the class (e.g. the plugin class loader unloaded).
+ * <p>
+ * The supported extension codes and the extension methods are computed once per class,
+ * with a single-flight initialization, then read without lock.
+ * The sub BusinessExt resolved per (scenario, extCode) is cached in a concurrent map,
+ * and can be invalidated via {@link #clearSubBusinessExt()}, or per class via {@link #resetSubBusinessExt()}.
+ *
+ * @author Rocky Yu
+ * @since 2026/10/18
+ */
+@Slf4j
+public final class BusinessExtMetadata {
+
+    private static final ClassValue<BusinessExtMetadata> METADATA = new ClassValue<BusinessExtMetadata>() {
+        @Override
+        protected BusinessExtMetadata computeValue(Class<?> type) {
+            return new BusinessExtMetadata();
+        }
+    };
+
+    private static final AtomicLong SUB_EXT_GENERATION = new AtomicLong();
+
+    /**
+     * Marks the (scenario, extCode) which has no sub BusinessExt.
+     */
+    private static final Object NOT_FOUND = new Object();
+
+    private volatile Set<String> supportedCodes;
+
+    private volatile Map<String, Method> extMethods = Collections.emptyMap();
+
+    private volatile SubExtTable subExtTable = new SubExtTable(SUB_EXT_GENERATION.get());
+
+    private BusinessExtMetadata() {
+
+    }
+
+    public static BusinessExtMetadata of(Class<?> businessExtClass) {
+        return METADATA.get(businessExtClass);
+    }
+
+    /**
+     * Invalidate the resolved sub BusinessExt of all the classes.
+     */
+    public static void clearSubBusinessExt() {
+        SUB_EXT_GENERATION.incrementAndGet();
+    }
+
+    /**
+     * @param businessExt the instance of the class, its sub BusinessExt are visited when initializing.
+     * @return the supported extension codes of the class, including its sub BusinessExt.
+     */
+    public Set<String> getSupportedExtCodes(IBusinessExt businessExt) {
+        Set<String> codes = supportedCodes;
+        if (null != codes) {
+            return codes;
+        }
+        synchronized (this) {
+            if (null == supportedCodes) {
+                initialize(businessExt);
+            }
+            return supportedCodes;
+        }
+    }
+
+    /**
+     * @param businessExt the instance of the class.
+     * @param extCode     Extension's code.
+     * @return the accessible extension method declared in the class, or null.
+     */
+    public Method getExtensionMethod(IBusinessExt businessExt, String extCode) {
+        getSupportedExtCodes(businessExt);
+        return extMethods.get(extCode);
+    }
+
+    /**
+     * @param scenario the scenario, should not be null.
+     * @param extCode  Extension's code.
+     * @param resolver resolves the sub BusinessExt when absent, invoked at most once per key.
+     * @return the cached sub BusinessExt, or null if not found.
+     */
+    public IBusinessExt getSubBusinessExt(String scenario, String extCode,
+                                          Function<String, IBusinessExt> resolver) {
+        SubExtTable table = subExtTable;
+        if (table.generation != SUB_EXT_GENERATION.get()) {
+            table = renewSubExtTable();
+        }
+        Map<String, Object> scenarioMap = table.entries.get(scenario);
+        if (null == scenarioMap) {
+            scenarioMap = table.entries.computeIfAbsent(scenario, k -> new ConcurrentHashMap<>());
+        }
+        Object found = scenarioMap.get(extCode);
+        if (null == found) {
+            found = scenarioMap.computeIfAbsent(extCode, k -> {
+                IBusinessExt point = resolver.apply(k);
+                return null == point ? NOT_FOUND : point;
+            });
+        }
+        return found == NOT_FOUND ? null : (IBusinessExt) found;
+    }
+
+    /**
+     * Invalidate the resolved sub BusinessExt of this class only.
+     */
+    public synchronized void resetSubBusinessExt() {
+        subExtTable = new SubExtTable(SUB_EXT_GENERATION.get());
+    }
+
+    private synchronized SubExtTable renewSubExtTable() {
+        long generation = SUB_EXT_GENERATION.get();
+        if (subExtTable.generation != generation) {
+            subExtTable = new SubExtTable(generation);
+        }
+        return subExtTable;
+    }
+
+    private void initialize(IBusinessExt businessExt) {
+        Set<String> codes = new HashSet<>();
+        Map<String, Method> methods = new HashMap<>();
+        for (IBusinessExt subBusinessExt : businessExt.getAllSubBusinessExt()) {
+            if (null == subBusinessExt)
+                continue;
+            codes.addAll(of(subBusinessExt.getClass()).getSupportedExtCodes(subBusinessExt));
+        }
+        try {
+            for (Method method : businessExt.getClass().getMethods()) {
+                ExtensionAnnotation annotation = LatticeAnnotationUtils.getExtensionAnnotation(method); // 会一直往上查询
+                if (null == annotation) {
+                    continue;
+                }
+                if (StringUtils.isNotEmpty(annotation.getCode())) {
+                    methods.put(annotation.getCode(), MethodUtils.getAccessibleMethod(method));
+                    codes.add(annotation.getCode());
+                }
+            }
+        } catch (Throwable th) {
+            log.warn(th.getMessage(), th);
+        }
+        extMethods = Collections.unmodifiableMap(methods);
+        supportedCodes = Collections.unmodifiableSet(codes);
+    }
+
+    private static final class SubExtTable {
+
+        private final long generation;
+
+        private final Map<String, Map<String, Object>> entries = new ConcurrentHashMap<>();
+
+        SubExtTable(long generation) {
+            this.generation = generation;
+        }
+    }
+}
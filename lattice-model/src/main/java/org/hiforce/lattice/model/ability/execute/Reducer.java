@@ -31,6 +31,14 @@ public abstract class Reducer<T, R> {
 
     public abstract ReduceType reducerType();
 
+    /**
+     * @return whether the reducer may break before all the runners executed.
+     * The runners can be executed in parallel only if the reducer never breaks.
+     */
+    public boolean mayBreak() {
+        return true;
+    }
+
     public String reduceName() {
         return this.getClass().getSimpleName();
     }
@@ -0,0 +1,12 @@
+package org.hiforce.lattice.model.business;
+
+/**
+ * The template which keeps no state, one instance of the template
+ * will be shared by all the requests. The same as annotated by
+ * {@link org.hiforce.lattice.annotation.Stateless}.
+ *
+ * @author Rocky Yu
+ * @since 2026/10/18
+ */
+public interface IStatelessTemplate extends ITemplate {
+}
@@ -1,6 +1,7 @@
 package org.hiforce.lattice.model.config;
 
 import lombok.Getter;
+import lombok.NoArgsConstructor;
 import lombok.Setter;
 import org.hiforce.lattice.model.business.TemplateType;
 
@@ -10,6 +11,7 @@ import java.io.Serializable;
  * @author Rocky Yu
  * @since 2022/9/21
  */
+@NoArgsConstructor
 public class ExtPriority implements Serializable {
 
     private static final long serialVersionUID = -5187745224595471480L;
@@ -22,6 +24,11 @@ public class ExtPriority implements Serializable {
     @Setter
     private TemplateType type;
 
+    protected ExtPriority(String code, TemplateType type) {
+        this.code = code;
+        this.type = type;
+    }
+
     public static ExtPriority of(String code, TemplateType type) {
         ExtPriority priority = new ExtPriority();
         priority.code = code;
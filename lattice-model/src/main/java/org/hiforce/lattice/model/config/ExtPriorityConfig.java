@@ -29,4 +29,9 @@ public class ExtPriorityConfig implements Serializable {
     public ExtPriorityConfig(String extCode) {
         this.extCode = extCode;
     }
+
+    protected ExtPriorityConfig(String extCode, List<ExtPriority> priorities) {
+        this.extCode = extCode;
+        this.priorities = priorities;
+    }
 }
@@ -1,6 +1,7 @@
 package org.hiforce.lattice.model.config;
 
 import lombok.Getter;
+import lombok.NoArgsConstructor;
 import lombok.Setter;
 
 import javax.annotation.Nonnull;
@@ -10,6 +11,7 @@ import java.io.Serializable;
  * @author Rocky Yu
  * @since 2022/9/21
  */
+@NoArgsConstructor
 public class ProductConfig implements Serializable {
 
     private static final long serialVersionUID = -8571944467506060106L;
@@ -18,6 +20,10 @@ public class ProductConfig implements Serializable {
     @Setter
     private String code;
 
+    protected ProductConfig(String code) {
+        this.code = code;
+    }
+
     public static ProductConfig of(@Nonnull String code) {
         ProductConfig productConfig = new ProductConfig();
         productConfig.setCode(code);
@@ -27,7 +33,8 @@ public class ProductConfig implements Serializable {
     @Override
     public boolean equals(Object o) {
         if (this == o) return true;
-        if (o == null || getClass() != o.getClass()) return false;
+        // the readonly copy equals to the config of the same code.
+        if (!(o instanceof ProductConfig)) return false;
 
         ProductConfig config = (ProductConfig) o;
 
@@ -1,11 +1,25 @@
 package org.hiforce.lattice.model.config;
 
 import org.hiforce.lattice.exception.LatticeRuntimeException;
+import org.hiforce.lattice.model.business.TemplateType;
 
+import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
 import java.util.Set;
+import java.util.stream.Collectors;
 
 /**
+ * The compiled, immutable view of a business config. The products and the extension priorities
+ * are copied as readonly elements and indexed when constructed, so the instance can be shared
+ * by all the readers.
+ *
  * @author Rocky Yu
  * @since 2022/9/21
  */
@@ -13,10 +27,95 @@ public class ReadonlyBusinessConfig extends BusinessConfig {
 
     private static final long serialVersionUID = 248112387639393117L;
 
+    private static final ExtPriority[] EMPTY_PRIORITIES = new ExtPriority[0];
+
+    private final Set<ProductConfig> readonlyProducts;
+
+    private final List<ExtPriorityConfig> readonlyExtensions;
+
+    private final Set<String> installedProductCodes = new HashSet<>();
+
+    private final Map<String, ProductConfig> productConfigMap = new HashMap<>();
+
+    private final Map<String, CompiledExtPriority> extPriorityMap = new HashMap<>();
+
     public ReadonlyBusinessConfig(String bizCode, int priority, Set<ProductConfig> products, List<ExtPriorityConfig> priorities) {
-        super(bizCode, priority, products, priorities);
+        super(bizCode, priority, copyOf(products), copyOf(priorities));
+        this.readonlyProducts = Collections.unmodifiableSet(super.getProducts());
+        this.readonlyExtensions = Collections.unmodifiableList(super.getExtensions());
+        for (ProductConfig product : readonlyProducts) {
+            installedProductCodes.add(product.getCode());
+            productConfigMap.putIfAbsent(product.getCode(), product);
+        }
+        for (ExtPriorityConfig extension : readonlyExtensions) {
+            extPriorityMap.putIfAbsent(extension.getExtCode(), new CompiledExtPriority(extension));
+        }
+    }
+
+    public static ReadonlyBusinessConfig of(BusinessConfig config) {
+        if (config instanceof ReadonlyBusinessConfig) {
+            return (ReadonlyBusinessConfig) config;
+        }
+        ReadonlyBusinessConfig readonlyConfig = new ReadonlyBusinessConfig(config.getBizCode(), config.getPriority(),
+                config.getProducts(), config.getExtensions());
+        readonlyConfig.setAutoBuild(config.isAutoBuild());
+        return readonlyConfig;
+    }
+
+    @Override
+    public Set<ProductConfig> getProducts() {
+        return readonlyProducts;
+    }
+
+    @Override
+    public List<ExtPriorityConfig> getExtensions() {
+        return readonlyExtensions;
+    }
+
+    @Override
+    public boolean productInstalled(String productCode) {
+        return installedProductCodes.contains(productCode);
     }
 
+    @Override
+    public boolean notContainExtCode(String extCode) {
+        return !extPriorityMap.containsKey(extCode);
+    }
+
+    @Override
+    public ProductConfig getProductConfig(String productCode) {
+        return productConfigMap.get(productCode);
+    }
+
+    @Override
+    public ExtPriorityConfig getExtPriorityConfigByExtCode(String extCode) {
+        CompiledExtPriority compiled = extPriorityMap.get(extCode);
+        return null == compiled ? null : compiled.config;
+    }
+
+    @Override
+    public List<ExtPriority> getExtPriorityByCode(String extCode, boolean onlyHorizontal) {
+        CompiledExtPriority compiled = extPriorityMap.get(extCode);
+        if (null == compiled) {
+            return null;
+        }
+        return onlyHorizontal ? compiled.horizontalList : compiled.allList;
+    }
+
+    /**
+     * @param extCode        The code of extension
+     * @param onlyHorizontal only load the Horizontal type template.
+     * @return the shared priority array, should not be modified, or null if the extension not configured.
+     */
+    public ExtPriority[] getExtPriorities(String extCode, boolean onlyHorizontal) {
+        CompiledExtPriority compiled = extPriorityMap.get(extCode);
+        if (null == compiled) {
+            return null;
+        }
+        return onlyHorizontal ? compiled.horizontal : compiled.all;
+    }
+
+    @Override
     public void setBizCode(String bizCode) {
         throw new LatticeRuntimeException("LATTICE-CORE-003");
     }
@@ -28,4 +127,106 @@ public class ReadonlyBusinessConfig extends BusinessConfig {
     public void setPriorityConfigs(List<ExtPriorityConfig> priorityConfigs) {
         throw new LatticeRuntimeException("LATTICE-CORE-003");
     }
+
+    private static Set<ProductConfig> copyOf(Set<ProductConfig> products) {
+        Set<ProductConfig> output = new LinkedHashSet<>(products.size());
+        for (ProductConfig product : products) {
+            if (null != product) {
+                output.add(new ReadonlyProductConfig(product.getCode()));
+            }
+        }
+        return output;
+    }
+
+    private static List<ExtPriorityConfig> copyOf(List<ExtPriorityConfig> priorities) {
+        List<ExtPriorityConfig> output = new ArrayList<>(priorities.size());
+        for (ExtPriorityConfig priority : priorities) {
+            if (null == priority) {
+                continue;
+            }
+            List<ExtPriority> copied = new ArrayList<>(priority.getPriorities().size());
+            for (ExtPriority p : priority.getPriorities()) {
+                copied.add(new ReadonlyExtPriority(p.getCode(), p.getType()));
+            }
+            output.add(new ReadonlyExtPriorityConfig(priority.getExtCode(), Collections.unmodifiableList(copied)));
+        }
+        return output;
+    }
+
+    private static final class ReadonlyProductConfig extends ProductConfig {
+
+        private static final long serialVersionUID = 6230513862934412917L;
+
+        ReadonlyProductConfig(String code) {
+            super(code);
+        }
+
+        @Override
+        public void setCode(String code) {
+            throw new LatticeRuntimeException("LATTICE-CORE-003");
+        }
+    }
+
+    private static final class ReadonlyExtPriorityConfig extends ExtPriorityConfig {
+
+        private static final long serialVersionUID = -4685298106378217764L;
+
+        ReadonlyExtPriorityConfig(String extCode, List<ExtPriority> priorities) {
+            super(extCode, priorities);
+        }
+
+        @Override
+        public void setExtCode(String extCode) {
+            throw new LatticeRuntimeException("LATTICE-CORE-003");
+        }
+
+        @Override
+        public void setPriorities(List<ExtPriority> priorities) {
+            throw new LatticeRuntimeException("LATTICE-CORE-003");
+        }
+    }
+
+    private static final class ReadonlyExtPriority extends ExtPriority {
+
+        private static final long serialVersionUID = 1572948016271529386L;
+
+        ReadonlyExtPriority(String code, TemplateType type) {
+            super(code, type);
+        }
+
+        @Override
+        public void setCode(String code) {
+            throw new LatticeRuntimeException("LATTICE-CORE-003");
+        }
+
+        @Override
+        public void setType(TemplateType type) {
+            throw new LatticeRuntimeException("LATTICE-CORE-003");
+        }
+    }
+
+    private static final class CompiledExtPriority implements Serializable {
+
+        private static final long serialVersionUID = -3203539553957212846L;
+
+        private final ExtPriorityConfig config;
+
+        private final ExtPriority[] all;
+
+        private final ExtPriority[] horizontal;
+
+        private final List<ExtPriority> allList;
+
+        private final List<ExtPriority> horizontalList;
+
+        CompiledExtPriority(ExtPriorityConfig config) {
+            this.config = config;
+            this.all = config.getPriorities().toArray(EMPTY_PRIORITIES);
+            this.horizontal = config.getPriorities().stream()
+                    .filter(p -> null != p.getType() && p.getType().isHorizontal())
+                    .collect(Collectors.toList()).toArray(EMPTY_PRIORITIES);
+            this.allList = Collections.unmodifiableList(Arrays.asList(all));
+            this.horizontalList = Collections.unmodifiableList(Arrays.asList(horizontal));
+        }
+    }
 }
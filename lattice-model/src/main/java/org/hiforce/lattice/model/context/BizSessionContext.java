@@ -3,11 +3,10 @@ package org.hiforce.lattice.model.context;
 import com.google.common.collect.Maps;
 import lombok.Getter;
 import org.hiforce.lattice.cache.invoke.InvokeCache;
-import org.hiforce.lattice.model.business.ITemplate;
+import org.hiforce.lattice.model.business.BizContext;
 import org.hiforce.lattice.model.register.TemplateSpec;
 
 import javax.annotation.Nullable;
-import java.util.List;
 import java.util.Map;
 
 /**
@@ -19,9 +18,33 @@ public class BizSessionContext {
     private static final ThreadLocal<BizSessionContext> SESSION_CONTEXT_THREAD_LOCAL =
             ThreadLocal.withInitial(BizSessionContext::new);
 
+    /**
+     * The effective templates of the business objects in current session.
+     */
     @Getter
-    private final Map<String, List<TemplateSpec<? extends ITemplate>>>
-            effectiveTemplates = Maps.newConcurrentMap();
+    private final Map<BizContext, EffectiveTemplates> effectiveTemplates = Maps.newConcurrentMap();
+
+    /**
+     * @param bizContext the business context.
+     * @return the effective templates of the business object, or an empty one.
+     */
+    public EffectiveTemplates getEffectiveTemplates(BizContext bizContext) {
+        if (null == bizContext) {
+            return EffectiveTemplates.EMPTY;
+        }
+        EffectiveTemplates templates = effectiveTemplates.get(bizContext);
+        return null == templates ? EffectiveTemplates.EMPTY : templates;
+    }
+
+    /**
+     * @param bizContext the business context.
+     * @param template   the template.
+     * @return whether the template is effective for the business object.
+     */
+    @SuppressWarnings("rawtypes")
+    public boolean isTemplateEffective(BizContext bizContext, TemplateSpec template) {
+        return getEffectiveTemplates(bizContext).contains(template);
+    }
 
     @SuppressWarnings("unused")
     public <T> void addExtObject(Class<? super T> klass, Object id, @Nullable T instance) {
@@ -0,0 +1,109 @@
+package org.hiforce.lattice.model.context;
+
+import lombok.Getter;
+import org.apache.commons.lang3.StringUtils;
+import org.hiforce.lattice.model.business.ITemplate;
+import org.hiforce.lattice.model.register.TemplateSpec;
+
+import java.util.BitSet;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * The effective templates of a business object in current session.
+ * The membership is a bit test over the template internal ids, offset by the
+ * smallest id, so the bitset keeps compact as the ids grow.
+ *
+ * @author Rocky Yu
+ * @since 2026/10/18
+ */
+public class EffectiveTemplates {
+
+    public static final EffectiveTemplates EMPTY = new EffectiveTemplates(Collections.emptyList());
+
+    /**
+     * The effective templates, sorted by the priority.
+     */
+    @Getter
+    private final List<TemplateSpec<? extends ITemplate>> templates;
+
+    private final BitSet internalIds = new BitSet();
+
+    private final long baseInternalId;
+
+    private boolean hasUnindexed;
+
+    public EffectiveTemplates(List<TemplateSpec<? extends ITemplate>> templates) {
+        this.templates = Collections.unmodifiableList(templates);
+        long base = Long.MAX_VALUE;
+        for (TemplateSpec<? extends ITemplate> template : templates) {
+            Long internalId = template.getInternalId();
+            if (null != internalId && internalId < base) {
+                base = internalId;
+            }
+        }
+        this.baseInternalId = base;
+        for (TemplateSpec<? extends ITemplate> template : templates) {
+            Long internalId = template.getInternalId();
+            if (null == internalId || internalId - base > Integer.MAX_VALUE) {
+                hasUnindexed = true;
+                continue;
+            }
+            internalIds.set((int) (internalId - base));
+        }
+    }
+
+    /**
+     * @param template the template.
+     * @return whether the template is effective.
+     */
+    @SuppressWarnings("rawtypes")
+    public boolean contains(TemplateSpec template) {
+        if (null == template) {
+            return false;
+        }
+        Long internalId = template.getInternalId();
+        if (null != internalId) {
+            long offset = internalId - baseInternalId;
+            if (offset >= 0 && offset <= Integer.MAX_VALUE && internalIds.get((int) offset)) {
+                return true;
+            }
+        }
+        return hasUnindexed && containsCode(template.getCode());
+    }
+
+    /**
+     * Two instances are equal if they hold the same templates in the same order,
+     * so the business objects can be grouped by their effective templates.
+     */
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (o == null || getClass() != o.getClass()) return false;
+        EffectiveTemplates that = (EffectiveTemplates) o;
+        if (templates.size() != that.templates.size()
+                || baseInternalId != that.baseInternalId || !internalIds.equals(that.internalIds)) {
+            return false;
+        }
+        for (int i = 0; i < templates.size(); i++) {
+            if (!StringUtils.equals(templates.get(i).getCode(), that.templates.get(i).getCode())) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    @Override
+    public int hashCode() {
+        return 31 * internalIds.hashCode() + Long.hashCode(baseInternalId);
+    }
+
+    private boolean containsCode(String code) {
+        for (TemplateSpec<? extends ITemplate> template : templates) {
+            if (StringUtils.equals(code, template.getCode())) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
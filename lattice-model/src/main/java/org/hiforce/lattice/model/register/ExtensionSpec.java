@@ -36,6 +36,29 @@ public class ExtensionSpec extends BaseSpec {
     @Setter
     private ProtocolType protocolType = ProtocolType.LOCAL;
 
+    @Getter
+    @Setter
+    private boolean parallel;
+
+    @Getter
+    @Setter
+    private boolean cacheable;
+
+    /**
+     * The time to live of the cached result, in seconds.
+     */
+    @Getter
+    @Setter
+    private long cacheTtl;
+
+    @Getter
+    @Setter
+    private long cacheSize;
+
+    @Getter
+    @Setter
+    private boolean sessionMemoized;
+
     @Getter
     @Setter
     private String groupCode;
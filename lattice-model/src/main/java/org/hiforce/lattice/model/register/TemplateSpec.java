@@ -3,12 +3,17 @@ package org.hiforce.lattice.model.register;
 import com.google.common.collect.Lists;
 import lombok.Getter;
 import lombok.Setter;
+import org.hiforce.lattice.annotation.Stateless;
 import org.hiforce.lattice.cache.ITemplateCache;
 import org.hiforce.lattice.cache.LatticeCacheFactory;
+import org.hiforce.lattice.model.business.IStatelessTemplate;
 import org.hiforce.lattice.model.business.ITemplate;
 import org.hiforce.lattice.model.business.TemplateType;
+import org.hiforce.lattice.model.scenario.ScenarioRequest;
 
 import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
 
 /**
  * @author Rocky Yu
@@ -42,5 +47,75 @@ public abstract class TemplateSpec<T extends ITemplate> extends BaseSpec {
         return internalId;
     }
 
+    private static final int MAX_POOLED_INSTANCES = 16;
+
+    private volatile T sharedInstance;
+
+    private volatile BlockingQueue<T> instancePool;
+
     public abstract T newInstance();
+
+    /**
+     * Borrow a template instance to evaluate the effectiveness.
+     * The stateless template is instantiated once and shared, the others are
+     * taken from a pool, and should be returned by {@link #returnInstance(ITemplate)}.
+     *
+     * @return the template instance.
+     */
+    public T borrowInstance() {
+        T instance = sharedInstance;
+        if (null != instance) {
+            return instance;
+        }
+        BlockingQueue<T> pool = instancePool;
+        if (null != pool) {
+            instance = pool.poll();
+            return null == instance ? newInstance() : instance;
+        }
+        instance = newInstance();
+        if (null == instance) {
+            return null;
+        }
+        if (isStatelessTemplate(instance)) {
+            sharedInstance = instance;
+        } else {
+            synchronized (this) {
+                if (null == instancePool) {
+                    instancePool = new ArrayBlockingQueue<>(MAX_POOLED_INSTANCES);
+                }
+            }
+        }
+        return instance;
+    }
+
+    public void returnInstance(T instance) {
+        if (null == instance || instance == sharedInstance) {
+            return;
+        }
+        BlockingQueue<T> pool = instancePool;
+        if (null != pool) {
+            pool.offer(instance);
+        }
+    }
+
+    /**
+     * @param request the scenario request.
+     * @return whether the template is effective for the request.
+     */
+    public boolean isEffect(ScenarioRequest request) {
+        T instance = borrowInstance();
+        if (null == instance) {
+            return false;
+        }
+        try {
+            return instance.isEffect(request);
+        } finally {
+            returnInstance(instance);
+        }
+    }
+
+    private static boolean isStatelessTemplate(ITemplate instance) {
+        return instance instanceof IStatelessTemplate
+                || instance.getClass().isAnnotationPresent(Stateless.class);
+    }
 }
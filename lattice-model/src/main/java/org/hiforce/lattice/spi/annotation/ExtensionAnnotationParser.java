@@ -22,6 +22,26 @@ public abstract class ExtensionAnnotationParser<T extends Annotation> extends La
 
     public abstract ProtocolType getProtocolType(T annotation);
 
+    public boolean isParallel(T annotation) {
+        return false;
+    }
+
+    public boolean isCacheable(T annotation) {
+        return false;
+    }
+
+    public long getCacheTtl(T annotation) {
+        return 0;
+    }
+
+    public long getCacheSize(T annotation) {
+        return 0;
+    }
+
+    public boolean isSessionMemoized(T annotation) {
+        return false;
+    }
+
     public ExtensionAnnotation buildAnnotationInfo(T annotation) {
         if (null == annotation) {
             return null;
@@ -32,6 +52,11 @@ public abstract class ExtensionAnnotationParser<T extends Annotation> extends La
         info.setDesc(getDesc(annotation));
         info.setReduceType(getReduceType(annotation));
         info.setProtocolType(getProtocolType(annotation));
+        info.setParallel(isParallel(annotation));
+        info.setCacheable(isCacheable(annotation));
+        info.setCacheTtl(getCacheTtl(annotation));
+        info.setCacheSize(getCacheSize(annotation));
+        info.setSessionMemoized(isSessionMemoized(annotation));
         return info;
     }
 }
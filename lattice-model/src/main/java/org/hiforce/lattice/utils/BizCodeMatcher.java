@@ -0,0 +1,176 @@
+package org.hiforce.lattice.utils;
+
+import org.apache.commons.lang3.StringUtils;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * A registry of the (wildcard) codes, answers which registered codes match a specific code
+ * with the same semantic of {@link BizCodeUtils#isCodesMatched(String, String)}.
+ * <p>
+ * The exact codes are hash indexed. The wildcard codes are indexed in a trie by their literal
+ * prefix (e.g. business.* ), or by their reversed literal suffix (e.g. *.business ), so a lookup
+ * only verifies the wildcard codes whose literal part matches, with the cached compiled pattern.
+ * The matched values are returned in the registering order.
+ *
+ * @author Rocky Yu
+ * @since 2026/10/18
+ */
+@SuppressWarnings("unchecked")
+public class BizCodeMatcher<T> {
+
+    private static final String REGEX_META_CHARS = "\\^$|?+()[]{}";
+
+    private static final Entry[] EMPTY = new Entry[0];
+
+    private static final Comparator<Entry> ORDER = Comparator.comparingLong(p -> p.sequence);
+
+    private final Map<String, Entry[]> exactEntries = new ConcurrentHashMap<>(120);
+
+    private final Node prefixRoot = new Node();
+
+    private final Node suffixRoot = new Node();
+
+    private volatile Entry[] unindexedEntries = EMPTY;
+
+    private long sequence;
+
+    public synchronized void add(String code, T value) {
+        if (null == code) {
+            return;
+        }
+        Entry entry = new Entry(code, value, sequence++);
+        if (!StringUtils.contains(code, "*")) {
+            exactEntries.put(code, append(exactEntries.getOrDefault(code, EMPTY), entry));
+        } else if (StringUtils.containsAny(code, REGEX_META_CHARS)) {
+            unindexedEntries = append(unindexedEntries, entry);
+        } else if (BizCodeUtils.isSuffixPatternCode(code)) {
+            Node node = suffixRoot;
+            for (int i = code.length() - 1; i >= 0 && code.charAt(i) != '*'; i--) {
+                node = node.child(code.charAt(i));
+            }
+            node.entries = append(node.entries, entry);
+        } else {
+            Node node = prefixRoot;
+            for (int i = 0; i < code.length() && code.charAt(i) != '*'; i++) {
+                node = node.child(code.charAt(i));
+            }
+            node.entries = append(node.entries, entry);
+        }
+    }
+
+    public synchronized void clear() {
+        exactEntries.clear();
+        prefixRoot.clear();
+        suffixRoot.clear();
+        unindexedEntries = EMPTY;
+    }
+
+    /**
+     * @param specificCode the specific code, e.g. the code of business.
+     * @return the values of the registered codes which match the specific code, in the registering order.
+     */
+    public List<T> match(String specificCode) {
+        if (null == specificCode) {
+            return Collections.emptyList();
+        }
+        List<Entry> candidates = new ArrayList<>();
+        Entry[] exact = exactEntries.get(specificCode);
+        if (null != exact) {
+            candidates.addAll(Arrays.asList(exact));
+        }
+        collectWildcardMatched(specificCode, candidates);
+        if (candidates.isEmpty()) {
+            return Collections.emptyList();
+        }
+        candidates.sort(ORDER);
+        List<T> values = new ArrayList<>(candidates.size());
+        for (Entry entry : candidates) {
+            values.add((T) entry.value);
+        }
+        return values;
+    }
+
+    /**
+     * @param specificCode the specific code, e.g. the code of business.
+     * @return the value of the first registered code which matches the specific code.
+     */
+    public T matchFirst(String specificCode) {
+        List<T> values = match(specificCode);
+        return values.isEmpty() ? null : values.get(0);
+    }
+
+    private void collectWildcardMatched(String specificCode, List<Entry> candidates) {
+        Node node = prefixRoot;
+        collectMatched(node.entries, specificCode, candidates);
+        for (int i = 0; i < specificCode.length(); i++) {
+            node = node.children.get(specificCode.charAt(i));
+            if (null == node) {
+                break;
+            }
+            collectMatched(node.entries, specificCode, candidates);
+        }
+        node = suffixRoot;
+        collectMatched(node.entries, specificCode, candidates);
+        for (int i = specificCode.length() - 1; i >= 0; i--) {
+            node = node.children.get(specificCode.charAt(i));
+            if (null == node) {
+                break;
+            }
+            collectMatched(node.entries, specificCode, candidates);
+        }
+        collectMatched(unindexedEntries, specificCode, candidates);
+    }
+
+    private static void collectMatched(Entry[] entries, String specificCode, List<Entry> candidates) {
+        for (Entry entry : entries) {
+            if (StringUtils.equals(entry.code, specificCode)
+                    || BizCodeUtils.isPatternCodeMatched(entry.code, specificCode)) {
+                candidates.add(entry);
+            }
+        }
+    }
+
+    private static Entry[] append(Entry[] entries, Entry entry) {
+        Entry[] output = Arrays.copyOf(entries, entries.length + 1);
+        output[entries.length] = entry;
+        return output;
+    }
+
+    private static final class Entry {
+
+        private final String code;
+
+        private final Object value;
+
+        private final long sequence;
+
+        Entry(String code, Object value, long sequence) {
+            this.code = code;
+            this.value = value;
+            this.sequence = sequence;
+        }
+    }
+
+    private static final class Node {
+
+        private final Map<Character, Node> children = new ConcurrentHashMap<>(4);
+
+        private volatile Entry[] entries = EMPTY;
+
+        Node child(char c) {
+            return children.computeIfAbsent(c, k -> new Node());
+        }
+
+        void clear() {
+            children.clear();
+            entries = EMPTY;
+        }
+    }
+}
@@ -2,6 +2,8 @@ package org.hiforce.lattice.utils;
 
 import org.apache.commons.lang3.StringUtils;
 
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 
@@ -11,6 +13,10 @@ import java.util.regex.Pattern;
  */
 public class BizCodeUtils {
 
+    private static final int MAX_CACHED_PATTERNS = 4096;
+
+    private static final Map<String, Pattern> PATTERN_CACHE = new ConcurrentHashMap<>(120);
+
     public static boolean isCodesMatched(String code, String specificCode) {
 
         if (StringUtils.equals(code, specificCode))
@@ -29,15 +35,42 @@ public class BizCodeUtils {
     }
 
     public static boolean isPatternCodeMatched(String code, String specificCode) {
+        Matcher matcher = getCompiledPattern(code).matcher(specificCode);
+        return matcher.find();
+    }
+
+    /**
+     * @param code the wildcard code.
+     * @return the compiled pattern of the code, cached by the code.
+     */
+    public static Pattern getCompiledPattern(String code) {
+        Pattern pattern = PATTERN_CACHE.get(code);
+        if (null != pattern) {
+            return pattern;
+        }
+        pattern = compilePattern(code);
+        if (PATTERN_CACHE.size() < MAX_CACHED_PATTERNS) {
+            PATTERN_CACHE.putIfAbsent(code, pattern);
+        }
+        return pattern;
+    }
+
+    /**
+     * @param code the code.
+     * @return whether the code is a suffix wildcard code, e.g. *.business.a
+     */
+    public static boolean isSuffixPatternCode(String code) {
+        return code.startsWith("*.");
+    }
+
+    private static Pattern compilePattern(String code) {
         String patternStr;
-        if (code.startsWith("*.")) {
+        if (isSuffixPatternCode(code)) {
             patternStr = code2PrePattern(code);
         } else {
             patternStr = code2Pattern(code);
         }
-        Pattern pattern = Pattern.compile(patternStr);
-        Matcher matcher = pattern.matcher(specificCode);
-        return matcher.find();
+        return Pattern.compile(patternStr);
     }
 
     private static String code2PrePattern(String code) {
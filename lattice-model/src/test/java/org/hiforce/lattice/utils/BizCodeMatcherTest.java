@@ -0,0 +1,77 @@
+package org.hiforce.lattice.utils;
+
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static org.junit.Assert.*;
+
+/**
+ * @author Rocky Yu
+ * @since 2026/10/18
+ */
+public class BizCodeMatcherTest {
+
+    private static final List<String> CODES = Arrays.asList(
+            "business.a", "business.*", "*.a", "*", "business.a.*", "other.*", "*.business.a",
+            "business.*.x", "business.a", "business.(a)*", "*.b");
+
+    private static final List<String> SPECIFIC_CODES = Arrays.asList(
+            "business.a", "business.b", "business.a.x", "business", "x.business.a", "other.a",
+            "a", "b", "business.y.x", "business.(a)", "", "unknown");
+
+    @Test
+    public void testSameSemanticAsBizCodeUtils() {
+        BizCodeMatcher<String> matcher = newMatcher();
+        for (String specificCode : SPECIFIC_CODES) {
+            List<String> expected = CODES.stream()
+                    .filter(p -> BizCodeUtils.isCodesMatched(p, specificCode))
+                    .collect(Collectors.toList());
+            assertEquals(specificCode, expected, matcher.match(specificCode));
+        }
+    }
+
+    @Test
+    public void testRegisteringOrder() {
+        BizCodeMatcher<String> matcher = new BizCodeMatcher<>();
+        matcher.add("*.a", "suffix");
+        matcher.add("business.a", "exact");
+        matcher.add("business.*", "prefix");
+        matcher.add("business.a", "exact2");
+        assertEquals(Arrays.asList("suffix", "exact", "prefix", "exact2"), matcher.match("business.a"));
+        assertEquals("suffix", matcher.matchFirst("business.a"));
+        assertEquals(Collections.singletonList("prefix"), matcher.match("business.b"));
+    }
+
+    @Test
+    public void testNotMatched() {
+        BizCodeMatcher<String> matcher = new BizCodeMatcher<>();
+        matcher.add("business.a", "exact");
+        matcher.add("business.*", "prefix");
+        assertTrue(matcher.match("other.a").isEmpty());
+        assertTrue(matcher.match(null).isEmpty());
+        assertNull(matcher.matchFirst("other.a"));
+        matcher.add(null, "ignored");
+        assertEquals(2, matcher.match("business.a").size());
+    }
+
+    @Test
+    public void testClear() {
+        BizCodeMatcher<String> matcher = newMatcher();
+        matcher.clear();
+        for (String specificCode : SPECIFIC_CODES) {
+            assertTrue(matcher.match(specificCode).isEmpty());
+        }
+        matcher.add("business.*", "prefix");
+        assertEquals(Collections.singletonList("prefix"), matcher.match("business.a"));
+    }
+
+    private static BizCodeMatcher<String> newMatcher() {
+        BizCodeMatcher<String> matcher = new BizCodeMatcher<>();
+        CODES.forEach(p -> matcher.add(p, p));
+        return matcher;
+    }
+}
@@ -6,8 +6,9 @@ import org.hiforce.lattice.remote.client.model.RemoteBusiness;
 import org.springframework.beans.factory.InitializingBean;
 import org.springframework.stereotype.Service;
 
-import java.util.Arrays;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 
 /**
  * @author Rocky Yu
@@ -19,6 +20,11 @@ public class LatticeRemoteClient implements InitializingBean {
     @Getter
     private final List<RemoteBusiness> supportRemoteBusinessList = Lists.newArrayList();
 
+    /**
+     * The index of the first registered remote business by bizCode.
+     */
+    private final Map<String, RemoteBusiness> remoteBusinessIndex = new ConcurrentHashMap<>();
+
     @Getter
     private static LatticeRemoteClient instance;
 
@@ -30,7 +36,26 @@ public class LatticeRemoteClient implements InitializingBean {
         if (null == businesses) {
             return;
         }
-        supportRemoteBusinessList.addAll(Arrays.asList(businesses));
+        for (RemoteBusiness business : businesses) {
+            if (null == business) {
+                continue;
+            }
+            supportRemoteBusinessList.add(business);
+            if (null != business.getBizCode()) {
+                remoteBusinessIndex.putIfAbsent(business.getBizCode(), business);
+            }
+        }
+    }
+
+    /**
+     * @param bizCode the business code.
+     * @return the first registered remote business with the code, or null.
+     */
+    public RemoteBusiness getRemoteBusiness(String bizCode) {
+        if (null == bizCode) {
+            return null;
+        }
+        return remoteBusinessIndex.get(bizCode);
     }
 
 
@@ -1,6 +1,11 @@
 package org.hiforce.lattice.remote.client;
 
+import org.hiforce.lattice.remote.client.model.RemoteInvokeRequest;
+import org.hiforce.lattice.remote.client.model.RemoteInvokeResult;
+
 import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.List;
 
 
 /**
@@ -10,4 +15,24 @@ import java.io.Serializable;
 public interface LatticeRemoteInvoker {
 
     Serializable invoke(String bizCode, String scenario, String extCode, Object... params);
+
+    /**
+     * Invoke many extensions of the same business in one round trip.
+     *
+     * @param bizCode  the business code.
+     * @param scenario the scenario.
+     * @param requests the extension invocations.
+     * @return the results, in the same order of the requests.
+     */
+    default List<RemoteInvokeResult> batchInvoke(String bizCode, String scenario, List<RemoteInvokeRequest> requests) {
+        List<RemoteInvokeResult> results = new ArrayList<>(requests.size());
+        for (RemoteInvokeRequest request : requests) {
+            try {
+                results.add(RemoteInvokeResult.success(invoke(bizCode, scenario, request.getExtCode(), request.getParams())));
+            } catch (Exception ex) {
+                results.add(RemoteInvokeResult.failed(ex.getMessage()));
+            }
+        }
+        return results;
+    }
 }
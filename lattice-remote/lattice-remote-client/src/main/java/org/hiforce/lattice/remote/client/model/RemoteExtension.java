@@ -22,6 +22,14 @@ public class RemoteExtension implements Serializable {
     @Setter
     private boolean strongDependency;
 
+    /**
+     * Collapse the identical concurrent invocations (same bizCode, scenario and params)
+     * into one in-flight invocation, whose result is shared by the callers.
+     */
+    @Getter
+    @Setter
+    private boolean coalesced;
+
     public static RemoteExtension of(String extCode, boolean strongDependency) {
         RemoteExtension extension = new RemoteExtension();
         extension.setExtCode(extCode);
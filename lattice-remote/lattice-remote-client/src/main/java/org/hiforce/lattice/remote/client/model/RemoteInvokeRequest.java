@@ -0,0 +1,32 @@
+package org.hiforce.lattice.remote.client.model;
+
+import lombok.Getter;
+import lombok.Setter;
+
+import java.io.Serializable;
+
+/**
+ * One extension invocation in a batch remote invocation.
+ *
+ * @author Rocky Yu
+ * @since 2026/10/18
+ */
+public class RemoteInvokeRequest implements Serializable {
+
+    private static final long serialVersionUID = -6297203417781823356L;
+
+    @Getter
+    @Setter
+    private String extCode;
+
+    @Getter
+    @Setter
+    private Object[] params;
+
+    public static RemoteInvokeRequest of(String extCode, Object[] params) {
+        RemoteInvokeRequest request = new RemoteInvokeRequest();
+        request.setExtCode(extCode);
+        request.setParams(params);
+        return request;
+    }
+}
@@ -0,0 +1,44 @@
+package org.hiforce.lattice.remote.client.model;
+
+import lombok.Getter;
+import lombok.Setter;
+
+import java.io.Serializable;
+
+/**
+ * The result of one extension invocation in a batch remote invocation.
+ * A failed invocation does not fail the others in the same batch.
+ *
+ * @author Rocky Yu
+ * @since 2026/10/18
+ */
+public class RemoteInvokeResult implements Serializable {
+
+    private static final long serialVersionUID = 3180771766416925713L;
+
+    @Getter
+    @Setter
+    private boolean success;
+
+    @Getter
+    @Setter
+    private Serializable value;
+
+    @Getter
+    @Setter
+    private String errorMessage;
+
+    public static RemoteInvokeResult success(Serializable value) {
+        RemoteInvokeResult result = new RemoteInvokeResult();
+        result.setSuccess(true);
+        result.setValue(value);
+        return result;
+    }
+
+    public static RemoteInvokeResult failed(String errorMessage) {
+        RemoteInvokeResult result = new RemoteInvokeResult();
+        result.setSuccess(false);
+        result.setErrorMessage(errorMessage);
+        return result;
+    }
+}
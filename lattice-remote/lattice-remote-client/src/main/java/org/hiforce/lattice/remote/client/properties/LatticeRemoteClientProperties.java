@@ -22,6 +22,36 @@ public class LatticeRemoteClientProperties implements InitializingBean {
     @Setter
     private String registryAddress;
 
+    /**
+     * The time window to coalesce the asynchronous remote invocations of the same business
+     * into one batch invocation, 0 means not coalesced.
+     */
+    @Getter
+    @Setter
+    private long batchWindowMillis;
+
+    /**
+     * The max invocations of one batch invocation.
+     */
+    @Getter
+    @Setter
+    private int batchMaxSize = 32;
+
+    /**
+     * Create and connect the references of all the registered remote businesses at startup.
+     */
+    @Getter
+    @Setter
+    private boolean prewarmReferences;
+
+    /**
+     * The max time to wait for the identical in-flight invocation of the coalesced extension,
+     * the caller invokes by itself after the time elapsed.
+     */
+    @Getter
+    @Setter
+    private long coalesceWaitMillis = 1000L;
+
     @Autowired
     private Environment environment;
 
@@ -42,5 +72,9 @@ public class LatticeRemoteClientProperties implements InitializingBean {
                 registryAddress = "nacos://" + value;
             }
         }
+        batchWindowMillis = environment.getProperty("lattice.remote.batch.window-millis", Long.class, 0L);
+        batchMaxSize = environment.getProperty("lattice.remote.batch.max-size", Integer.class, 32);
+        coalesceWaitMillis = environment.getProperty("lattice.remote.coalesce.wait-millis", Long.class, 1000L);
+        prewarmReferences = environment.getProperty("lattice.remote.reference.prewarm", Boolean.class, false);
     }
 }
@@ -6,6 +6,7 @@ import org.hiforce.lattice.model.register.BusinessSpec;
 import org.hiforce.lattice.remote.client.LatticeRemoteInvoker;
 import org.hiforce.lattice.remote.client.properties.LatticeRemoteClientProperties;
 import org.hiforce.lattice.remote.container.service.LatticeRemoteInvokerImpl;
+import org.hiforce.lattice.remote.container.service.RemoteDispatchIndex;
 import org.hiforce.lattice.runtime.Lattice;
 import org.hiforce.lattice.runtime.ability.register.TemplateRegister;
 
@@ -30,6 +31,7 @@ public class LatticePluginContainer {
 
     public void start() {
         Lattice.getInstance().start();
+        RemoteDispatchIndex.getInstance().refresh();
 
         String registryAddress = LatticeRemoteClientProperties.getInstance().getRegistryAddress();
         if(StringUtils.isEmpty(registryAddress)){
@@ -1,15 +1,14 @@
 package org.hiforce.lattice.remote.container.service;
 
 import lombok.extern.slf4j.Slf4j;
-import org.apache.commons.lang3.StringUtils;
-import org.hiforce.lattice.model.ability.IBusinessExt;
-import org.hiforce.lattice.model.register.RealizationSpec;
 import org.hiforce.lattice.remote.client.LatticeRemoteInvoker;
-import org.hiforce.lattice.runtime.Lattice;
-import org.hiforce.lattice.utils.BusinessExtUtils;
+import org.hiforce.lattice.remote.client.model.RemoteInvokeRequest;
+import org.hiforce.lattice.remote.client.model.RemoteInvokeResult;
 
 import java.io.Serializable;
-import java.lang.reflect.Method;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
 
 /**
  * @author Rocky Yu
@@ -18,45 +17,64 @@ import java.lang.reflect.Method;
 @Slf4j
 public class LatticeRemoteInvokerImpl implements LatticeRemoteInvoker {
 
+    /**
+     * Log one of the invocations at INFO level, the others at DEBUG level.
+     */
+    private static final int LOG_SAMPLE_MASK = 1023;
+
+    private final AtomicLong invokeCounter = new AtomicLong();
+
     @Override
     @SuppressWarnings("all")
     public Serializable invoke(String bizCode, String scenario, String extCode, Object... params) {
-        log.info("[Lattice]Remote Invoked, bizCode={}, scenario={}, extCode={} ", bizCode, scenario, extCode);
-        RealizationSpec realizationSpec = Lattice.getInstance().getAllRealizations().stream()
-                .filter(p -> StringUtils.equals(bizCode, p.getCode()))
-                .filter(p -> isScenarioMatched(scenario, p.getScenario()))
-                .filter(p -> p.getExtensionCodes().contains(extCode))
-                .findFirst().orElse(null);
-        if (null == realizationSpec) {
+        if (isLogSampled()) {
+            log.info("[Lattice]Remote Invoked (sampled 1/{}), bizCode={}, scenario={}, extCode={} ",
+                    LOG_SAMPLE_MASK + 1, bizCode, scenario, extCode);
+        }
+        return doInvoke(bizCode, scenario, extCode, params);
+    }
+
+    @Override
+    public List<RemoteInvokeResult> batchInvoke(String bizCode, String scenario, List<RemoteInvokeRequest> requests) {
+        if (isLogSampled()) {
+            log.info("[Lattice]Remote Batch Invoked (sampled 1/{}), bizCode={}, scenario={}, size={} ",
+                    LOG_SAMPLE_MASK + 1, bizCode, scenario, requests.size());
+        }
+        List<RemoteInvokeResult> results = new ArrayList<>(requests.size());
+        for (RemoteInvokeRequest request : requests) {
+            try {
+                results.add(RemoteInvokeResult.success(
+                        doInvoke(bizCode, scenario, request.getExtCode(), request.getParams())));
+            } catch (Exception ex) {
+                results.add(RemoteInvokeResult.failed(ex.getMessage()));
+            }
+        }
+        return results;
+    }
+
+    private boolean isLogSampled() {
+        return (invokeCounter.getAndIncrement() & LOG_SAMPLE_MASK) == 0;
+    }
+
+    @SuppressWarnings("all")
+    private Serializable doInvoke(String bizCode, String scenario, String extCode, Object... params) {
+        RemoteDispatchIndex.Dispatcher dispatcher =
+                RemoteDispatchIndex.getInstance().getDispatcher(bizCode, scenario, extCode);
+        if (null == dispatcher) {
             log.warn("[Lattice] The realization not found. bizCode={}, scenario={}, extCode={} ", bizCode, scenario, extCode);
             return null;
         }
         try {
-            IBusinessExt businessExt = realizationSpec.getBusinessExt().getBusinessExtByCode(extCode, scenario);
-            log.debug("[Lattice] The BusinessExt={}, bizCode={}, scenario={}, extCode={}",
-                    businessExt, bizCode, scenario, extCode);
-
-            Method method = BusinessExtUtils.getExtensionMethod(businessExt, extCode, scenario);
-            Serializable value = (Serializable) method.invoke(businessExt, params);
-            log.debug("[Lattice] Remote invoke bizCode={}, scenario={}, extCode={}, result={}",
-                    bizCode, scenario, extCode,
-                    null == value ? null : value.toString());
+            Serializable value = (Serializable) dispatcher.invoke(params);
+            if (log.isDebugEnabled()) {
+                log.debug("[Lattice] Remote invoke bizCode={}, scenario={}, extCode={}, result={}",
+                        bizCode, scenario, extCode, null == value ? null : value.toString());
+            }
             return value;
-        } catch (Exception e) {
+        } catch (Throwable e) {
             log.info("[Lattice] Remote invoke runtime exception occurred. ex=bizCode={}, scenario={}, extCode={}, ex={}",
                     bizCode, scenario, extCode, e.getMessage());
             throw new RuntimeException(e);
         }
     }
-
-    private boolean isScenarioMatched(String targetScenario, String specScenario) {
-        if (StringUtils.isEmpty(targetScenario) && StringUtils.isEmpty(specScenario)) {
-            return true;
-        }
-        if (null == targetScenario || null == specScenario) {
-            return false;
-        }
-        return StringUtils.equals(targetScenario, specScenario);
-
-    }
 }
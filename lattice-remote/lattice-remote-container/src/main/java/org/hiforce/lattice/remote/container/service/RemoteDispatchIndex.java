@@ -0,0 +1,194 @@
+package org.hiforce.lattice.remote.container.service;
+
+import lombok.extern.slf4j.Slf4j;
+import org.apache.commons.lang3.StringUtils;
+import org.hiforce.lattice.model.ability.IBusinessExt;
+import org.hiforce.lattice.model.register.BusinessSpec;
+import org.hiforce.lattice.model.register.RealizationSpec;
+import org.hiforce.lattice.runtime.ability.register.TemplateRegister;
+import org.hiforce.lattice.utils.BusinessExtUtils;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Method;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * The index of the remote extension dispatch, from (bizCode, scenario, extCode) to the method handle
+ * pre-bound on the resolved sub BusinessExt.
+ * The index is built for all the registered businesses, and rebuilt once the registered
+ * realizations changed (e.g. plugin installed). Only one request rebuilds the index, the others
+ * keep using the current index meanwhile. The miss is resolved by the realizations and indexed.
+ *
+ * @author Rocky Yu
+ * @since 2026/10/18
+ */
+@Slf4j
+public class RemoteDispatchIndex {
+
+    private static final MethodType INVOKER_TYPE = MethodType.methodType(Object.class, Object[].class);
+
+    private static final Object[] EMPTY_PARAMS = new Object[0];
+
+    private static final RemoteDispatchIndex INSTANCE = new RemoteDispatchIndex();
+
+    private volatile Map<DispatchKey, Dispatcher> dispatchers = new ConcurrentHashMap<>();
+
+    private volatile long realizationVersion = -1;
+
+    private final AtomicBoolean refreshing = new AtomicBoolean();
+
+    private RemoteDispatchIndex() {
+
+    }
+
+    public static RemoteDispatchIndex getInstance() {
+        return INSTANCE;
+    }
+
+    /**
+     * Rebuild the index for all the registered businesses.
+     */
+    public synchronized void refresh() {
+        long version = TemplateRegister.getInstance().getRealizationVersion();
+        Map<DispatchKey, Dispatcher> index = new ConcurrentHashMap<>();
+        for (BusinessSpec business : TemplateRegister.getInstance().getBusinesses()) {
+            for (RealizationSpec realization : TemplateRegister.getInstance().getMatchedRealizations(business.getCode())) {
+                for (String extCode : realization.getExtensionCodes()) {
+                    DispatchKey key = new DispatchKey(business.getCode(), realization.getScenario(), extCode);
+                    if (index.containsKey(key)) {
+                        continue; // the first matched realization wins.
+                    }
+                    Dispatcher dispatcher = buildDispatcher(realization, key);
+                    if (null != dispatcher) {
+                        index.put(key, dispatcher);
+                    }
+                }
+            }
+        }
+        this.dispatchers = index;
+        this.realizationVersion = version;
+        log.info("[Lattice] Remote dispatch index refreshed, size: {}", index.size());
+    }
+
+    /**
+     * @return the dispatcher of the extension, or null if the realization not found.
+     */
+    public Dispatcher getDispatcher(String bizCode, String scenario, String extCode) {
+        if (realizationVersion != TemplateRegister.getInstance().getRealizationVersion()) {
+            refreshIfStale();
+        }
+        DispatchKey key = new DispatchKey(bizCode, scenario, extCode);
+        Dispatcher dispatcher = dispatchers.get(key);
+        if (null != dispatcher) {
+            return dispatcher;
+        }
+        for (RealizationSpec realization : TemplateRegister.getInstance().getMatchedRealizations(bizCode)) {
+            if (Objects.equals(key.scenario, StringUtils.defaultString(realization.getScenario()))
+                    && realization.getExtensionCodes().contains(extCode)) {
+                dispatcher = buildDispatcher(realization, key);
+                if (null != dispatcher) {
+                    dispatchers.putIfAbsent(key, dispatcher);
+                }
+                return dispatcher;
+            }
+        }
+        return null;
+    }
+
+    private void refreshIfStale() {
+        if (!refreshing.compareAndSet(false, true)) {
+            return; // being rebuilt by another request.
+        }
+        try {
+            if (realizationVersion != TemplateRegister.getInstance().getRealizationVersion()) {
+                refresh();
+            }
+        } finally {
+            refreshing.set(false);
+        }
+    }
+
+    private Dispatcher buildDispatcher(RealizationSpec realization, DispatchKey key) {
+        IBusinessExt businessExt = realization.getBusinessExt().getBusinessExtByCode(key.extCode, key.scenario);
+        Method method = BusinessExtUtils.getExtensionMethod(businessExt, key.extCode, key.scenario);
+        if (null == method) {
+            log.warn("[Lattice] The extension method not found. bizCode={}, scenario={}, extCode={} ",
+                    key.bizCode, key.scenario, key.extCode);
+            return null;
+        }
+        IBusinessExt target = businessExt.getBusinessExtByCode(key.extCode, key.scenario);
+        MethodHandle handle = null;
+        try {
+            handle = MethodHandles.publicLookup().unreflect(method).bindTo(target)
+                    .asSpreader(Object[].class, method.getParameterCount())
+                    .asType(INVOKER_TYPE);
+        } catch (Exception ex) {
+            log.warn("[Lattice] Failed to build the method handle of {}, invoke via reflection: {}",
+                    method, ex.getMessage());
+        }
+        return new Dispatcher(target, method, handle);
+    }
+
+    /**
+     * The pre-bound invoker of an extension.
+     */
+    public static final class Dispatcher {
+
+        private final IBusinessExt target;
+
+        private final Method method;
+
+        private final MethodHandle handle;
+
+        Dispatcher(IBusinessExt target, Method method, MethodHandle handle) {
+            this.target = target;
+            this.method = method;
+            this.handle = handle;
+        }
+
+        public Object invoke(Object[] params) throws Throwable {
+            Object[] args = null == params ? EMPTY_PARAMS : params;
+            if (null != handle) {
+                return (Object) handle.invokeExact(args);
+            }
+            return method.invoke(target, args);
+        }
+    }
+
+    private static final class DispatchKey {
+
+        private final String bizCode;
+
+        private final String scenario;
+
+        private final String extCode;
+
+        private final int hash;
+
+        DispatchKey(String bizCode, String scenario, String extCode) {
+            this.bizCode = bizCode;
+            this.scenario = StringUtils.defaultString(scenario);
+            this.extCode = extCode;
+            this.hash = Objects.hash(bizCode, this.scenario, extCode);
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) return true;
+            if (o == null || getClass() != o.getClass()) return false;
+            DispatchKey that = (DispatchKey) o;
+            return hash == that.hash && Objects.equals(bizCode, that.bizCode)
+                    && scenario.equals(that.scenario) && Objects.equals(extCode, that.extCode);
+        }
+
+        @Override
+        public int hashCode() {
+            return hash;
+        }
+    }
+}
@@ -0,0 +1,103 @@
+package org.hiforce.lattice.remote.container.service;
+
+import org.hiforce.lattice.annotation.Extension;
+import org.hiforce.lattice.annotation.Realization;
+import org.hiforce.lattice.model.ability.BusinessExt;
+import org.hiforce.lattice.model.ability.IBusinessExt;
+import org.hiforce.lattice.model.register.BusinessSpec;
+import org.hiforce.lattice.runtime.ability.register.TemplateRegister;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import static org.junit.Assert.*;
+
+/**
+ * @author Rocky Yu
+ * @since 2026/10/18
+ */
+public class RemoteDispatchIndexTest {
+
+    private static final String BIZ_CODE = "business.remote";
+
+    private static final String EXT_CODE = "ext.remote.echo";
+
+    @Before
+    public void setUp() {
+        BusinessSpec business = new BusinessSpec();
+        business.setCode(BIZ_CODE);
+        TemplateRegister.getInstance().addBusiness(business);
+        TemplateRegister.getInstance().addRealizations(TemplateRegister.buildRealizations(EchoBusinessExt.class));
+    }
+
+    @After
+    public void tearDown() {
+        TemplateRegister.getInstance().removeRealizations(BIZ_CODE);
+        TemplateRegister.getInstance().removeBusiness(BIZ_CODE);
+    }
+
+    @Test
+    public void testDispatch() throws Throwable {
+        RemoteDispatchIndex.Dispatcher dispatcher = RemoteDispatchIndex.getInstance().getDispatcher(BIZ_CODE, null, EXT_CODE);
+        assertNotNull(dispatcher);
+        assertEquals("echo: a", dispatcher.invoke(new Object[]{"a"}));
+        assertSame(dispatcher, RemoteDispatchIndex.getInstance().getDispatcher(BIZ_CODE, "", EXT_CODE));
+        assertNull(RemoteDispatchIndex.getInstance().getDispatcher(BIZ_CODE, null, "ext.remote.none"));
+    }
+
+    @Test
+    public void testRebuiltAfterRealizationsChanged() {
+        assertNotNull(RemoteDispatchIndex.getInstance().getDispatcher(BIZ_CODE, null, EXT_CODE));
+        TemplateRegister.getInstance().removeRealizations(BIZ_CODE);
+        assertNull(RemoteDispatchIndex.getInstance().getDispatcher(BIZ_CODE, null, EXT_CODE));
+    }
+
+    @Test
+    public void testConcurrentRequestsWhileRebuilding() throws Throwable {
+        assertNotNull(RemoteDispatchIndex.getInstance().getDispatcher(BIZ_CODE, null, EXT_CODE));
+        // a new realization version, the requests are served while one of them rebuilds the index.
+        TemplateRegister.getInstance().addRealizations(new ArrayList<>());
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        try {
+            List<CompletableFuture<Object>> futures = new ArrayList<>();
+            for (int i = 0; i < 64; i++) {
+                String arg = String.valueOf(i);
+                futures.add(CompletableFuture.supplyAsync(() -> invoke(arg), executor));
+            }
+            for (int i = 0; i < futures.size(); i++) {
+                assertEquals("echo: " + i, futures.get(i).join());
+            }
+        } finally {
+            executor.shutdown();
+        }
+    }
+
+    private static Object invoke(String arg) {
+        try {
+            return RemoteDispatchIndex.getInstance().getDispatcher(BIZ_CODE, null, EXT_CODE).invoke(new Object[]{arg});
+        } catch (Throwable th) {
+            throw new IllegalStateException(th);
+        }
+    }
+
+    public interface EchoExt extends IBusinessExt {
+
+        @Extension(code = EXT_CODE)
+        String echo(String value);
+    }
+
+    @Realization(codes = BIZ_CODE)
+    public static class EchoBusinessExt extends BusinessExt implements EchoExt {
+
+        @Override
+        public String echo(String value) {
+            return "echo: " + value;
+        }
+    }
+}
@@ -0,0 +1,167 @@
+package org.hiforce.lattice.remote.runner;
+
+import com.google.common.collect.Lists;
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.dubbo.rpc.RpcContext;
+import org.hiforce.lattice.exception.LatticeRuntimeException;
+import org.hiforce.lattice.remote.client.LatticeRemoteInvoker;
+import org.hiforce.lattice.remote.client.model.RemoteInvokeRequest;
+import org.hiforce.lattice.remote.client.model.RemoteInvokeResult;
+import org.hiforce.lattice.remote.runner.key.DubboInvokeCacheKey;
+
+import java.io.Serializable;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Coalesces the asynchronous remote invocations of the same (bizCode, scenario) within a short
+ * time window into one {@link LatticeRemoteInvoker#batchInvoke} round trip.
+ * The batch is sent when the window elapses or the batch is full.
+ *
+ * @author Rocky Yu
+ * @since 2026/10/18
+ */
+@Slf4j
+public class DubboBatchInvoker {
+
+    private static final String BATCH_EXT_CODE = "*";
+
+    private static final DubboBatchInvoker INSTANCE = new DubboBatchInvoker();
+
+    private final Map<DubboInvokeCacheKey, PendingBatch> pendingBatches = new HashMap<>();
+
+    private final ScheduledExecutorService scheduler = Executors.newSingleThreadScheduledExecutor(
+            new ThreadFactoryBuilder().setNameFormat("lattice-remote-batch-%d").setDaemon(true).build());
+
+    private DubboBatchInvoker() {
+
+    }
+
+    public static DubboBatchInvoker getInstance() {
+        return INSTANCE;
+    }
+
+    /**
+     * @param remoteInvoker the remote invoker of the business.
+     * @param windowMillis  the time window to wait for the other invocations.
+     * @param maxSize       the max invocations of one batch.
+     * @return the future of the invocation result.
+     */
+    public CompletableFuture<Object> submit(LatticeRemoteInvoker remoteInvoker, String bizCode, String scenario,
+                                            String extCode, Object[] params, long windowMillis, int maxSize) {
+        PendingCall call = new PendingCall(RemoteInvokeRequest.of(extCode, params));
+        DubboInvokeCacheKey key = new DubboInvokeCacheKey(bizCode, scenario, BATCH_EXT_CODE);
+        PendingBatch fullBatch = null;
+        synchronized (pendingBatches) {
+            PendingBatch batch = pendingBatches.get(key);
+            if (null == batch) {
+                batch = new PendingBatch(remoteInvoker, bizCode, scenario);
+                pendingBatches.put(key, batch);
+                PendingBatch scheduled = batch;
+                scheduler.schedule(() -> flush(key, scheduled), windowMillis, TimeUnit.MILLISECONDS);
+            }
+            batch.calls.add(call);
+            if (batch.calls.size() >= maxSize) {
+                pendingBatches.remove(key);
+                fullBatch = batch;
+            }
+        }
+        if (null != fullBatch) {
+            send(fullBatch);
+        }
+        return call.future;
+    }
+
+    private void flush(DubboInvokeCacheKey key, PendingBatch batch) {
+        synchronized (pendingBatches) {
+            if (!pendingBatches.remove(key, batch)) {
+                return; // already sent as a full batch.
+            }
+        }
+        send(batch);
+    }
+
+    private void send(PendingBatch batch) {
+        List<PendingCall> calls = batch.calls;
+        if (calls.size() == 1) {
+            RemoteInvokeRequest request = calls.get(0).request;
+            invokeAsync(() -> batch.remoteInvoker.invoke(batch.bizCode, batch.scenario,
+                    request.getExtCode(), request.getParams()))
+                    .whenComplete((value, ex) -> complete(calls.get(0), value, ex));
+            return;
+        }
+        List<RemoteInvokeRequest> requests = Lists.newArrayListWithCapacity(calls.size());
+        calls.forEach(p -> requests.add(p.request));
+        log.debug("[Lattice-Remote] remote batch invoke bizCode: {}, size: {}", batch.bizCode, requests.size());
+        invokeAsync(() -> batch.remoteInvoker.batchInvoke(batch.bizCode, batch.scenario, requests))
+                .whenComplete((results, ex) -> {
+                    for (int i = 0; i < calls.size(); i++) {
+                        PendingCall call = calls.get(i);
+                        if (null != ex) {
+                            complete(call, null, ex);
+                        } else if (null == results || i >= results.size() || null == results.get(i)) {
+                            complete(call, null, new LatticeRuntimeException("LATTICE-RMI-DUBBO-0002",
+                                    call.request.getExtCode(), "result missing"));
+                        } else if (!results.get(i).isSuccess()) {
+                            complete(call, null, new LatticeRuntimeException("LATTICE-RMI-DUBBO-0002",
+                                    call.request.getExtCode(), results.get(i).getErrorMessage()));
+                        } else {
+                            complete(call, results.get(i).getValue(), null);
+                        }
+                    }
+                });
+    }
+
+    private static <T> CompletableFuture<T> invokeAsync(Callable<T> callable) {
+        try {
+            return RpcContext.getContext().asyncCall(callable);
+        } catch (Exception ex) {
+            CompletableFuture<T> future = new CompletableFuture<>();
+            future.completeExceptionally(ex);
+            return future;
+        }
+    }
+
+    private static void complete(PendingCall call, Serializable value, Throwable ex) {
+        if (null != ex) {
+            call.future.completeExceptionally(ex);
+        } else {
+            call.future.complete(value);
+        }
+    }
+
+    private static final class PendingBatch {
+
+        private final LatticeRemoteInvoker remoteInvoker;
+
+        private final String bizCode;
+
+        private final String scenario;
+
+        private final List<PendingCall> calls = Lists.newArrayList();
+
+        PendingBatch(LatticeRemoteInvoker remoteInvoker, String bizCode, String scenario) {
+            this.remoteInvoker = remoteInvoker;
+            this.bizCode = bizCode;
+            this.scenario = scenario;
+        }
+    }
+
+    private static final class PendingCall {
+
+        private final RemoteInvokeRequest request;
+
+        private final CompletableFuture<Object> future = new CompletableFuture<>();
+
+        PendingCall(RemoteInvokeRequest request) {
+            this.request = request;
+        }
+    }
+}
@@ -1,30 +1,26 @@
 package org.hiforce.lattice.remote.runner;
 
-import com.google.common.collect.Maps;
 import lombok.Getter;
 import lombok.Setter;
 import lombok.extern.slf4j.Slf4j;
-import org.apache.dubbo.config.ApplicationConfig;
-import org.apache.dubbo.config.ReferenceConfig;
-import org.apache.dubbo.config.RegistryConfig;
+import org.apache.dubbo.rpc.RpcContext;
 import org.hiforce.lattice.exception.LatticeRuntimeException;
 import org.hiforce.lattice.extension.ExtensionRemoteRunner;
 import org.hiforce.lattice.extension.ExtensionRunnerType;
 import org.hiforce.lattice.model.ability.IAbility;
-import org.hiforce.lattice.model.ability.IBusinessExt;
 import org.hiforce.lattice.model.ability.execute.ExtensionCallback;
 import org.hiforce.lattice.model.business.IBizObject;
 import org.hiforce.lattice.model.register.TemplateSpec;
 import org.hiforce.lattice.remote.client.LatticeRemoteInvoker;
 import org.hiforce.lattice.remote.client.model.RemoteExtension;
-import org.hiforce.lattice.remote.runner.init.LatticeDubboRunnerEnv;
-import org.hiforce.lattice.remote.runner.key.DubboInvokeCacheKey;
+import org.hiforce.lattice.remote.client.properties.LatticeRemoteClientProperties;
+import org.hiforce.lattice.remote.runner.key.DubboSingleFlightKey;
 import org.hiforce.lattice.utils.JacksonUtils;
 import org.jetbrains.annotations.NotNull;
 
 import java.util.Collections;
 import java.util.List;
-import java.util.Map;
+import java.util.concurrent.CompletableFuture;
 
 /**
  * @author Rocky Yu
@@ -34,9 +30,6 @@ import java.util.Map;
 @Slf4j
 public class DubboExtensionRunner<R> extends ExtensionRemoteRunner<R> {
 
-    private static Map<DubboInvokeCacheKey, LatticeRemoteInvoker>
-            INVOKE_CACHE = Maps.newHashMap();
-
     @Getter
     @Setter
     private IAbility ability;
@@ -61,11 +54,8 @@ public class DubboExtensionRunner<R> extends ExtensionRemoteRunner<R> {
     @Override
     public Object runFirstMatched(IBizObject bizObject, ExtensionCallback callback, RunnerExecuteResult executeResult) {
 
-        IBusinessExt businessExt = ability.getDefaultRealization();
-        /**
-         * 对businessExt做代理，然后调用拦截实际入参
-         */
-        List<Object> extParams = ability.getContext().getInvokeParams();
+        // 入参由本次调用传入，缓存的runner在多个调用间共享
+        List<Object> extParams = executeResult.getInvokeParams();
         executeResult.setRunnerType(getType());
         try {
             return invoke(extParams);
@@ -83,28 +73,52 @@ public class DubboExtensionRunner<R> extends ExtensionRemoteRunner<R> {
     private Object invoke(List<Object> params) {
         String bizCode = template.getCode();
         String scenario = getScenario();
+        LatticeRemoteInvoker remoteInvoker = DubboReferenceRegistry.getInstance().getRemoteInvoker(bizCode);
+        if (log.isDebugEnabled()) {
+            log.debug("[Lattice-Remote] remote invoke bizCode: {}, extCode: {}, params: {} ",
+                    bizCode, getExtensionCode(), (null == params ? null : JacksonUtils.serializeWithoutException(params)));
+        }
+        Object[] args = params.toArray();
+        if (remoteExtension.isCoalesced()) {
+            LatticeRemoteClientProperties properties = LatticeRemoteClientProperties.getInstance();
+            long waitMillis = null == properties ? DubboSingleFlight.DEFAULT_WAIT_MILLIS : properties.getCoalesceWaitMillis();
+            return DubboSingleFlight.getInstance().invoke(
+                    new DubboSingleFlightKey(bizCode, scenario, getExtensionCode(), args),
+                    () -> remoteInvoker.invoke(bizCode, scenario, getExtensionCode(), args), waitMillis);
+        }
+        return remoteInvoker.invoke(bizCode, scenario, getExtensionCode(), args);
+    }
 
-        DubboInvokeCacheKey key = new DubboInvokeCacheKey(bizCode, scenario, getExtensionCode());
-
-        LatticeRemoteInvoker remoteInvoker = INVOKE_CACHE.get(key);
-        if (null == remoteInvoker) {
-
-            ApplicationConfig application = LatticeDubboRunnerEnv.getInstance().getApplication();
-            RegistryConfig registry = LatticeDubboRunnerEnv.getInstance().getRegistry();
+    /**
+     * Invoke the remote extension via the Dubbo async invocation, current thread is not blocked.
+     * The invocations are coalesced into batch invocations if the batch window configured,
+     * and the identical in-flight invocations are shared if the extension is coalesced.
+     */
+    private CompletableFuture<Object> invokeAsync(List<Object> params) {
+        String bizCode = template.getCode();
+        String scenario = getScenario();
+        String extCode = getExtensionCode();
+        LatticeRemoteInvoker remoteInvoker = DubboReferenceRegistry.getInstance().getRemoteInvoker(bizCode);
+        if (log.isDebugEnabled()) {
+            log.debug("[Lattice-Remote] remote async invoke bizCode: {}, extCode: {}, params: {} ",
+                    bizCode, extCode, (null == params ? null : JacksonUtils.serializeWithoutException(params)));
+        }
+        Object[] args = params.toArray();
+        if (remoteExtension.isCoalesced()) {
+            return DubboSingleFlight.getInstance().submit(new DubboSingleFlightKey(bizCode, scenario, extCode, args),
+                    () -> doInvokeAsync(remoteInvoker, bizCode, scenario, extCode, args));
+        }
+        return doInvokeAsync(remoteInvoker, bizCode, scenario, extCode, args);
+    }
 
-            ReferenceConfig<LatticeRemoteInvoker> reference = new ReferenceConfig<>();
-            reference.setApplication(application);
-            reference.setRegistry(registry); // 多个注册中心可以用setRegistries()
-            reference.setInterface(LatticeRemoteInvoker.class);
-            reference.setVersion("1.0.0");
-            reference.setGroup("lattice-" + bizCode);
-            remoteInvoker = reference.get();
-            INVOKE_CACHE.put(key, remoteInvoker);
+    private CompletableFuture<Object> doInvokeAsync(LatticeRemoteInvoker remoteInvoker, String bizCode,
+                                                    String scenario, String extCode, Object[] args) {
+        LatticeRemoteClientProperties properties = LatticeRemoteClientProperties.getInstance();
+        if (null != properties && properties.getBatchWindowMillis() > 0) {
+            return DubboBatchInvoker.getInstance().submit(remoteInvoker, bizCode, scenario, extCode, args,
+                    properties.getBatchWindowMillis(), properties.getBatchMaxSize());
         }
-        log.info("[Lattice-Remote] remote invoke bizCode: {}, extCode: {}, params: {} ",
-                bizCode, getExtensionCode(), (null == params ? null : JacksonUtils.serializeWithoutException(params)));
-        return remoteInvoker.invoke(bizCode, scenario,
-                getExtensionCode(), (Object[]) params.toArray());
+        return RpcContext.getContext().asyncCall(() -> remoteInvoker.invoke(bizCode, scenario, extCode, args));
     }
 
     @NotNull
@@ -113,6 +127,31 @@ public class DubboExtensionRunner<R> extends ExtensionRemoteRunner<R> {
         return Collections.singletonList(runFirstMatched(bizObject, callback, executeResult));
     }
 
+    @Override
+    public CompletableFuture<List> runAllMatchedAsync(IBizObject bizObject, ExtensionCallback callback,
+                                                      RunnerExecuteResult executeResult) {
+        List<Object> extParams = executeResult.getInvokeParams();
+        executeResult.setRunnerType(getType());
+        executeResult.setExecute(true);
+        CompletableFuture<Object> future;
+        try {
+            future = invokeAsync(extParams);
+        } catch (Exception ex) {
+            future = new CompletableFuture<>();
+            future.completeExceptionally(ex);
+        }
+        return future.handle((result, ex) -> {
+            if (null == ex) {
+                return Collections.singletonList(result);
+            }
+            log.error(ex.getMessage(), ex);
+            if (remoteExtension.isStrongDependency()) {
+                throw new LatticeRuntimeException("LATTICE-RMI-DUBBO-0001", ex.getMessage());
+            }
+            return Collections.singletonList(null);
+        });
+    }
+
     @Override
     public ExtensionRunnerType getType() {
         return ExtensionRunnerType.RMI;
@@ -0,0 +1,107 @@
+package org.hiforce.lattice.remote.runner;
+
+import lombok.extern.slf4j.Slf4j;
+import org.apache.dubbo.config.ReferenceConfig;
+import org.hiforce.lattice.remote.client.LatticeRemoteInvoker;
+import org.hiforce.lattice.remote.client.model.RemoteBusiness;
+import org.hiforce.lattice.remote.runner.init.LatticeDubboRunnerEnv;
+
+import java.util.Collection;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * The registry of the Dubbo references of the remote businesses, one reference per
+ * Dubbo group (lattice-bizCode). The reference is created at most once per group,
+ * the concurrent callers of a cold group wait for the same creation, which runs outside
+ * the lock of the map, so the other groups are never blocked. A failed creation is released,
+ * and retried by the next call.
+ *
+ * @author Rocky Yu
+ * @since 2026/10/18
+ */
+@Slf4j
+public class DubboReferenceRegistry {
+
+    private static final DubboReferenceRegistry INSTANCE = new DubboReferenceRegistry();
+
+    private final Map<String, CompletableFuture<LatticeRemoteInvoker>> references = new ConcurrentHashMap<>();
+
+    private DubboReferenceRegistry() {
+
+    }
+
+    public static DubboReferenceRegistry getInstance() {
+        return INSTANCE;
+    }
+
+    public static String getGroup(String bizCode) {
+        return "lattice-" + bizCode;
+    }
+
+    /**
+     * @param bizCode the business code.
+     * @return the remote invoker of the business, created if absent.
+     */
+    public LatticeRemoteInvoker getRemoteInvoker(String bizCode) {
+        String group = getGroup(bizCode);
+        CompletableFuture<LatticeRemoteInvoker> reference = references.get(group);
+        if (null == reference) {
+            // 在map锁外创建引用（注册中心查询与建连），同一group只创建一次
+            CompletableFuture<LatticeRemoteInvoker> creation = new CompletableFuture<>();
+            reference = references.putIfAbsent(group, creation);
+            if (null == reference) {
+                try {
+                    creation.complete(createReference(group));
+                } catch (Throwable th) {
+                    references.remove(group, creation);
+                    creation.completeExceptionally(th);
+                }
+                reference = creation;
+            }
+        }
+        try {
+            return reference.join();
+        } catch (CompletionException ex) {
+            Throwable cause = null == ex.getCause() ? ex : ex.getCause();
+            if (cause instanceof RuntimeException) {
+                throw (RuntimeException) cause;
+            }
+            if (cause instanceof Error) {
+                throw (Error) cause;
+            }
+            throw ex;
+        }
+    }
+
+    /**
+     * Create and connect the references of the remote businesses, the failure is logged,
+     * and the reference will be created again on the first call.
+     *
+     * @param businesses the remote businesses.
+     */
+    public void prewarm(Collection<RemoteBusiness> businesses) {
+        for (RemoteBusiness business : businesses) {
+            try {
+                getRemoteInvoker(business.getBizCode());
+            } catch (Exception ex) {
+                log.warn("[Lattice-Remote] Failed to prewarm the reference of bizCode: {}, error: {}",
+                        business.getBizCode(), ex.getMessage());
+            }
+        }
+        log.info("[Lattice-Remote] {} remote references prewarmed.", references.size());
+    }
+
+    private LatticeRemoteInvoker createReference(String group) {
+        ReferenceConfig<LatticeRemoteInvoker> reference = new ReferenceConfig<>();
+        reference.setApplication(LatticeDubboRunnerEnv.getInstance().getApplication());
+        reference.setRegistry(LatticeDubboRunnerEnv.getInstance().getRegistry()); // 多个注册中心可以用setRegistries()
+        reference.setInterface(LatticeRemoteInvoker.class);
+        reference.setVersion("1.0.0");
+        reference.setGroup(group);
+        log.info("[Lattice-Remote] Create the remote reference of group: {}", group);
+        return reference.get();
+    }
+}
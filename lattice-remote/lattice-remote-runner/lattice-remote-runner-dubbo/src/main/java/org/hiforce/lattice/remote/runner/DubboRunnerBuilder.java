@@ -25,9 +25,7 @@ public class DubboRunnerBuilder implements RemoteExtensionRunnerBuilder {
 
         String bizCode = ability.getContext().getBizCode();
 
-        RemoteBusiness remoteBusiness = LatticeRemoteClient.getInstance().getSupportRemoteBusinessList().stream()
-                .filter(p -> StringUtils.equals(p.getBizCode(), bizCode))
-                .findFirst().orElse(null);
+        RemoteBusiness remoteBusiness = LatticeRemoteClient.getInstance().getRemoteBusiness(bizCode);
         if (null == remoteBusiness) {
             log.debug("[Lattice-Remote] The business {} not support remote invoke.", bizCode);
             return null;
@@ -0,0 +1,112 @@
+package org.hiforce.lattice.remote.runner;
+
+import lombok.extern.slf4j.Slf4j;
+import org.hiforce.lattice.remote.runner.key.DubboSingleFlightKey;
+
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Supplier;
+
+/**
+ * Collapses the identical concurrent remote invocations, only one invocation is in flight per
+ * {@link DubboSingleFlightKey}, and the concurrent callers share its result (or failure).
+ * The key is released once the invocation completes, so the result is never reused afterwards.
+ * <p>
+ * The blocking callers wait for the in-flight invocation at most the given time, then invoke by
+ * themselves. The asynchronous callers share the future of the in-flight invocation, which is
+ * bounded by the timeout of the RPC.
+ *
+ * @author Rocky Yu
+ * @since 2026/10/18
+ */
+@Slf4j
+public class DubboSingleFlight {
+
+    public static final long DEFAULT_WAIT_MILLIS = 1000L;
+
+    private static final DubboSingleFlight INSTANCE = new DubboSingleFlight();
+
+    private final Map<DubboSingleFlightKey, CompletableFuture<Object>> flights = new ConcurrentHashMap<>();
+
+    private DubboSingleFlight() {
+
+    }
+
+    public static DubboSingleFlight getInstance() {
+        return INSTANCE;
+    }
+
+    /**
+     * @param key        the key of the invocation.
+     * @param invocation the blocking remote invocation.
+     * @param waitMillis the max time to wait for the in-flight invocation.
+     * @return the result of the invocation.
+     */
+    public Object invoke(DubboSingleFlightKey key, Supplier<Object> invocation, long waitMillis) {
+        CompletableFuture<Object> flight = new CompletableFuture<>();
+        CompletableFuture<Object> inFlight = flights.putIfAbsent(key, flight);
+        if (null == inFlight) {
+            try {
+                Object result = invocation.get();
+                flight.complete(result);
+                return result;
+            } catch (Throwable th) {
+                flight.completeExceptionally(th);
+                throw th;
+            } finally {
+                flights.remove(key, flight);
+            }
+        }
+        try {
+            return inFlight.get(waitMillis, TimeUnit.MILLISECONDS);
+        } catch (TimeoutException ex) {
+            log.warn("[Lattice-Remote] wait for the in-flight invocation timeout, bizCode: {}, extCode: {}",
+                    key.getBizCode(), key.getExtensionCode());
+            return invocation.get();
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException(ex);
+        } catch (ExecutionException ex) {
+            Throwable cause = ex.getCause();
+            if (cause instanceof RuntimeException) {
+                throw (RuntimeException) cause;
+            }
+            if (cause instanceof Error) {
+                throw (Error) cause;
+            }
+            throw new IllegalStateException(cause);
+        }
+    }
+
+    /**
+     * @param key        the key of the invocation.
+     * @param invocation starts the asynchronous remote invocation.
+     * @return the future of the invocation result.
+     */
+    public CompletableFuture<Object> submit(DubboSingleFlightKey key, Supplier<CompletableFuture<Object>> invocation) {
+        CompletableFuture<Object> flight = new CompletableFuture<>();
+        CompletableFuture<Object> inFlight = flights.putIfAbsent(key, flight);
+        if (null != inFlight) {
+            // 每个调用方持有独立的future，互不影响
+            return inFlight.thenApply(result -> result);
+        }
+        try {
+            invocation.get().whenComplete((result, ex) -> {
+                flights.remove(key, flight);
+                if (null == ex) {
+                    flight.complete(result);
+                } else {
+                    flight.completeExceptionally(ex);
+                }
+            });
+        } catch (Throwable th) {
+            flights.remove(key, flight);
+            flight.completeExceptionally(th);
+        }
+        return flight.thenApply(result -> result);
+    }
+}
@@ -3,8 +3,11 @@ package org.hiforce.lattice.remote.runner.init;
 import lombok.Getter;
 import org.apache.dubbo.config.ApplicationConfig;
 import org.apache.dubbo.config.RegistryConfig;
+import org.hiforce.lattice.remote.client.LatticeRemoteClient;
 import org.hiforce.lattice.remote.client.properties.LatticeRemoteClientProperties;
+import org.hiforce.lattice.remote.runner.DubboReferenceRegistry;
 import org.springframework.beans.factory.InitializingBean;
+import org.springframework.beans.factory.SmartInitializingSingleton;
 import org.springframework.stereotype.Service;
 
 /**
@@ -12,7 +15,7 @@ import org.springframework.stereotype.Service;
  * @since 2022/9/30
  */
 @Service
-public class LatticeDubboRunnerEnv implements InitializingBean {
+public class LatticeDubboRunnerEnv implements InitializingBean, SmartInitializingSingleton {
 
     @Getter
     private static LatticeDubboRunnerEnv instance;
@@ -32,4 +35,13 @@ public class LatticeDubboRunnerEnv implements InitializingBean {
         registry.setAddress(LatticeRemoteClientProperties.getInstance().getRegistryAddress());
 
     }
+
+    @Override
+    public void afterSingletonsInstantiated() {
+        if (!LatticeRemoteClientProperties.getInstance().isPrewarmReferences()) {
+            return;
+        }
+        DubboReferenceRegistry.getInstance().prewarm(
+                LatticeRemoteClient.getInstance().getSupportRemoteBusinessList());
+    }
 }
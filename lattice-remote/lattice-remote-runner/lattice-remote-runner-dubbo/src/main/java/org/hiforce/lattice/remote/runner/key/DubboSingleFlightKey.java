@@ -0,0 +1,52 @@
+package org.hiforce.lattice.remote.runner.key;
+
+import lombok.Getter;
+
+import java.util.Arrays;
+import java.util.Objects;
+
+/**
+ * The key of the identical remote invocations, the params are compared deeply.
+ *
+ * @author Rocky Yu
+ * @since 2026/10/18
+ */
+public class DubboSingleFlightKey {
+
+    @Getter
+    private final String bizCode;
+
+    @Getter
+    private final String scenario;
+
+    @Getter
+    private final String extensionCode;
+
+    private final Object[] params;
+
+    private final int hash;
+
+    public DubboSingleFlightKey(String bizCode, String scenario, String extCode, Object[] params) {
+        this.bizCode = bizCode;
+        this.scenario = scenario;
+        this.extensionCode = extCode;
+        this.params = params;
+        this.hash = 31 * Objects.hash(bizCode, scenario, extCode) + Arrays.deepHashCode(params);
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (o == null || getClass() != o.getClass()) return false;
+        DubboSingleFlightKey key = (DubboSingleFlightKey) o;
+        return hash == key.hash && Objects.equals(bizCode, key.bizCode)
+                && Objects.equals(scenario, key.scenario)
+                && Objects.equals(extensionCode, key.extensionCode)
+                && Arrays.deepEquals(params, key.params);
+    }
+
+    @Override
+    public int hashCode() {
+        return hash;
+    }
+}
@@ -0,0 +1,137 @@
+package org.hiforce.lattice.remote.runner;
+
+import org.hiforce.lattice.remote.runner.key.DubboSingleFlightKey;
+import org.junit.Test;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.Assert.*;
+
+/**
+ * @author Rocky Yu
+ * @since 2026/10/18
+ */
+public class DubboSingleFlightTest {
+
+    private static final long WAIT_MILLIS = 5000L;
+
+    private final AtomicInteger invocations = new AtomicInteger();
+
+    @Test
+    public void testConcurrentCallersShareTheResult() throws Exception {
+        DubboSingleFlightKey key = key("share");
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        CompletableFuture<Object> leader = CompletableFuture.supplyAsync(() ->
+                DubboSingleFlight.getInstance().invoke(key, () -> block(started, release, "leader"), WAIT_MILLIS));
+        assertTrue(started.await(WAIT_MILLIS, TimeUnit.MILLISECONDS));
+
+        CompletableFuture<Object> follower = CompletableFuture.supplyAsync(() ->
+                DubboSingleFlight.getInstance().invoke(key, () -> invoke("follower"), WAIT_MILLIS));
+        // let the follower join the in-flight invocation.
+        Thread.sleep(200);
+        release.countDown();
+        assertEquals("leader", leader.get());
+        assertEquals("leader", follower.get());
+        assertEquals(1, invocations.get());
+    }
+
+    @Test
+    public void testWaitTimeoutFallback() throws Exception {
+        DubboSingleFlightKey key = key("timeout");
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        CompletableFuture<Object> leader = CompletableFuture.supplyAsync(() ->
+                DubboSingleFlight.getInstance().invoke(key, () -> block(started, release, "leader"), WAIT_MILLIS));
+        assertTrue(started.await(WAIT_MILLIS, TimeUnit.MILLISECONDS));
+
+        // the follower waits at most 50ms, then invokes by itself.
+        assertEquals("follower", DubboSingleFlight.getInstance().invoke(key, () -> invoke("follower"), 50L));
+        assertEquals(2, invocations.get());
+        release.countDown();
+        assertEquals("leader", leader.get());
+    }
+
+    @Test
+    public void testFailureShared() throws Exception {
+        DubboSingleFlightKey key = key("failure");
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        CompletableFuture<Object> leader = CompletableFuture.supplyAsync(() ->
+                DubboSingleFlight.getInstance().invoke(key, () -> {
+                    block(started, release, null);
+                    throw new IllegalArgumentException("failed");
+                }, WAIT_MILLIS));
+        assertTrue(started.await(WAIT_MILLIS, TimeUnit.MILLISECONDS));
+
+        CompletableFuture<Object> follower = CompletableFuture.supplyAsync(() ->
+                DubboSingleFlight.getInstance().invoke(key, () -> invoke("follower"), WAIT_MILLIS));
+        // let the follower join the in-flight invocation.
+        Thread.sleep(200);
+        release.countDown();
+        assertFailed(leader);
+        assertFailed(follower);
+        assertEquals(1, invocations.get());
+    }
+
+    @Test
+    public void testReleasedAfterCompleted() {
+        DubboSingleFlightKey key = key("released");
+        assertEquals("first", DubboSingleFlight.getInstance().invoke(key, () -> invoke("first"), WAIT_MILLIS));
+        assertEquals("second", DubboSingleFlight.getInstance().invoke(key, () -> invoke("second"), WAIT_MILLIS));
+        assertEquals(2, invocations.get());
+    }
+
+    @Test
+    public void testSubmitShared() throws Exception {
+        DubboSingleFlightKey key = key("submit");
+        CompletableFuture<Object> remote = new CompletableFuture<>();
+        CompletableFuture<Object> leader = DubboSingleFlight.getInstance().submit(key, () -> {
+            invocations.incrementAndGet();
+            return remote;
+        });
+        CompletableFuture<Object> follower = DubboSingleFlight.getInstance().submit(key, () -> {
+            invocations.incrementAndGet();
+            return CompletableFuture.completedFuture("follower");
+        });
+        // each caller holds its own future.
+        follower.cancel(false);
+        remote.complete("leader");
+        assertEquals("leader", leader.get());
+        assertTrue(follower.isCancelled());
+        assertEquals(1, invocations.get());
+    }
+
+    private static void assertFailed(CompletableFuture<Object> future) throws InterruptedException {
+        try {
+            future.get();
+            fail();
+        } catch (ExecutionException ex) {
+            assertTrue(ex.getCause() instanceof IllegalArgumentException);
+        }
+    }
+
+    private Object block(CountDownLatch started, CountDownLatch release, Object result) {
+        invocations.incrementAndGet();
+        started.countDown();
+        try {
+            release.await(WAIT_MILLIS, TimeUnit.MILLISECONDS);
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+        }
+        return result;
+    }
+
+    private Object invoke(Object result) {
+        invocations.incrementAndGet();
+        return result;
+    }
+
+    private static DubboSingleFlightKey key(String extCode) {
+        return new DubboSingleFlightKey("business.flight", null, extCode, new Object[]{"a", 1});
+    }
+}
@@ -3,6 +3,7 @@ package org.hiforce.lattice.runtime;
 import com.google.common.collect.Lists;
 import com.google.common.collect.Maps;
 import com.google.common.collect.Sets;
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
 import lombok.Getter;
 import lombok.Setter;
 import lombok.extern.slf4j.Slf4j;
@@ -22,16 +23,20 @@ import org.hiforce.lattice.model.scenario.ScenarioRequest;
 import org.hiforce.lattice.runtime.ability.creator.DefaultAbilityCreator;
 import org.hiforce.lattice.runtime.ability.register.AbilityBuildRequest;
 import org.hiforce.lattice.runtime.ability.register.AbilityRegister;
+import org.hiforce.lattice.runtime.ability.register.IndexedSpecList;
 import org.hiforce.lattice.runtime.ability.register.TemplateRegister;
 import org.hiforce.lattice.runtime.cache.LatticeRuntimeCache;
 import org.hiforce.lattice.runtime.cache.ability.AbilityCache;
 import org.hiforce.lattice.runtime.cache.config.BusinessConfigCache;
+import org.hiforce.lattice.runtime.cache.dispatch.ExtensionDispatchTable;
+import org.hiforce.lattice.runtime.cache.index.TemplateIndex;
 import org.hiforce.lattice.runtime.spi.LatticeRuntimeSpiFactory;
 import org.hiforce.lattice.runtime.utils.ClassLoaderUtil;
 import org.hiforce.lattice.runtime.utils.ClassPathScanHandler;
+import org.hiforce.lattice.runtime.utils.LatticeMetadataReader;
+import org.hiforce.lattice.spi.LatticeAnnotationSpiFactory;
 import org.hiforce.lattice.spi.classloader.CustomClassLoaderSpi;
 import org.hiforce.lattice.spi.classloader.LatticeClassLoader;
-import org.hiforce.lattice.utils.BizCodeUtils;
 
 import java.io.BufferedReader;
 import java.io.IOException;
@@ -39,6 +44,14 @@ import java.io.InputStreamReader;
 import java.net.URL;
 import java.nio.charset.StandardCharsets;
 import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
 import java.util.stream.Collectors;
 
 /**
@@ -56,9 +69,6 @@ public class Lattice {
     @Setter
     private String uuid = UUID.randomUUID().toString();
 
-    @Getter
-    private boolean initialized = false;
-
     /**
      * The business config not necessary.
      */
@@ -66,13 +76,45 @@ public class Lattice {
     @Setter
     private boolean simpleMode = false;
 
+    /**
+     * Boot from the build-time metadata META-INF/lattice/lattice.json instead of scanning the packages
+     * of the abilities. The packages not described by the metadata, extended by a jar or directory without
+     * the metadata, or described with a missing class (stale metadata), are still scanned.
+     */
     @Getter
     @Setter
-    private LatticeClassLoader latticeClassLoader;
+    private boolean fastBoot = false;
 
     @Getter
-    private final List<AbilitySpec> registeredAbilities = Lists.newArrayList();
+    @Setter
+    private LatticeClassLoader latticeClassLoader;
 
+    /**
+     * The executor of the runners executed in parallel, see {@link org.hiforce.lattice.annotation.Extension#parallel()}.
+     * A shared daemon thread pool is created on demand if not set.
+     */
+    @Setter
+    private volatile Executor parallelExecutor;
+
+    /**
+     * The executor of the continuations of the asynchronous execution, see
+     * {@link org.hiforce.lattice.model.ability.IAbility#reduceExecuteAsync}, so the next runners never
+     * run in the thread completing a runner (e.g. the remote client thread).
+     * A shared daemon thread pool is created on demand if not set.
+     */
+    @Setter
+    private volatile Executor asyncExecutor;
+
+    /**
+     * The pool loading and parsing the classes in parallel on start, shared by the starts and reloads.
+     * Its idle (daemon) workers are released by the pool itself.
+     */
+    private volatile ForkJoinPool startPool;
+
+    /**
+     * The fork being changed by {@link #update(Runnable)}, guarded by the lock of the Lattice.
+     */
+    private LatticeSnapshot updatingSnapshot;
 
     @Getter
     private final LatticeRuntimeCache runtimeCache = (LatticeRuntimeCache) LatticeCacheFactory.getInstance()
@@ -83,9 +125,15 @@ public class Lattice {
     }
 
     public AbilitySpec getAbilitySpecByCode(String code) {
-        return registeredAbilities.stream()
-                .filter(p -> StringUtils.equals(code, p.getCode()))
-                .findFirst().orElse(null);
+        return getRegisteredAbilities().getByCode(code);
+    }
+
+    public IndexedSpecList<AbilitySpec> getRegisteredAbilities() {
+        return LatticeSnapshot.current().getRegisteredAbilities();
+    }
+
+    public boolean isInitialized() {
+        return LatticeSnapshot.current().isInitialized();
     }
 
     public static Lattice getInstance() {
@@ -95,23 +143,84 @@ public class Lattice {
         return instance;
     }
 
+    public Executor getParallelExecutor() {
+        Executor executor = parallelExecutor;
+        if (null != executor) {
+            return executor;
+        }
+        synchronized (this) {
+            if (null == parallelExecutor) {
+                parallelExecutor = createDefaultExecutor("lattice-parallel-runner-%d");
+            }
+            return parallelExecutor;
+        }
+    }
+
+    public Executor getAsyncExecutor() {
+        Executor executor = asyncExecutor;
+        if (null != executor) {
+            return executor;
+        }
+        synchronized (this) {
+            if (null == asyncExecutor) {
+                asyncExecutor = createDefaultExecutor("lattice-async-runner-%d");
+            }
+            return asyncExecutor;
+        }
+    }
+
+    private ForkJoinPool getStartPool() {
+        ForkJoinPool pool = startPool;
+        if (null != pool) {
+            return pool;
+        }
+        synchronized (this) {
+            if (null == startPool) {
+                startPool = new ForkJoinPool(Math.max(2, Runtime.getRuntime().availableProcessors()));
+            }
+            return startPool;
+        }
+    }
+
+    private static Executor createDefaultExecutor(String nameFormat) {
+        int threads = Math.max(2, Runtime.getRuntime().availableProcessors());
+        ThreadPoolExecutor executor = new ThreadPoolExecutor(threads, threads, 60L, TimeUnit.SECONDS,
+                new LinkedBlockingQueue<>(1024),
+                new ThreadFactoryBuilder().setNameFormat(nameFormat).setDaemon(true).build(),
+                new ThreadPoolExecutor.CallerRunsPolicy());
+        executor.allowCoreThreadTimeOut(true);
+        return executor;
+    }
+
+    /**
+     * The SPI providers are discovered in one pass and the classes are loaded and parsed in parallel
+     * on the shared start pool, while the registries are merged in the order of the provider files.
+     * The abilities are registered in current thread, as their instances may be Spring beans
+     * created while the Spring context is refreshing in current thread.
+     */
+    @SuppressWarnings("rawtypes")
     public final void start() {
         initLatticeClassLoader();
-        // 注册能力实例
-        registerAbilities();//Register the Ability Instances during runtime.
-        // 注册能力实现（扩展点）
-        registerRealizations();//Register the business extension realization during runtime.
-        // 注册业务
-        registerBusinesses();
-        // 注册用例
-        registerUseCases();
-        // 注册产品
-        registerProducts();
+        warmUpAnnotationParsers();
+        ForkJoinPool pool = getStartPool();
+        // 一次性发现所有SPI，并行加载类
+        Map<String, Set<Class>> providers = discoverServiceProviders(pool,
+                IAbility.class, IBusinessExt.class, IBusiness.class, IUseCase.class, IProduct.class);
+        // 注册能力实现（扩展点）、业务、用例、产品，与能力注册并行
+        CompletableFuture<Void> templates = runAsync(() -> registerTemplates(providers), pool);
+        try {
+            // 注册能力实例
+            registerAbilities(providers.get(IAbility.class.getName()));//Register the Ability Instances during runtime.
+        } catch (RuntimeException ex) {
+            templates.handle((r, e) -> null).join();
+            throw ex;
+        }
+        join(templates);
         // 构建业务配置
         buildBusinessConfig();
         // 初始化缓存，包括运行时（extension缓存构造）
         initLatticeCache();
-        initialized = true;
+        LatticeSnapshot.current().setInitialized(true);
     }
 
     public void initLatticeClassLoader() {
@@ -128,15 +237,164 @@ public class Lattice {
 
     public final void clear() {
         runtimeCache.clear();
-        registeredAbilities.clear();
+        getRegisteredAbilities().clear();
         TemplateRegister.getInstance().clear();
         AbilityCache.getInstance().clear();
-        initialized = false;
+        LatticeSnapshot.current().setInitialized(false);
+    }
+
+    /**
+     * Start a new snapshot in current thread, then publish it atomically.
+     * The invocations keep running on the previous snapshot until it is published,
+     * and the sessions entered before finish on the previous snapshot.
+     */
+    public synchronized void reload() {
+        LatticeSnapshot snapshot = new LatticeSnapshot();
+        LatticeSnapshot.runWith(snapshot, this::start);
+        LatticeSnapshot.publish(snapshot);
+    }
+
+    /**
+     * Build the runtime state of the businesses and products registered into the TemplateRegister
+     * after the start (e.g. installed by a dynamic plugin), without a full {@link #reload()}.
+     * Only the business configs depending on the new templates are (re)built and compiled,
+     * the unrelated caches are kept. The install is applied via {@link #update(Runnable)}, the templates
+     * should be registered in the same update. Falls back to {@link #reload()} if not initialized yet.
+     *
+     * @param bizCodes     the codes of the registered businesses.
+     * @param productCodes the codes of the registered products.
+     */
+    public synchronized void installTemplates(Collection<String> bizCodes, Collection<String> productCodes) {
+        if (!isInitialized()) {
+            reload();
+            return;
+        }
+        update(() -> doInstallTemplates(bizCodes, productCodes));
     }
 
-    public void reload() {
-        clear();
-        start();
+    /**
+     * Apply the incremental change (e.g. registering the templates of a plugin, then
+     * {@link #installTemplates(Collection, Collection)}) to a fork of the published snapshot,
+     * then publish the fork atomically, so the readers never see the registries and configs
+     * being modified. The nested updates are applied to the same fork, and nothing is published
+     * if the change fails.
+     *
+     * @param change the change applied with current thread bound to the fork.
+     */
+    public synchronized void update(Runnable change) {
+        if (null != updatingSnapshot) {
+            LatticeSnapshot.runWith(updatingSnapshot, change);
+            return;
+        }
+        LatticeSnapshot source = LatticeSnapshot.published();
+        LatticeSnapshot snapshot = source.fork();
+        updatingSnapshot = snapshot;
+        try {
+            LatticeSnapshot.runWith(snapshot, change);
+        } finally {
+            updatingSnapshot = null;
+        }
+        // a nested reload has published the rebuilt snapshot already.
+        if (LatticeSnapshot.published() == source) {
+            LatticeSnapshot.publish(snapshot);
+        }
+    }
+
+    private void doInstallTemplates(Collection<String> bizCodes, Collection<String> productCodes) {
+        // the configs of the published snapshot, shared by the fork, are copied before modified.
+        Set<BusinessConfig> sharedConfigs = Collections.newSetFromMap(new IdentityHashMap<>());
+        sharedConfigs.addAll(getBusinessConfigs());
+        Set<String> changedBizCodes = Sets.newLinkedHashSet();
+        refreshMatchedRealizations(bizCodes, changedBizCodes);
+        for (String code : productCodes) {
+            ProductSpec spec = getRegisteredProductByCode(code);
+            if (null != spec && null == TemplateIndex.getInstance().getSecondKeyViaFirstKey(code)) {
+                TemplateIndex.getInstance().addTemplateIndex(spec);
+            }
+        }
+        runtimeCache.getInvokeCache().init();
+
+        List<BusinessConfig> configs = LatticeRuntimeSpiFactory.getInstance().getBusinessConfigLoads().stream()
+                .flatMap(p -> p.loadBusinessConfigs(Lists.newArrayList(bizCodes)).stream())
+                .filter(p -> StringUtils.isNotEmpty(p.getBizCode()))
+                .collect(Collectors.toList());
+        for (BusinessConfig config : configs) {
+            getBusinessConfigs().removeIf(p -> StringUtils.equals(p.getBizCode(), config.getBizCode()));
+            getBusinessConfigs().add(config);
+            changedBizCodes.add(config.getBizCode());
+        }
+        if (isSimpleMode()) {
+            // the auto-built configs install all the products, rebuild them with the new products.
+            getBusinessConfigs().removeIf(p -> p.isAutoBuild() && !bizCodes.contains(p.getBizCode())
+                    && (!productCodes.isEmpty() || changedBizCodes.contains(p.getBizCode())));
+            for (BusinessSpec spec : getAllRegisteredBusinesses()) {
+                if (getBusinessConfigs().stream().noneMatch(p -> StringUtils.equals(p.getBizCode(), spec.getCode()))) {
+                    autoAddAndBuildBusinessConfig(spec);
+                    changedBizCodes.add(spec.getCode());
+                }
+            }
+        } else {
+            for (String code : productCodes) {
+                for (BusinessConfig config : getBusinessConfigs()) {
+                    if (ExtensionDispatchTable.isReferring(config, code)) {
+                        changedBizCodes.add(config.getBizCode());
+                    }
+                }
+            }
+        }
+
+        Map<String, ExtPriorityConfig> useCasePriorityMap = buildUseCaseExtPriorityConfigMap();
+        List<BusinessConfig> businessConfigs = getBusinessConfigs();
+        for (int i = 0; i < businessConfigs.size(); i++) {
+            BusinessConfig config = businessConfigs.get(i);
+            if (!changedBizCodes.contains(config.getBizCode())) {
+                continue;
+            }
+            if (configs.contains(config) || config.isAutoBuild()) {
+                if (sharedConfigs.contains(config)) {
+                    config = copyBusinessConfig(config);
+                    businessConfigs.set(i, config);
+                }
+                autoBuildUseCaseExtPriorityConfig(config, useCasePriorityMap);
+            }
+            BusinessConfigCache.getInstance().refresh(config.getBizCode());
+            runtimeCache.getDispatchTable().compile(config);
+        }
+        getBusinessConfigs().sort(Comparator.comparingInt(BusinessConfig::getPriority));
+
+        // the new templates are indexed freshly, only the entries of the existing businesses are stale.
+        changedBizCodes.stream().filter(p -> !bizCodes.contains(p)).forEach(runtimeCache::evict);
+        productCodes.forEach(runtimeCache.getResultCache()::invalidate);
+    }
+
+    private static BusinessConfig copyBusinessConfig(BusinessConfig source) {
+        List<ExtPriorityConfig> extensions = source.getExtensions().stream()
+                .map(p -> {
+                    ExtPriorityConfig copied = new ExtPriorityConfig(p.getExtCode());
+                    copied.getPriorities().addAll(p.getPriorities());
+                    return copied;
+                }).collect(Collectors.toList());
+        BusinessConfig config = new BusinessConfig(source.getBizCode(), source.getPriority(),
+                source.getProducts(), extensions);
+        config.setAutoBuild(source.isAutoBuild());
+        return config;
+    }
+
+    /**
+     * The realizations of the specs are only read when building the configs, under the lock of the Lattice.
+     */
+    private void refreshMatchedRealizations(Collection<String> bizCodes, Set<String> changedBizCodes) {
+        for (BusinessSpec spec : getAllRegisteredBusinesses()) {
+            if (bizCodes.contains(spec.getCode())) {
+                continue;
+            }
+            List<RealizationSpec> matched = TemplateRegister.getInstance().getMatchedRealizations(spec.getCode());
+            if (matched.size() != spec.getRealizations().size()) {
+                spec.getRealizations().clear();
+                spec.getRealizations().addAll(matched);
+                changedBizCodes.add(spec.getCode());
+            }
+        }
     }
 
     private void initLatticeCache() {
@@ -151,12 +409,7 @@ public class Lattice {
     }
 
     public BusinessConfig getBusinessConfigByBizCode(String bizCode) {
-        BusinessConfig config = BusinessConfigCache.getInstance().getBusinessConfigByBizCode(bizCode);
-        if (null == config) {
-            return null;
-        }
-        return new ReadonlyBusinessConfig(config.getBizCode(), config.getPriority(),
-                config.getProducts(), config.getExtensions());
+        return BusinessConfigCache.getInstance().getBusinessConfigByBizCode(bizCode);
     }
 
 
@@ -228,6 +481,11 @@ public class Lattice {
                 .filter(p -> StringUtils.equals(config.getBizCode(), p.getBizCode()))
                 .findFirst().ifPresent(BusinessConfigCache.getInstance().getBusinessConfigs()::remove);
         BusinessConfigCache.getInstance().getBusinessConfigs().add(config);
+        BusinessConfigCache.getInstance().refresh(config.getBizCode());
+        if (isInitialized()) {
+            runtimeCache.getDispatchTable().compile(config);
+            AbilityCache.getInstance().evictExtensionRunners(config.getBizCode());
+        }
     }
 
     private Message checkBusinessConfig(BusinessConfig config) {
@@ -261,6 +519,10 @@ public class Lattice {
                 .build();
         businessConfig.setAutoBuild(true);
         BusinessConfigCache.getInstance().getBusinessConfigs().add(businessConfig);
+        BusinessConfigCache.getInstance().refresh(businessConfig.getBizCode());
+        if (isInitialized()) {
+            runtimeCache.getDispatchTable().compile(businessConfig);
+        }
 
 //        BusinessConfigCache.getInstance().getBusinessConfigs().forEach(p -> autoBuildUseCaseExtPriorityConfig(p, buildUseCaseExtPriorityConfigMap()));
 //        BusinessConfigCache.getInstance().getBusinessConfigs().sort(Comparator.comparingInt(BusinessConfig::getPriority));
@@ -354,9 +616,17 @@ public class Lattice {
     }
 
     public BusinessSpec getRegisteredBusinessByCode(String code) {
-        return TemplateRegister.getInstance().getBusinesses().stream()
-                .filter(p -> StringUtils.equals(code, p.getCode()))
-                .findFirst().orElse(null);
+        return TemplateRegister.getInstance().getBusinesses().getByCode(code);
+    }
+
+    /**
+     * @param internalId the internal id of the template.
+     * @return the registered template (business, product or use case) with the internal id.
+     */
+    @SuppressWarnings("rawtypes")
+    public TemplateSpec getRegisteredTemplateByInternalId(Long internalId) {
+        BaseSpec spec = getRuntimeCache().getTemplateIndex().getKey2Only(internalId);
+        return spec instanceof TemplateSpec ? (TemplateSpec) spec : null;
     }
 
     @SuppressWarnings("rawtypes")
@@ -372,15 +642,11 @@ public class Lattice {
     }
 
     public ProductSpec getRegisteredProductByCode(String code) {
-        return TemplateRegister.getInstance().getProducts().stream()
-                .filter(p -> StringUtils.equals(code, p.getCode()))
-                .findFirst().orElse(null);
+        return TemplateRegister.getInstance().getProducts().getByCode(code);
     }
 
     public UseCaseSpec getRegisteredUseCaseByCode(String code) {
-        return TemplateRegister.getInstance().getUseCases().stream()
-                .filter(p -> StringUtils.equals(code, p.getCode()))
-                .findFirst().orElse(null);
+        return TemplateRegister.getInstance().getUseCases().getByCode(code);
     }
 
     public static List<String> getServiceProviderValues(String spiClassName, ClassLoader originLoader) {
@@ -446,52 +712,155 @@ public class Lattice {
         return contentList;
     }
 
+    /**
+     * Discover the providers of the SPI in one pass, the provider files are read and the classes
+     * are loaded in parallel. The classes keep the order of the provider files (the class path order,
+     * then the line order), so the first declared provider of a duplicate code is still the first matched.
+     */
     @SuppressWarnings("rawtypes")
-    private void registerRealizations() {
-        Set<Class> classSet = getServiceProviderClasses(IBusinessExt.class.getName());
-        TemplateRegister.getInstance().registerRealizations(classSet);
+    private Map<String, Set<Class>> discoverServiceProviders(ForkJoinPool pool, Class<?>... spiClasses) {
+        ClassLoader originLoader = getLatticeClassLoader();
+        ClassLoader classLoader = null == originLoader ? Thread.currentThread().getContextClassLoader() : originLoader;
+        // the parallel streams run on the pool, as submitted to it.
+        return pool.submit(() -> Arrays.stream(spiClasses).parallel()
+                .collect(Collectors.toMap(Class::getName, p -> loadServiceProviders(p.getName(), classLoader)))).join();
     }
 
     @SuppressWarnings("rawtypes")
-    private void registerAbilities() {
-        Set<Class> abilityClasses = getServiceProviderClasses(IAbility.class.getName());
-        registeredAbilities.addAll(AbilityRegister.getInstance()
-                .register(new AbilityBuildRequest(null, mergeAbilityInstancePackage(abilityClasses))));
+    private static Set<Class> loadServiceProviders(String spiClassName, ClassLoader classLoader) {
+        Set<Class> classes = new LinkedHashSet<>();
+        getServiceProviderValues(spiClassName, classLoader).parallelStream()
+                .filter(StringUtils::isNotEmpty)
+                .distinct()
+                .map(p -> loadClass(p, classLoader))
+                .filter(Objects::nonNull)
+                .forEachOrdered(classes::add);
+        return classes;
     }
 
-    @SuppressWarnings("rawtypes")
-    private void registerBusinesses() {
-        Set<Class> classSet = getServiceProviderClasses(IBusiness.class.getName());
-        TemplateRegister.getInstance().registerBusinesses(classSet);
+    /**
+     * The annotation parsers are lazily loaded without lock, load them before parsing in parallel.
+     */
+    private void warmUpAnnotationParsers() {
+        LatticeAnnotationSpiFactory factory = LatticeAnnotationSpiFactory.getInstance();
+        factory.getAbilityAnnotationParsers();
+        factory.getExtensionAnnotationParsers();
+        factory.getRealizationAnnotationParsers();
+        factory.getBusinessAnnotationParsers();
+        factory.getProductAnnotationParsers();
+        factory.getUseCaseAnnotationParsers();
+        factory.getPriorityAnnotationParsers();
+        factory.getScanSkipAnnotationParsers();
+    }
+
+    /**
+     * Run the action on the pool, bound to the snapshot and the class loader of current thread.
+     */
+    private static CompletableFuture<Void> runAsync(Runnable action, ForkJoinPool pool) {
+        LatticeSnapshot snapshot = LatticeSnapshot.current();
+        ClassLoader classLoader = Thread.currentThread().getContextClassLoader();
+        return CompletableFuture.runAsync(() -> supplyBound(snapshot, classLoader, () -> {
+            action.run();
+            return null;
+        }), pool);
+    }
+
+    /**
+     * Supply the result with current thread bound to the snapshot and the context class loader,
+     * e.g. the worker of the start pool.
+     */
+    private static <T> T supplyBound(LatticeSnapshot snapshot, ClassLoader classLoader, Supplier<T> action) {
+        Thread thread = Thread.currentThread();
+        ClassLoader origin = thread.getContextClassLoader();
+        thread.setContextClassLoader(classLoader);
+        try {
+            return LatticeSnapshot.supplyWith(snapshot, action);
+        } finally {
+            thread.setContextClassLoader(origin);
+        }
+    }
+
+    private static void join(CompletableFuture<Void> future) {
+        try {
+            future.join();
+        } catch (CompletionException ex) {
+            Throwable cause = null == ex.getCause() ? ex : ex.getCause();
+            if (cause instanceof RuntimeException) {
+                throw (RuntimeException) cause;
+            }
+            if (cause instanceof Error) {
+                throw (Error) cause;
+            }
+            throw new LatticeRuntimeException(cause);
+        }
     }
 
     @SuppressWarnings("rawtypes")
-    private void registerProducts() {
-        Set<Class> classSet = getServiceProviderClasses(IProduct.class.getName());
-        TemplateRegister.getInstance().registerProducts(classSet);
+    private void registerTemplates(Map<String, Set<Class>> providers) {
+        // 注册能力实现（扩展点），在start pool上并行解析，按SPI文件中的顺序注册
+        // 并行流会分发到start pool的其他工作线程，每个元素同样绑定快照与类加载器
+        LatticeSnapshot snapshot = LatticeSnapshot.current();
+        ClassLoader classLoader = Thread.currentThread().getContextClassLoader();
+        List<Class> realizationClasses = Lists.newArrayList(providers.get(IBusinessExt.class.getName()));
+        TemplateRegister.getInstance().addRealizations(realizationClasses.parallelStream()
+                .flatMap(p -> supplyBound(snapshot, classLoader, () -> TemplateRegister.buildRealizations(p)).stream())
+                .collect(Collectors.toList()));
+        // 注册业务
+        TemplateRegister.getInstance().registerBusinesses(providers.get(IBusiness.class.getName()));
+        // 注册用例
+        TemplateRegister.getInstance().registerUseCases(providers.get(IUseCase.class.getName()));
+        // 注册产品
+        TemplateRegister.getInstance().registerProducts(providers.get(IProduct.class.getName()));
     }
 
     @SuppressWarnings("rawtypes")
-    private void registerUseCases() {
-        Set<Class> classSet = getServiceProviderClasses(IUseCase.class.getName());
-        TemplateRegister.getInstance().registerUseCases(classSet);
+    private void registerAbilities(Set<Class> abilityClasses) {
+        getRegisteredAbilities().addAll(AbilityRegister.getInstance()
+                .register(new AbilityBuildRequest(null, mergeAbilityInstancePackage(abilityClasses))));
     }
 
     @SuppressWarnings("rawtypes")
     private Set<Class> mergeAbilityInstancePackage(Set<Class> abilityClasses) {
-        Set<Class> classesSet = Sets.newHashSet(abilityClasses);
-        Set<String> packageSet = abilityClasses.stream().map(p -> p.getPackage().getName()).collect(Collectors.toSet());
+        // the providers keep the order of the provider files, the scanned classes of each package follow in name order.
+        Set<Class> classesSet = new LinkedHashSet<>(abilityClasses);
+        Set<String> packageSet = abilityClasses.stream().map(p -> p.getPackage().getName())
+                .collect(Collectors.toCollection(LinkedHashSet::new));
+        ClassLoader classLoader = Thread.currentThread().getContextClassLoader();
+        Map<String, Set<String>> packageClasses = isFastBoot() ?
+                LatticeMetadataReader.loadPackageClasses(classLoader) : Collections.emptyMap();
         for (String pkg : packageSet) {
-            // 扫描合并已加载类所在包下的Ability的实现
-            classesSet.addAll(ClassLoaderUtil.scanLatticeClasses(pkg));
+            Set<Class<?>> classes = loadPackageClasses(packageClasses.get(pkg), classLoader);
+            if (null == classes) {
+                // 元数据缺失或过期，扫描合并已加载类所在包下的Ability的实现
+                classes = ClassLoaderUtil.scanLatticeClasses(pkg);
+            }
+            classes.stream().sorted(Comparator.comparing(Class::getName)).forEachOrdered(classesSet::add);
         }
         return classesSet;
     }
 
+    private static Set<Class<?>> loadPackageClasses(Set<String> classNames, ClassLoader classLoader) {
+        if (null == classNames) {
+            return null;
+        }
+        Set<Class<?>> classes = Sets.newHashSet();
+        try {
+            for (String className : classNames) {
+                Class<?> clz = loadClass(className, classLoader);
+                if (null == clz) {
+                    return null;
+                }
+                classes.add(clz);
+            }
+        } catch (LinkageError e) {
+            return null;
+        }
+        return classes;
+    }
+
     public RealizationSpec getRealizationSpecByCode(String code) {
-        return TemplateRegister.getInstance().getRealizations()
-                .stream().filter(p -> BizCodeUtils.isCodesMatched(p.getCode(), code))
-                .findFirst().orElse(null);
+        return TemplateRegister.getInstance().getMatchedRealizations(code)
+                .stream().findFirst().orElse(null);
     }
 
     public List<RealizationSpec> getAllRealizations() {
@@ -0,0 +1,161 @@
+package org.hiforce.lattice.runtime;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.hiforce.lattice.model.register.AbilitySpec;
+import org.hiforce.lattice.runtime.ability.register.IndexedSpecList;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+/**
+ * The whole registry and cache state of the Lattice, i.e. the registered abilities and the
+ * instances of the registers and caches (TemplateRegister, AbilityCache, BusinessConfigCache ...),
+ * which are resolved via their <code>getInstance()</code> from the current snapshot.
+ * <p>
+ * The reload builds a new snapshot bound to the reloading thread, then publishes it with one
+ * volatile swap, so the readers never see an empty or half-built registry.
+ * A session, or an invocation out of session, is pinned to the snapshot published when it enters,
+ * together with its worker tasks, the in-flight invocations finish on the old snapshot after the swap.
+ * <p>
+ * The incremental install is applied to a {@link #fork()} of the published snapshot, and published
+ * with the same swap, so the published registries and configs are never modified in place.
+ *
+ * @author Rocky Yu
+ * @since 2026/10/18
+ */
+public final class LatticeSnapshot {
+
+    private static final AtomicLong VERSION_SEQUENCE = new AtomicLong();
+
+    private static final ThreadLocal<LatticeSnapshot> BOUND = new ThreadLocal<>();
+
+    private static volatile LatticeSnapshot published = new LatticeSnapshot();
+
+    @Getter
+    private final long version = VERSION_SEQUENCE.incrementAndGet();
+
+    @Getter
+    private final IndexedSpecList<AbilitySpec> registeredAbilities = new IndexedSpecList<>();
+
+    @Getter
+    @Setter
+    private volatile boolean initialized;
+
+    private final Map<Class<?>, Object> components = new ConcurrentHashMap<>();
+
+    /**
+     * @return the snapshot bound to current thread, or the published one.
+     */
+    public static LatticeSnapshot current() {
+        LatticeSnapshot snapshot = BOUND.get();
+        return null == snapshot ? published : snapshot;
+    }
+
+    public static LatticeSnapshot published() {
+        return published;
+    }
+
+    /**
+     * Publish the snapshot, the threads not bound to a snapshot read it since then.
+     */
+    public static void publish(LatticeSnapshot snapshot) {
+        if (null == snapshot) {
+            throw new IllegalArgumentException("snapshot should not be null");
+        }
+        published = snapshot;
+    }
+
+    /**
+     * Bind current thread to its current snapshot, until {@link #restore(LatticeSnapshot)}.
+     *
+     * @return the snapshot bound before, should be passed to {@link #restore(LatticeSnapshot)}.
+     */
+    public static LatticeSnapshot pin() {
+        LatticeSnapshot previous = BOUND.get();
+        if (null == previous) {
+            BOUND.set(published);
+        }
+        return previous;
+    }
+
+    /**
+     * @param previous the snapshot returned by {@link #pin()}.
+     */
+    public static void restore(LatticeSnapshot previous) {
+        if (null == previous) {
+            BOUND.remove();
+        } else {
+            BOUND.set(previous);
+        }
+    }
+
+    /**
+     * Run the action with current thread bound to the snapshot.
+     */
+    public static void runWith(LatticeSnapshot snapshot, Runnable action) {
+        LatticeSnapshot previous = BOUND.get();
+        BOUND.set(snapshot);
+        try {
+            action.run();
+        } finally {
+            restore(previous);
+        }
+    }
+
+    /**
+     * Supply the result with current thread bound to the snapshot, e.g. the worker task of an invocation.
+     */
+    public static <T> T supplyWith(LatticeSnapshot snapshot, Supplier<T> action) {
+        LatticeSnapshot previous = BOUND.get();
+        BOUND.set(snapshot);
+        try {
+            return action.get();
+        } finally {
+            restore(previous);
+        }
+    }
+
+    /**
+     * Copy the snapshot to apply an incremental change, the {@link Copyable} components are copied,
+     * the others (e.g. the extension specs of the abilities) are not changed by the install and shared.
+     *
+     * @return the unpublished copy of the snapshot.
+     */
+    public LatticeSnapshot fork() {
+        LatticeSnapshot snapshot = new LatticeSnapshot();
+        snapshot.registeredAbilities.addAll(registeredAbilities);
+        snapshot.initialized = initialized;
+        components.forEach((type, component) -> snapshot.components.put(type,
+                component instanceof Copyable ? ((Copyable<?>) component).copy() : component));
+        return snapshot;
+    }
+
+    /**
+     * @param type    the type of the component.
+     * @param creator creates the component when absent, should have no side effects.
+     * @return the component of the snapshot.
+     */
+    public <T> T getComponent(Class<T> type, Supplier<T> creator) {
+        Object component = components.get(type);
+        if (null == component) {
+            T created = creator.get();
+            Object existed = components.putIfAbsent(type, created);
+            component = null == existed ? created : existed;
+        }
+        return type.cast(component);
+    }
+
+    /**
+     * The component holding the state changed by the incremental install, copied by {@link #fork()}.
+     */
+    public interface Copyable<T> {
+
+        /**
+         * @return the copy of the component, modifying it does not affect the original.
+         */
+        T copy();
+    }
+}
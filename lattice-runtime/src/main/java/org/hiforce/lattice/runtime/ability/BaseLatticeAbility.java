@@ -1,11 +1,11 @@
 package org.hiforce.lattice.runtime.ability;
 
-import com.google.common.collect.Lists;
 import lombok.Getter;
 import lombok.extern.slf4j.Slf4j;
+import org.apache.commons.collections4.CollectionUtils;
 import org.apache.commons.lang3.StringUtils;
 import org.hiforce.lattice.annotation.model.AbilityAnnotation;
-import org.hiforce.lattice.annotation.model.ExtensionAnnotation;
+import org.hiforce.lattice.cache.invoke.InvokeCache;
 import org.hiforce.lattice.exception.LatticeRuntimeException;
 import org.hiforce.lattice.message.Message;
 import org.hiforce.lattice.model.ability.IAbility;
@@ -14,23 +14,34 @@ import org.hiforce.lattice.model.ability.execute.ExtensionCallback;
 import org.hiforce.lattice.model.ability.execute.Reducer;
 import org.hiforce.lattice.model.business.IBizObject;
 import org.hiforce.lattice.model.context.AbilityContext;
+import org.hiforce.lattice.model.context.BizSessionContext;
+import org.hiforce.lattice.model.context.EffectiveTemplates;
 import org.hiforce.lattice.model.register.ExtensionSpec;
 import org.hiforce.lattice.runtime.Lattice;
+import org.hiforce.lattice.runtime.LatticeSnapshot;
 import org.hiforce.lattice.runtime.ability.delegate.BaseLatticeAbilityDelegate;
 import org.hiforce.lattice.runtime.ability.execute.ExecuteResult;
 import org.hiforce.lattice.runtime.ability.execute.RunnerCollection;
+import org.hiforce.lattice.runtime.ability.execute.RunnerResultCache;
 import org.hiforce.lattice.runtime.ability.execute.filter.ExtensionFilter;
 import org.hiforce.lattice.runtime.cache.LatticeRuntimeCache;
+import org.hiforce.lattice.runtime.cache.exension.ExtensionResolveCache;
+import org.hiforce.lattice.runtime.cache.exension.ExtensionResultCache;
+import org.hiforce.lattice.runtime.cache.exension.ExtensionSessionMemo;
 import org.hiforce.lattice.utils.JacksonUtils;
 import org.hiforce.lattice.utils.LatticeAnnotationUtils;
 import org.jetbrains.annotations.NotNull;
-import org.springframework.cglib.proxy.Enhancer;
-import org.springframework.cglib.proxy.MethodInterceptor;
 
 import javax.annotation.Nonnull;
 import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
 import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Supplier;
 
 import static org.hiforce.lattice.runtime.ability.execute.filter.ExtensionFilter.DEFAULT_FILTER;
 
@@ -112,7 +123,29 @@ public abstract class BaseLatticeAbility<BusinessExt extends IBusinessExt>
         if (!Lattice.getInstance().isInitialized()) {
             throw new LatticeRuntimeException("LATTICE-CORE-RT-0023");
         }
-        ExecuteResult<R> result = reduceExecuteWithDetailResult(callback, reducer, filter);
+        return handleReduceExecuteResult(reduceExecuteWithDetailResult(callback, reducer, filter, false));
+    }
+
+    /**
+     * Execute the extension with the matched runners in parallel, on the executor of
+     * {@link Lattice#getParallelExecutor()}. The results are reduced in the priority order of the runners.
+     * Only takes effect when the reducer never breaks early (e.g. None, Collect),
+     * otherwise the runners are executed one by one.
+     * The failed runner is logged and skipped, the others are still reduced.
+     * The runners are executed without the invoke cache (and the session) of current thread.
+     *
+     * @param callback the extension callback.
+     * @param reducer  the reducer.
+     * @return the reduced result.
+     */
+    public <T, R> R reduceExecuteParallel(ExtensionCallback<BusinessExt, T> callback, @Nonnull Reducer<T, R> reducer) {
+        if (!Lattice.getInstance().isInitialized()) {
+            throw new LatticeRuntimeException("LATTICE-CORE-RT-0023");
+        }
+        return handleReduceExecuteResult(reduceExecuteWithDetailResult(callback, reducer, DEFAULT_FILTER, true));
+    }
+
+    private <R> R handleReduceExecuteResult(ExecuteResult<R> result) {
         if (null == result || null == result.getResult()) {
             return null;
         }
@@ -124,97 +157,285 @@ public abstract class BaseLatticeAbility<BusinessExt extends IBusinessExt>
         return result.getResult();
     }
 
-    @SuppressWarnings("all")
-    private final <T, R> ExecuteResult<R> reduceExecuteWithDetailResult(
-            ExtensionCallback<BusinessExt, T> callback,
-            @Nonnull Reducer<T, R> reducer, ExtensionFilter filter) {
-
-        if (!Lattice.getInstance().isInitialized()) {
-            throw new LatticeRuntimeException("LATTICE-CORE-RT-0023");
+    /**
+     * Execute the extension for a batch of business objects in current session.
+     * The business objects are grouped by (bizCode, scenario, effective templates), the extension
+     * is resolved once per batch, and the runners are loaded once per group.
+     * The business object of current ability is only used to resolve the extension.
+     *
+     * @param bizObjects      the business objects.
+     * @param callback        the extension callback.
+     * @param reducerSupplier creates the reducer for each business object, as the reducer is stateful.
+     * @return the reduced results, in the same order of the business objects.
+     */
+    @SuppressWarnings("unchecked")
+    public <T, R> List<R> reduceExecuteBatch(List<? extends IBizObject> bizObjects,
+                                             ExtensionCallback<BusinessExt, T> callback,
+                                             @Nonnull Supplier<Reducer<T, R>> reducerSupplier) {
+        if (CollectionUtils.isEmpty(bizObjects)) {
+            return Collections.emptyList();
         }
-
+        // 整个批量调用固定使用进入时的快照
+        LatticeSnapshot previousSnapshot = LatticeSnapshot.pin();
+        List<R> outputs = new ArrayList<>(Collections.nCopies(bizObjects.size(), null));
         try {
-            // 基于一个代理对象的执行来初始化能力上下文
+            if (!Lattice.getInstance().isInitialized()) {
+                throw new LatticeRuntimeException("LATTICE-CORE-RT-0023");
+            }
             initAbiliinittyInvokeContext(callback);//init the ability context.
-            String extCode = getContext().getExtCode();
+            AbilityContext resolved = getContext();
+            String extCode = resolved.getExtCode();
             if (StringUtils.isEmpty(extCode)) {
                 throw new LatticeRuntimeException("LATTICE-CORE-RT-0007");
             }
-
-            if (null == getContext().getBizObject()) {
-                return ExecuteResult.failed(bizObject.getBizCode(), extCode, Message.code("LATTICE-CORE-RT-0018"));
-            }
-            if (getContext().getBizObject().getBizContext().getBizId() == null) {
-                return ExecuteResult.failed(bizObject.getBizCode(), extCode, Message.code("LATTICE-CORE-RT-0019"));
-            }
-
             if (!supportChecking()) {
-                return ExecuteResult.success(getContext().getBizCode(), extCode, reducer.reduceName(),
-                        Message.code("LATTICE-CORE-RT-0020", this.getClass().getName(),
-                                Optional.ofNullable(getContext().getBizObject())
-                                        .map(p -> p.getBizContext())
-                                        .map(p -> p.getBizInfo()).orElse(getContext().getBizObject().getBizId().toString()), extCode));
+                return outputs;
             }
-
-            // 通过扩展点编码从扩展点缓存中获取扩展点，进行一些校验动作
             ExtensionSpec extensionSpec = getRuntimeCache().getExtensionCache().getExtensionSpecByCode(extCode);
             if (null == extensionSpec && !Lattice.getInstance().isSimpleMode()) {
                 throw new LatticeRuntimeException("LATTICE-CORE-RT-0016", extCode);
             }
+            Reducer<T, R> reducer = reducerSupplier.get();
             if (null != extensionSpec && !reducer.reducerType().equals(extensionSpec.getReduceType())) {
                 log.warn(Message.code("LATTICE-CORE-RT-0017", extCode, reducer.reducerType(),
                         extensionSpec.getReduceType()).getText());
             }
 
-            String bizCode = getContext().getBizObject().getBizCode();
+            for (List<Integer> group : groupBizObjects(bizObjects).values()) {
+                this.context = copyInvokeContext(resolved, bizObjects.get(group.get(0)));
+                RunnerCollection<R> runnerCollection = delegate.<R>loadExtensionRunners(extCode, DEFAULT_FILTER)
+                        .withResultCache(getResultCacheScope(extensionSpec))
+                        .withInvokeParams(getContext().getInvokeParams());
+                runnerCollection.distinct();
+                for (Integer index : group) {
+                    ExecuteResult<R> result = runnerCollection.reduceExecute(bizObjects.get(index), extCode,
+                            reducerSupplier.get(), (ExtensionCallback<IBusinessExt, T>) callback, new ArrayList<>(16));
+                    if (null == result || null == result.getResult()) {
+                        continue;
+                    }
+                    if (!result.isSuccess()) {
+                        handleReduceExecuteFailed(result);
+                        continue;
+                    }
+                    outputs.set(index, result.getResult());
+                }
+            }
+            return outputs;
+        } finally {
+            this.context = null; //destroy the context.
+            LatticeSnapshot.restore(previousSnapshot);
+        }
+    }
+
+    private Map<BatchGroupKey, List<Integer>> groupBizObjects(List<? extends IBizObject> bizObjects) {
+        BizSessionContext sessionContext =
+                InvokeCache.instance().get(BizSessionContext.class, BizSessionContext.class);
+        Map<BatchGroupKey, List<Integer>> groups = new LinkedHashMap<>();
+        for (int i = 0; i < bizObjects.size(); i++) {
+            IBizObject bizObject = bizObjects.get(i);
+            // 与单次执行一致，缺少业务身份的对象不执行，结果为null
+            if (null == bizObject || null == bizObject.getBizContext()
+                    || null == bizObject.getBizContext().getBizId()) {
+                continue;
+            }
+            String bizCode = bizObject.getBizCode();
             if (StringUtils.isEmpty(bizCode)) {
                 throw new LatticeRuntimeException("LATTICE-CORE-RT-0008");
             }
+            EffectiveTemplates effectiveTemplates = null == sessionContext ? null :
+                    sessionContext.getEffectiveTemplates(bizObject.getBizContext());
+            BatchGroupKey key = new BatchGroupKey(bizCode, bizObject.getBizContext().getScenario(), effectiveTemplates);
+            groups.computeIfAbsent(key, k -> new ArrayList<>()).add(i);
+        }
+        return groups;
+    }
 
+    private static AbilityContext copyInvokeContext(AbilityContext resolved, IBizObject bizObject) {
+        AbilityContext context = new AbilityContext(bizObject);
+        context.setExtCode(resolved.getExtCode());
+        context.setExtName(resolved.getExtName());
+        context.setExtMethod(resolved.getExtMethod());
+        context.setInvokeParams(resolved.getInvokeParams());
+        return context;
+    }
+
+    @SuppressWarnings("all")
+    private final <T, R> ExecuteResult<R> reduceExecuteWithDetailResult(
+            ExtensionCallback<BusinessExt, T> callback,
+            @Nonnull Reducer<T, R> reducer, ExtensionFilter filter, boolean parallel) {
+
+        // 调用期间固定使用进入时的快照，reload不影响进行中的调用
+        LatticeSnapshot previousSnapshot = LatticeSnapshot.pin();
+        try {
+            if (!Lattice.getInstance().isInitialized()) {
+                throw new LatticeRuntimeException("LATTICE-CORE-RT-0023");
+            }
+            ExecuteResult<R> earlyResult = prepareInvokeContext(callback, reducer);
+            if (null != earlyResult) {
+                return earlyResult;
+            }
+            String extCode = getContext().getExtCode();
             List<T> results = new ArrayList<>(16);
+            ExtensionSpec extensionSpec = getRuntimeCache().getExtensionCache().getExtensionSpecByCode(extCode);
             // 通过当前能力实例的一个包装对象，
-            RunnerCollection<R> runnerCollection = delegate.loadExtensionRunners(extCode, filter);
+            RunnerCollection<R> runnerCollection = delegate.<R>loadExtensionRunners(extCode, filter)
+                    .withResultCache(getRunnerResultCache(extensionSpec))
+                    .withInvokeParams(getContext().getInvokeParams());
             // 执行
+            if (!reducer.mayBreak() && (parallel || (null != extensionSpec && extensionSpec.isParallel()))) {
+                return runnerCollection.distinct().reduceExecuteParallel(extCode, reducer,
+                        (ExtensionCallback<IBusinessExt, T>) callback, results, Lattice.getInstance().getParallelExecutor());
+            }
             return runnerCollection.distinct()
                     .reduceExecute(extCode, reducer, (ExtensionCallback<IBusinessExt, T>) callback, results);
         } finally {
             this.context = null; //destroy the context.
+            LatticeSnapshot.restore(previousSnapshot);
         }
     }
 
+    /**
+     * Execute the extension asynchronously. The runners are loaded in current thread, then the
+     * results are folded as the runners complete, e.g. the remote runner completes without blocking
+     * current thread. The future of FirstOf / AnyMatch completes once a runner breaks,
+     * the rest runners are not executed.
+     * The invocation is captured when this method returns, the ability instance can be invoked again
+     * before the future completes. The continuations of a pending runner run on
+     * {@link Lattice#getAsyncExecutor()}, bound to the snapshot and the session of current thread.
+     *
+     * @param callback callback of the function.
+     * @param reducer  The multi-result reduce policy.
+     * @return the future of the extension customization result.
+     */
+    @Override
     @SuppressWarnings("all")
-    private <T> void initAbiliinittyInvokeContext(ExtensionCallback<BusinessExt, T> callback) {
-        // 获取默认扩展点实现
-        BusinessExt businessExt = this.getDefaultRealization();
-        List<Object> extParams = Lists.newArrayList();
-        // 创建一个代理对象。
-        // 目的是通过一次方法调用，往Ability执行上下文中放入一些参数
-        Enhancer enhancer = new Enhancer();
-        enhancer.setSuperclass(businessExt.getClass());
-        enhancer.setCallback((MethodInterceptor) (o, method, params, methodProxy) -> {
-            // 往上下文中设置参数
-            this.getContext().setExtMethod(method);
-            if (null != params) {
-                for (Object p : params) {
-                    extParams.add(p);
-                }
+    public <T, R> CompletableFuture<R> reduceExecuteAsync(ExtensionCallback<BusinessExt, T> callback,
+                                                         @Nonnull Reducer<T, R> reducer) {
+        CompletableFuture<ExecuteResult<R>> future;
+        // the continuations are bound to the pinned snapshot, see InvokeContextExecutor.
+        LatticeSnapshot previousSnapshot = LatticeSnapshot.pin();
+        try {
+            if (!Lattice.getInstance().isInitialized()) {
+                throw new LatticeRuntimeException("LATTICE-CORE-RT-0023");
             }
-            this.getContext().setInvokeParams(extParams);
-            // 获取扩展点注解
-            ExtensionAnnotation annotation =
-                    LatticeAnnotationUtils.getExtensionAnnotation(method);
-            if (null == annotation) {
-                log.warn("[Lattice] invoke context, failed to get annotation, method={}", method.getName());
+            ExecuteResult<R> earlyResult = prepareInvokeContext(callback, reducer);
+            if (null != earlyResult) {
+                future = CompletableFuture.completedFuture(earlyResult);
             } else {
-                this.getContext().setExtCode(annotation.getCode());
-                this.getContext().setExtName(annotation.getName());
+                String extCode = getContext().getExtCode();
+                ExtensionSpec extensionSpec = getRuntimeCache().getExtensionCache().getExtensionSpecByCode(extCode);
+                future = delegate.loadExtensionRunners(extCode, DEFAULT_FILTER)
+                        .withResultCache(getRunnerResultCache(extensionSpec))
+                        .withInvokeParams(getContext().getInvokeParams()).distinct()
+                        .reduceExecuteAsync(extCode, reducer, (ExtensionCallback<IBusinessExt, T>) callback,
+                                new ArrayList<>(16), Lattice.getInstance().getAsyncExecutor());
             }
-            log.debug("[Lattice] invoke context, method={}, annotation=[code={}, name={}], params={}", method.getName(),
-                    getContext().getExtCode(), getContext().getExtName(), JacksonUtils.serializeWithoutException(extParams));
+        } catch (Throwable th) {
+            future = new CompletableFuture<>();
+            future.completeExceptionally(th);
+        } finally {
+            this.context = null; //the invocation is captured by the runner collection, destroy the context.
+            LatticeSnapshot.restore(previousSnapshot);
+        }
+        return future.thenApply(this::handleReduceExecuteResult);
+    }
+
+    /**
+     * Init the ability context and check the invocation.
+     *
+     * @return the result if the invocation should not go on, or null.
+     */
+    private <T, R> ExecuteResult<R> prepareInvokeContext(ExtensionCallback<BusinessExt, T> callback,
+                                                         Reducer<T, R> reducer) {
+        // 基于一个代理对象的执行来初始化能力上下文
+        initAbiliinittyInvokeContext(callback);//init the ability context.
+        String extCode = getContext().getExtCode();
+        if (StringUtils.isEmpty(extCode)) {
+            throw new LatticeRuntimeException("LATTICE-CORE-RT-0007");
+        }
+
+        if (null == getContext().getBizObject()) {
+            return ExecuteResult.failed(bizObject.getBizCode(), extCode, Message.code("LATTICE-CORE-RT-0018"));
+        }
+        if (getContext().getBizObject().getBizContext().getBizId() == null) {
+            return ExecuteResult.failed(bizObject.getBizCode(), extCode, Message.code("LATTICE-CORE-RT-0019"));
+        }
+
+        if (!supportChecking()) {
+            return ExecuteResult.success(getContext().getBizCode(), extCode, reducer.reduceName(),
+                    Message.code("LATTICE-CORE-RT-0020", this.getClass().getName(),
+                            Optional.ofNullable(getContext().getBizObject())
+                                    .map(p -> p.getBizContext())
+                                    .map(p -> p.getBizInfo()).orElse(getContext().getBizObject().getBizId().toString()), extCode));
+        }
+
+        // 通过扩展点编码从扩展点缓存中获取扩展点，进行一些校验动作
+        ExtensionSpec extensionSpec = getRuntimeCache().getExtensionCache().getExtensionSpecByCode(extCode);
+        if (null == extensionSpec && !Lattice.getInstance().isSimpleMode()) {
+            throw new LatticeRuntimeException("LATTICE-CORE-RT-0016", extCode);
+        }
+        if (null != extensionSpec && !reducer.reducerType().equals(extensionSpec.getReduceType())) {
+            log.warn(Message.code("LATTICE-CORE-RT-0017", extCode, reducer.reducerType(),
+                    extensionSpec.getReduceType()).getText());
+        }
+
+        String bizCode = getContext().getBizObject().getBizCode();
+        if (StringUtils.isEmpty(bizCode)) {
+            throw new LatticeRuntimeException("LATTICE-CORE-RT-0008");
+        }
+        return null;
+    }
+
+    private ExtensionResultCache.Scope getResultCacheScope(ExtensionSpec extensionSpec) {
+        if (null == extensionSpec || !extensionSpec.isCacheable()) {
             return null;
-        });
-        businessExt = (BusinessExt) enhancer.create();
-        // 扩展点回调方法执行，传入代理对象，初始化上下文参数
-        callback.apply(businessExt);
+        }
+        return ExtensionResultCache.getInstance().scope(extensionSpec, getContext().getBizCode(),
+                getContext().getScenario(), getContext().getInvokeParams());
+    }
+
+    /**
+     * The session memo over the cross-request result cache. The batch invocation shares one
+     * runner collection among the business objects, so it only uses the cross-request result cache.
+     */
+    private RunnerResultCache getRunnerResultCache(ExtensionSpec extensionSpec) {
+        return ExtensionSessionMemo.scope(extensionSpec, getResultCacheScope(extensionSpec),
+                getContext().getBizCode(), getContext().getBizObject().getBizContext().getBizId(),
+                getContext().getScenario(), getContext().getInvokeParams());
+    }
+
+    private <T> void initAbiliinittyInvokeContext(ExtensionCallback<BusinessExt, T> callback) {
+        // 基于默认扩展点实现的缓存代理对象执行回调，往Ability执行上下文中放入扩展点编码、方法及参数
+        ExtensionResolveCache.getInstance().resolve(getContext(), this.getDefaultRealization(), callback);
+    }
+
+    private static final class BatchGroupKey {
+
+        private final String bizCode;
+
+        private final String scenario;
+
+        private final EffectiveTemplates effectiveTemplates;
+
+        BatchGroupKey(String bizCode, String scenario, EffectiveTemplates effectiveTemplates) {
+            this.bizCode = bizCode;
+            this.scenario = scenario;
+            this.effectiveTemplates = effectiveTemplates;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) return true;
+            if (o == null || getClass() != o.getClass()) return false;
+            BatchGroupKey that = (BatchGroupKey) o;
+            return Objects.equals(bizCode, that.bizCode)
+                    && Objects.equals(scenario, that.scenario)
+                    && Objects.equals(effectiveTemplates, that.effectiveTemplates);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(bizCode, scenario, effectiveTemplates);
+        }
     }
 }
@@ -1,6 +1,7 @@
 package org.hiforce.lattice.runtime.ability.cache;
 
 import org.hiforce.lattice.model.ability.IAbility;
+import org.hiforce.lattice.runtime.LatticeSnapshot;
 import org.hiforce.lattice.runtime.cache.LatticeCache;
 
 import java.util.List;
@@ -13,21 +14,10 @@ import java.util.concurrent.ConcurrentHashMap;
  */
 public class AbilityInstCache implements LatticeCache {
 
-    private static AbilityInstCache instance;
-
-    private static final Object lock = new Object();
-
-    private static final Map<String, List<Class<IAbility>>> ABILITY_INST_MAP = new ConcurrentHashMap<>();
+    private final Map<String, List<Class<IAbility>>> ABILITY_INST_MAP = new ConcurrentHashMap<>();
 
     public static AbilityInstCache getInstance() {
-        if (null == instance) {
-            synchronized (lock) {
-                if (null == instance) {
-                    instance = new AbilityInstCache();
-                }
-            }
-        }
-        return instance;
+        return LatticeSnapshot.current().getComponent(AbilityInstCache.class, AbilityInstCache::new);
     }
 
     public List<Class<IAbility>> getAbilityInstCodes(String abilityCode){
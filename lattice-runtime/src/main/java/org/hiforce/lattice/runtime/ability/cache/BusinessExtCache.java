@@ -1,51 +1,42 @@
 package org.hiforce.lattice.runtime.ability.cache;
 
-import com.google.common.collect.HashBasedTable;
 import com.google.common.collect.Lists;
-import com.google.common.collect.Table;
 import lombok.extern.slf4j.Slf4j;
 import org.apache.commons.lang3.ClassUtils;
 import org.apache.commons.lang3.StringUtils;
 import org.hiforce.lattice.annotation.model.ScanSkipAnnotation;
 import org.hiforce.lattice.model.ability.IBusinessExt;
+import org.hiforce.lattice.model.ability.cache.BusinessExtMetadata;
 import org.hiforce.lattice.model.ability.cache.IBusinessExtCache;
+import org.hiforce.lattice.model.register.RealizationSpec;
+import org.hiforce.lattice.runtime.LatticeSnapshot;
 import org.hiforce.lattice.runtime.cache.LatticeCache;
 import org.hiforce.lattice.utils.BusinessExtUtils;
 import org.hiforce.lattice.runtime.utils.LatticeBeanUtils;
 
 import java.lang.reflect.Method;
+import java.util.Collection;
 import java.util.List;
-import java.util.Objects;
 
 import static org.hiforce.lattice.utils.LatticeAnnotationUtils.getScanSkipAnnotation;
 
 
 /**
+ * The resolved sub BusinessExt are kept in the per-class {@link BusinessExtMetadata},
+ * resolved once per (scenario, extCode) and read without lock.
+ *
  * @author Rocky Yu
  * @since 2022/9/16
  */
 @Slf4j
 public class BusinessExtCache implements IBusinessExtCache, LatticeCache {
 
-    private static BusinessExtCache instance;
-
-    private static final Object lock = new Object();
-
-    private static final Table<Class<?>, ExtKey, IBusinessExt> BIZ_EXT_TABLE = HashBasedTable.create();
-
     private BusinessExtCache() {
 
     }
 
     public static BusinessExtCache getInstance() {
-        if (null == instance) {
-            synchronized (lock) {
-                if (null == instance) {
-                    instance = new BusinessExtCache();
-                }
-            }
-        }
-        return instance;
+        return LatticeSnapshot.current().getComponent(BusinessExtCache.class, BusinessExtCache::new);
     }
 
     @Override
@@ -55,30 +46,32 @@ public class BusinessExtCache implements IBusinessExtCache, LatticeCache {
 
     @Override
     public void clear() {
-        BIZ_EXT_TABLE.clear();
+        BusinessExtMetadata.clearSubBusinessExt();
+    }
+
+    /**
+     * Evict the sub BusinessExt resolved from the realizations, the other classes are kept.
+     *
+     * @param realizations the realizations of the changed template.
+     */
+    public void evict(Collection<RealizationSpec> realizations) {
+        for (RealizationSpec realization : realizations) {
+            if (null != realization.getBusinessExtClass()) {
+                BusinessExtMetadata.of(realization.getBusinessExtClass()).resetSubBusinessExt();
+            }
+        }
     }
 
 
-    @SuppressWarnings("SynchronizationOnGetClass")
     public IBusinessExt getCachedBusinessExt(IBusinessExt businessExt, String extCode, String scenario) {
         scenario = StringUtils.isEmpty(scenario) ? "None#" : scenario;
-        ExtKey extKey = new ExtKey(scenario, extCode);
-        IBusinessExt found = BIZ_EXT_TABLE.get(businessExt.getClass(), extKey);
-        if (null != found) {
-            return found;
-        }
-        synchronized (businessExt.getClass()) {
-            IBusinessExt point = BIZ_EXT_TABLE.get(businessExt.getClass(), extKey);
-            if (point != null) {
-                return point;
-            }
-            point = findSubBusinessExtViaExtCode(businessExt, extCode);
+        return BusinessExtMetadata.of(businessExt.getClass()).getSubBusinessExt(scenario, extCode, code -> {
+            IBusinessExt point = findSubBusinessExtViaExtCode(businessExt, code);
             if (point != null) {
                 LatticeBeanUtils.autowireBean(point);
-                BIZ_EXT_TABLE.put(businessExt.getClass(), extKey, point);
             }
             return point;
-        }
+        });
     }
 
     @Override
@@ -144,38 +137,4 @@ public class BusinessExtCache implements IBusinessExtCache, LatticeCache {
         }
         return businessExt;
     }
-
-    static class ExtKey {
-        private final String scenario;
-        private final String extCode;
-
-        public ExtKey(String scenario, String extCode) {
-            this.scenario = scenario;
-            this.extCode = extCode;
-        }
-
-        @Override
-        public boolean equals(Object o) {
-            if (this == o) {
-                return true;
-            }
-            if (o == null || getClass() != o.getClass()) {
-                return false;
-            }
-            ExtKey key = (ExtKey) o;
-
-            if (StringUtils.isNotEmpty(scenario) ?
-                    !StringUtils.equals(scenario, key.scenario) : StringUtils.isNotEmpty(key.scenario)) {
-                return false;
-            }
-            return Objects.equals(extCode, key.extCode);
-        }
-
-        @Override
-        public int hashCode() {
-            int result = scenario != null ? scenario.hashCode() : 0;
-            result = 31 * result + (extCode != null ? extCode.hashCode() : 0);
-            return result;
-        }
-    }
 }
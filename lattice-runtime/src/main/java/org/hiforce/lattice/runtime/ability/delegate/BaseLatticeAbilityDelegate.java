@@ -10,14 +10,10 @@ import org.hiforce.lattice.exception.LatticeRuntimeException;
 import org.hiforce.lattice.extension.ExtensionRunner;
 import org.hiforce.lattice.extension.RemoteExtensionRunnerBuilder;
 import org.hiforce.lattice.extension.RunnerItemEntry;
-import org.hiforce.lattice.message.Message;
 import org.hiforce.lattice.model.ability.IBusinessExt;
 import org.hiforce.lattice.model.business.IBizObject;
-import org.hiforce.lattice.model.business.ITemplate;
 import org.hiforce.lattice.model.business.TemplateType;
 import org.hiforce.lattice.model.config.BusinessConfig;
-import org.hiforce.lattice.model.config.ExtPriority;
-import org.hiforce.lattice.model.config.ExtPriorityConfig;
 import org.hiforce.lattice.model.context.BizSessionContext;
 import org.hiforce.lattice.model.register.BusinessSpec;
 import org.hiforce.lattice.model.register.ExtensionSpec;
@@ -32,11 +28,11 @@ import org.hiforce.lattice.runtime.ability.execute.runner.ExtensionJavaRunner;
 import org.hiforce.lattice.runtime.ability.register.TemplateRegister;
 import org.hiforce.lattice.runtime.cache.LatticeRuntimeCache;
 import org.hiforce.lattice.runtime.cache.ability.AbilityCache;
+import org.hiforce.lattice.runtime.cache.dispatch.ExtensionDispatchTable;
 import org.hiforce.lattice.runtime.cache.exension.ExtensionInvokeCache;
 import org.hiforce.lattice.runtime.cache.exension.NotExistedRealization;
 import org.hiforce.lattice.runtime.cache.index.TemplateIndex;
-import org.hiforce.lattice.runtime.cache.key.ExtensionInvokeCacheKey;
-import org.hiforce.lattice.runtime.cache.key.ExtensionRunnerCacheKey;
+import org.hiforce.lattice.runtime.cache.key.ObjectCacheKeyEncoder;
 import org.hiforce.lattice.runtime.spi.IRunnerCollectionBuilder;
 import org.hiforce.lattice.runtime.spi.LatticeRuntimeSpiFactory;
 import org.hiforce.lattice.runtime.utils.SpringApplicationContextHolder;
@@ -44,13 +40,13 @@ import org.hiforce.lattice.utils.BizCodeUtils;
 
 import javax.annotation.Nonnull;
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
 import java.util.Set;
 import java.util.function.Predicate;
 import java.util.stream.Collectors;
 
 import static org.hiforce.lattice.runtime.ability.execute.RunnerCollection.ACCEPT_ALL;
-import static org.hiforce.lattice.utils.BizCodeUtils.isCodeMatched;
 
 /**
  * @author Rocky Yu
@@ -82,16 +78,14 @@ public class BaseLatticeAbilityDelegate {
         if (!Lattice.getInstance().isSimpleMode()) {
             return businessConfig;
         }
-        BusinessSpec businessSpec = TemplateRegister.getInstance().getBusinesses().stream()
-                .filter(p -> StringUtils.equals(p.getCode(), bizCode))
-                .findFirst().orElse(null);
-        if (null == businessConfig) {
+        BusinessSpec businessSpec = Lattice.getInstance().getRegisteredBusinessByCode(bizCode);
+        if (null == businessSpec) {
             businessSpec = new BusinessSpec();
             businessSpec.setCode(bizCode);
             businessSpec.setRemote(true);
             businessSpec.setName("Remote Business [" + bizCode + "]");
             TemplateIndex.getInstance().addTemplateIndex(businessSpec);
-            TemplateRegister.getInstance().getBusinesses().add(businessSpec);
+            TemplateRegister.getInstance().addBusiness(businessSpec);
         }
 
         Set<ExtensionSpec> remoteExtensionSet = Lattice.getInstance().getAllRegisteredAbilities().stream()
@@ -167,11 +161,8 @@ public class BaseLatticeAbilityDelegate {
             if (!Lattice.getInstance().isSimpleMode() && null == bizSessionContext) {
                 throw new LatticeRuntimeException("LATTICE-CORE-RT-0024", ability.getContext().getExtCode());
             }
-            List<TemplateSpec<? extends ITemplate>> effective = (null == bizSessionContext) ? Lists.newArrayList()
-                    : bizSessionContext.getEffectiveTemplates()
-                    .get(ability.getBizObject().getBizContext().toString());
-
-            if (effective.stream().noneMatch(p -> StringUtils.equals(p.getCode(), runner.getTemplate().getCode()))) {
+            if (null == bizSessionContext || !bizSessionContext.isTemplateEffective(
+                    ability.getContext().getBizObject().getBizContext(), runner.getTemplate())) {
                 continue;
             }
             effectiveRunners.add(runner);
@@ -199,11 +190,7 @@ public class BaseLatticeAbilityDelegate {
             return false;
         }
 
-        List<TemplateSpec<? extends ITemplate>> effective = bizSessionContext.getEffectiveTemplates().get(bizObject.getBizContext().toString());
-        if (effective.stream().noneMatch(p -> StringUtils.equals(p.getCode(), template.getCode()))) {
-            return false;
-        }
-        return true;
+        return bizSessionContext.isTemplateEffective(bizObject.getBizContext(), template);
     }
 
     private <R> List<RunnerItemEntry<R>> getCachedExtensionRunners(
@@ -214,63 +201,80 @@ public class BaseLatticeAbilityDelegate {
 
         boolean supportCustomization = ability.supportCustomization();
         boolean isHorizontal = !filter.isLoadBusinessExt();
-        LatticeRuntimeCache runtimeCache = Lattice.getInstance().getRuntimeCache();
         // cache
-        ExtensionRunnerCacheKey key = new ExtensionRunnerCacheKey(
-                extension.getCode(), bizCode, scenario, supportCustomization, isHorizontal);
+        long key = buildExtensionRunnerCacheKey(extension, bizCode, scenario, supportCustomization, isHorizontal);
+        // the remote runners capture the scenario, so the undeclared scenarios share no runners.
+        String undeclaredScenario = Lattice.getInstance().getRuntimeCache()
+                .getInvokeCache().isScenarioUndeclared(scenario) ? scenario : null;
 
-        Object result = AbilityCache.getInstance().getCachedExtensionRunner(ability.getClass(), key);
+        Object result = AbilityCache.getInstance().getCachedExtensionRunner(ability.getClass(), key, undeclaredScenario);
         if (result != null) {
             if (result == NULL_OBJECT) {
                 return null;
-            } else {
-                List<RunnerItemEntry<R>> runnerItemEntryList = (List<RunnerItemEntry<R>>) result;
-                runnerItemEntryList.forEach(r -> {
-                    r.setAbility(ability);
-                    r.getRunner().setAbility(ability);
-                });
             }
+            // the cached runners are shared among the threads, never modified.
+            return (List<RunnerItemEntry<R>>) result;
         }
 
-        ExtPriorityConfig priorityConfig = businessConfig.getExtensions().stream()
-                .filter(p -> StringUtils.equals(p.getExtCode(), extension.getCode()))
-                .findFirst().orElse(null);
-        if (null == priorityConfig) {
-            AbilityCache.getInstance().doCacheExtensionRunner(ability.getClass(), key, NULL_OBJECT);
+        // 从预编译的扩展点分发表中获取已解析好的模板
+        ExtensionDispatchTable.DispatchEntry dispatchEntry =
+                ExtensionDispatchTable.getInstance().getDispatchEntry(businessConfig, extension.getCode());
+        if (null == dispatchEntry) {
+            AbilityCache.getInstance().doCacheExtensionRunner(ability.getClass(), key, undeclaredScenario, NULL_OBJECT,
+                    bizCode, extension.getCode());
             return null;
         }
 
-        List<RunnerItemEntry<R>> extensionRunners = new ArrayList<>();
-        for (ExtPriority config : businessConfig.getExtPriorityByCode(extension.getCode(), isHorizontal)) {
-            if (null == config)
-                continue;
-            BizSessionContext bizSessionContext =
-                    InvokeCache.instance().get(BizSessionContext.class, BizSessionContext.class);
-            if (null == bizSessionContext) {
-                // 构建扩展点执行项
-                RunnerItemEntry<R> runnerItemEntry =
-                        buildExtensionRunnerItemEntry(extension, config, bizCode, scenario);
-                if (null != runnerItemEntry) {
-                    extensionRunners.add(runnerItemEntry);
-                }
-                continue;
-            }
-
-            if (config.getType().isHorizontal() && config.getType().needInstall()) {
-                if (!businessConfig.productInstalled(config.getCode())) {
-                    continue;
-                }
-            }
+        ExtensionDispatchTable.DispatchItem[] items = dispatchEntry.getItems(isHorizontal);
+        List<RunnerItemEntry<R>> extensionRunners = new ArrayList<>(items.length);
+        // the runners depend on the business, the extension and the dispatched templates.
+        String[] dependencies = new String[items.length + 2];
+        dependencies[0] = bizCode;
+        dependencies[1] = extension.getCode();
+        for (int i = 0; i < items.length; i++) {
+            dependencies[i + 2] = items[i].getTemplate().getCode();
+        }
+        for (ExtensionDispatchTable.DispatchItem item : items) {
+            // 构建扩展点执行项
             RunnerItemEntry<R> runnerItemEntry =
-                    buildExtensionRunnerItemEntry(extension, config, bizCode, scenario);
+                    buildExtensionRunnerItemEntry(extension, item.getTemplate(), bizCode, scenario);
             if (null != runnerItemEntry) {
                 extensionRunners.add(runnerItemEntry);
             }
         }
-        AbilityCache.getInstance().doCacheExtensionRunner(ability.getClass(), key, extensionRunners);
+        extensionRunners = Collections.unmodifiableList(extensionRunners);
+        AbilityCache.getInstance().doCacheExtensionRunner(ability.getClass(), key, undeclaredScenario,
+                extensionRunners, dependencies);
         return extensionRunners;
     }
 
+    private static long buildExtensionRunnerCacheKey(
+            ExtensionSpec extension, String bizCode, String scenario, boolean supportCustomization, boolean onlyProduct) {
+        LatticeRuntimeCache runtimeCache = Lattice.getInstance().getRuntimeCache();
+        Long bizCodeIndex = null == bizCode ? null :
+                runtimeCache.getTemplateIndex().getSecondKeyViaFirstKey(bizCode);
+        long scenarioIndex = runtimeCache.getInvokeCache().getScenarioIndexOrDefault(scenario);
+        if (null == bizCodeIndex) {
+            return ObjectCacheKeyEncoder.NO_INDEX;
+        }
+        return ObjectCacheKeyEncoder.encodeRunnerKey(extension.getInternalId(), bizCodeIndex,
+                scenarioIndex, supportCustomization, onlyProduct);
+    }
+
+    private static long buildExtensionInvokeCacheKey(String scenario, TemplateSpec template, String extCode) {
+        if (null == template || null == extCode) {
+            return ObjectCacheKeyEncoder.NO_INDEX;
+        }
+        LatticeRuntimeCache runtimeCache = Lattice.getInstance().getRuntimeCache();
+        Long templateIndex = template.getInternalId();
+        Long extCodeIndex = runtimeCache.getExtensionCache().getExtensionIndex().getSecondKeyViaFirstKey(extCode);
+        long scenarioIndex = runtimeCache.getInvokeCache().getScenarioIndexOrDefault(scenario);
+        if (null == templateIndex || null == extCodeIndex) {
+            return ObjectCacheKeyEncoder.NO_INDEX;
+        }
+        return ObjectCacheKeyEncoder.encodeInvokeKey(templateIndex, scenarioIndex, extCodeIndex);
+    }
+
     private <R> ExtensionRunner<R> buildRemoteExtensionRunner(
             TemplateSpec template, ExtensionSpec extension, String bizCode, String scenario) {
         if (!template.isRemote()) {
@@ -305,23 +309,11 @@ public class BaseLatticeAbilityDelegate {
     }
 
     private <R> RunnerItemEntry<R> buildExtensionRunnerItemEntry(
-            ExtensionSpec extension, ExtPriority config, String bizCode, String scenario) {
+            ExtensionSpec extension, TemplateSpec template, String bizCode, String scenario) {
 
         boolean supportCustomization = ability.supportCustomization();
 
         ExtensionRunner runner = null;
-        if (null == config) {
-            if (log.isInfoEnabled()) {
-                log.info(Message.code("LATTICE-CORE-RT-0013", extension.getCode(), bizCode).getText());
-            }
-            return null;
-        }
-        TemplateSpec template = config.getType().isVertical() ?
-                getBusinessSpec(config.getCode()) : getHorizontalTemplateSpec(config.getCode());
-        if (null == template) {
-            return null;
-        }
-
         if (supportCustomization) {
             if (extension.getProtocolType() == ProtocolType.REMOTE) {
                 // 构建远程扩展点执行器
@@ -393,34 +385,19 @@ public class BaseLatticeAbilityDelegate {
     }
 
     private BusinessSpec getBusinessSpec(String bizCode) {
-        return Lattice.getInstance().getAllRegisteredBusinesses().stream()
-                .filter(p -> StringUtils.equals(bizCode, p.getCode()))
-                .findFirst().orElse(null);
-    }
-
-    private TemplateSpec getHorizontalTemplateSpec(String code) {
-        TemplateSpec spec = Lattice.getInstance().getAllRegisteredProducts().stream()
-                .filter(p -> StringUtils.equals(code, p.getCode()))
-                .findFirst().orElse(null);
-        if (null != spec) {
-            return spec;
-        }
-        return Lattice.getInstance().getAllRegisteredUseCases().stream()
-                .filter(p -> StringUtils.equals(code, p.getCode()))
-                .findFirst().orElse(null);
+        return Lattice.getInstance().getRegisteredBusinessByCode(bizCode);
     }
 
     private IBusinessExt loadExtensionRealization(
             String bizCode, String scenario, TemplateSpec template, String extPointCode) {
 
-        ExtensionInvokeCacheKey cacheKey = null == template ? null :
-                new ExtensionInvokeCacheKey(scenario, template, extPointCode);
+        long cacheKey = buildExtensionInvokeCacheKey(scenario, template, extPointCode);
 
         return internalLoadExtensionRealization(cacheKey, bizCode, scenario, template, extPointCode);
     }
 
     private IBusinessExt internalLoadExtensionRealization(
-            ExtensionInvokeCacheKey cacheKey, String bizCode, String scenario, TemplateSpec template, String extPointCode) {
+            long cacheKey, String bizCode, String scenario, TemplateSpec template, String extPointCode) {
 
         IBusinessExt extImpl = ExtensionInvokeCache.getInstance().getCachedExtensionRealization(cacheKey);
         if (extImpl instanceof NotExistedRealization)
@@ -449,10 +426,12 @@ public class BaseLatticeAbilityDelegate {
         }
 
         if (null == extImpl) {
-            ExtensionInvokeCache.getInstance().doCacheExtensionRealization(cacheKey, new NotExistedRealization());
+            ExtensionInvokeCache.getInstance().doCacheExtensionRealization(cacheKey, new NotExistedRealization(),
+                    template.getCode(), extPointCode);
             return null;
         }
-        return ExtensionInvokeCache.getInstance().doCacheExtensionRealization(cacheKey, extImpl);
+        return ExtensionInvokeCache.getInstance().doCacheExtensionRealization(cacheKey, extImpl,
+                template.getCode(), extPointCode);
     }
 
     public IBusinessExt findIExtensionPointsFacadeViaScenario(String scenario, TemplateSpec template, String extPointCode) {
@@ -461,7 +440,9 @@ public class BaseLatticeAbilityDelegate {
         // 获取
         ITemplateCache templateCache = Lattice.getInstance().getRuntimeCache().getTemplateIndex();
 
-        List<RealizationSpec> realizationSpecs = Lattice.getInstance().getAllRegisteredRealizations();
+        // 只取扩展实现code（比如 business.a）跟模板code匹配的扩展实现（模板可以是业务、产品、）
+        List<RealizationSpec> realizationSpecs =
+                TemplateRegister.getInstance().getMatchedRealizations(template.getCode());
 
         if (StringUtils.isEmpty(scenario)) {
             for (RealizationSpec realization : realizationSpecs) {
@@ -472,8 +453,6 @@ public class BaseLatticeAbilityDelegate {
                 IBusinessExt facade = realization.getBusinessExt();
                 // 匹配
                 if (facade != null
-                        // 扩展实现的code（比如 business.a）跟模板code比较（模板可以是业务、产品、）
-                        && isCodeMatched(realization.getCode(), template.getCode())
                         // 扩展点实例中包含这个扩展点（一个实例中可以有多个扩展点）
                         && null != facade.getBusinessExtByCode(extPointCode, scenario)) {
                     extFacade = facade;
@@ -485,7 +464,6 @@ public class BaseLatticeAbilityDelegate {
                 if (StringUtils.equals(scenario, realization.getScenario())) {
                     IBusinessExt facade = realization.getBusinessExt();
                     if (facade != null
-                            && isCodeMatched(realization.getCode(), template.getCode())
                             && null != facade.getBusinessExtByCode(extPointCode, scenario)) {
                         extFacade = facade;
                         break;
@@ -499,7 +477,6 @@ public class BaseLatticeAbilityDelegate {
                     }
                     IBusinessExt facade = realization.getBusinessExt();
                     if (facade != null
-                            && isCodeMatched(realization.getCode(), template.getCode())
                             && null != facade.getBusinessExtByCode(extPointCode, scenario)) {
                         extFacade = facade;
                         break;
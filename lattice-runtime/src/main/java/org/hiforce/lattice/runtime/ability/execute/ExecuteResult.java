@@ -123,6 +123,7 @@ public class ExecuteResult<R> implements Serializable {
         status.setExecuted(executeResult.isExecute());
         status.setInvokeResults(executeResult.getResults());
         status.setType(executeResult.getRunnerType());
+        status.setError(executeResult.getError());
         return status;
     }
 }
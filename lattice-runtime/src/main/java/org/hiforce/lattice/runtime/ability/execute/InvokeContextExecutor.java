@@ -0,0 +1,65 @@
+package org.hiforce.lattice.runtime.ability.execute;
+
+import org.hiforce.lattice.cache.invoke.InvokeCache;
+import org.hiforce.lattice.model.context.BizSessionContext;
+import org.hiforce.lattice.runtime.LatticeSnapshot;
+
+import java.util.concurrent.Executor;
+
+/**
+ * Runs the tasks on the delegate executor, bound to the snapshot and the session captured from
+ * the invoking thread, e.g. the continuations of the asynchronous execution, which would otherwise
+ * run in the thread completing the runner (the remote client thread).
+ * <p>
+ * The task runs with its own {@link InvokeCache} holding the captured session, as the InvokeCache
+ * of the invoking thread is not thread-safe.
+ *
+ * @author Rocky Yu
+ * @since 2026/10/18
+ */
+public final class InvokeContextExecutor implements Executor {
+
+    private final Executor delegate;
+
+    private final LatticeSnapshot snapshot;
+
+    private final BizSessionContext sessionContext;
+
+    private InvokeContextExecutor(Executor delegate, LatticeSnapshot snapshot, BizSessionContext sessionContext) {
+        this.delegate = delegate;
+        this.snapshot = snapshot;
+        this.sessionContext = sessionContext;
+    }
+
+    /**
+     * @param delegate the executor to run the tasks.
+     * @return the executor bound to the snapshot and the session of current thread.
+     */
+    public static InvokeContextExecutor capture(Executor delegate) {
+        BizSessionContext sessionContext = InvokeCache.isThreadLocalInit() ?
+                InvokeCache.instance().get(BizSessionContext.class, BizSessionContext.class) : null;
+        return new InvokeContextExecutor(delegate, LatticeSnapshot.current(), sessionContext);
+    }
+
+    @Override
+    public void execute(Runnable task) {
+        delegate.execute(() -> LatticeSnapshot.runWith(snapshot, () -> runInSession(task)));
+    }
+
+    private void runInSession(Runnable task) {
+        if (InvokeCache.isThreadLocalInit()) {
+            // e.g. run by the invoking thread itself (CallerRunsPolicy), keeps its own session.
+            task.run();
+            return;
+        }
+        InvokeCache.initInvokeCache();
+        try {
+            if (null != sessionContext) {
+                InvokeCache.instance().put(BizSessionContext.class, BizSessionContext.class, sessionContext);
+            }
+            task.run();
+        } finally {
+            InvokeCache.forceClear();
+        }
+    }
+}
@@ -11,8 +11,13 @@ import org.hiforce.lattice.model.ability.execute.ExtensionCallback;
 import org.hiforce.lattice.model.ability.execute.Reducer;
 import org.hiforce.lattice.model.business.IBizObject;
 import org.hiforce.lattice.model.register.TemplateSpec;
+import org.hiforce.lattice.runtime.LatticeSnapshot;
 
 import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
+import java.util.function.Function;
 import java.util.function.Predicate;
 
 /**
@@ -26,6 +31,12 @@ public class RunnerCollection<R> {
     public static final Predicate ACCEPT_ALL = o -> true;
     public static final Producer PRODUCE_NULL = () -> null;
 
+    /**
+     * Marks the thread executing a parallel runner, the nested parallel execution
+     * falls back to sequential, so the executor threads never wait for each other.
+     */
+    private static final ThreadLocal<Boolean> PARALLEL_WORKER = new ThreadLocal<>();
+
     private IBizObject bizInstance;
 
     private List<RunnerItemEntry<R>> runnerList = Collections.emptyList();
@@ -40,6 +51,10 @@ public class RunnerCollection<R> {
 
     private boolean loadDefaultExtension;
 
+    private RunnerResultCache resultCacheScope;
+
+    private List<Object> invokeParams;
+
     private RunnerCollection() {
     }
 
@@ -178,7 +193,49 @@ public class RunnerCollection<R> {
         return output;
     }
 
+    /**
+     * Serve the results of the runners from the result cache, when executing this collection.
+     *
+     * @param scope the result cache of current invocation, null means not cached.
+     */
+    public RunnerCollection<R> withResultCache(RunnerResultCache scope) {
+        this.resultCacheScope = scope;
+        return this;
+    }
+
+    /**
+     * The arguments of current invocation, passed to the runners on each execution,
+     * as the runners are cached and shared among the invocations.
+     */
+    public RunnerCollection<R> withInvokeParams(List<Object> invokeParams) {
+        this.invokeParams = invokeParams;
+        return this;
+    }
+
+    private ExtensionRunner.CollectionRunnerExecuteResult newExecuteResult() {
+        ExtensionRunner.CollectionRunnerExecuteResult executeResult = new ExtensionRunner.CollectionRunnerExecuteResult();
+        executeResult.setInvokeParams(invokeParams);
+        return executeResult;
+    }
+
     public <T, R> ExecuteResult<R> reduceExecute(String extCode, Reducer<T, R> reducer, ExtensionCallback<IBusinessExt, T> callback, List<T> results) {
+        return doReduceExecute(null, extCode, reducer, callback, results);
+    }
+
+    /**
+     * Execute the collected runners for another business object, which shares the same
+     * bizCode, scenario and effective templates with the business object the runners collected for.
+     * The collected runners are reused, so the collection can be executed for a batch of business objects.
+     *
+     * @param bizInstance the business object to execute for.
+     */
+    public <T, R> ExecuteResult<R> reduceExecute(IBizObject bizInstance, String extCode, Reducer<T, R> reducer,
+                                                 ExtensionCallback<IBusinessExt, T> callback, List<T> results) {
+        return doReduceExecute(bizInstance, extCode, reducer, callback, results);
+    }
+
+    private <T, R> ExecuteResult<R> doReduceExecute(IBizObject target, String extCode, Reducer<T, R> reducer, ExtensionCallback<IBusinessExt, T> callback, List<T> results) {
+        IBizObject bizInstance = null == target ? this.bizInstance : target;
         List<InstantItem<T>> list = this.generateInstantItem();
         if (list.isEmpty()) {
             return ExecuteResult.success(bizInstance.getBizCode(), extCode, reducer.reduceName(), reducer.reduce(results), null, null);
@@ -186,8 +243,8 @@ public class RunnerCollection<R> {
 
         List<ExtensionRunner.CollectionRunnerExecuteResult> executeResults = new ArrayList<>(list.size() * 2);
         for (InstantItem<T> item : list) {
-            ExtensionRunner.CollectionRunnerExecuteResult executeResult = new ExtensionRunner.CollectionRunnerExecuteResult();
-            List<T> itemResult = item.runAllMatched(callback, executeResult);
+            ExtensionRunner.CollectionRunnerExecuteResult executeResult = newExecuteResult();
+            List<T> itemResult = runItem(item, null == target ? item.bizObject : target, callback, executeResult);
             executeResult.setResults(itemResult);
             executeResults.add(executeResult);
             if (reducer.willBreak(itemResult)) {
@@ -205,6 +262,219 @@ public class RunnerCollection<R> {
                 reducer.reduce(results), convertToTemplateList(list), executeResults);
     }
 
+    /**
+     * Execute the runners concurrently on the executor, the first runner is executed in current thread.
+     * The results are reduced in the priority order of the runners. A failed runner is logged and reported
+     * in its execute result, and the others are still reduced.
+     * Should only be used with the reducer which never breaks, see {@link Reducer#mayBreak()}.
+     * The runners are executed without the invoke cache of current thread, on the snapshot of current thread.
+     *
+     * @param executor the executor of the runners.
+     */
+    public <T, R> ExecuteResult<R> reduceExecuteParallel(String extCode, Reducer<T, R> reducer,
+                                                         ExtensionCallback<IBusinessExt, T> callback,
+                                                         List<T> results, Executor executor) {
+        List<InstantItem<T>> list = this.generateInstantItem();
+        if (list.size() <= 1 || reducer.mayBreak() || Boolean.TRUE.equals(PARALLEL_WORKER.get())) {
+            return doReduceExecute(null, extCode, reducer, callback, results);
+        }
+
+        // 工作线程使用与当前调用相同的快照
+        LatticeSnapshot snapshot = LatticeSnapshot.current();
+        List<ExtensionRunner.CollectionRunnerExecuteResult> executeResults = new ArrayList<>(list.size());
+        List<CompletableFuture<List<T>>> futures = new ArrayList<>(list.size());
+        for (int i = 0; i < list.size(); i++) {
+            InstantItem<T> item = list.get(i);
+            ExtensionRunner.CollectionRunnerExecuteResult executeResult = newExecuteResult();
+            executeResults.add(executeResult);
+            if (i > 0) {
+                futures.add(CompletableFuture.supplyAsync(() -> LatticeSnapshot.supplyWith(snapshot,
+                        () -> runAsWorker(item, callback, executeResult)), executor));
+            }
+        }
+        List<T> firstResult = null;
+        Throwable firstError = null;
+        try {
+            firstResult = runAsWorker(list.get(0), callback, executeResults.get(0));
+        } catch (Throwable th) {
+            firstError = th;
+        }
+        collectParallelResult(extCode, list.get(0), executeResults.get(0), firstResult, firstError, results);
+        for (int i = 1; i < list.size(); i++) {
+            List<T> itemResult = null;
+            Throwable error = null;
+            try {
+                itemResult = futures.get(i - 1).join();
+            } catch (CompletionException ex) {
+                error = null == ex.getCause() ? ex : ex.getCause();
+            } catch (Throwable th) {
+                error = th;
+            }
+            collectParallelResult(extCode, list.get(i), executeResults.get(i), itemResult, error, results);
+        }
+        return ExecuteResult.success(this.bizInstance.getBizCode(), extCode, reducer.reduceName(),
+                reducer.reduce(results), convertToTemplateList(list), executeResults);
+    }
+
+    /**
+     * Execute the runners asynchronously, the results are folded as the runners complete.
+     * If the reducer may break, the runners are chained in the priority order, and the next runner
+     * is started only when the previous one does not break, so the future completes early
+     * (e.g. FirstOf, AnyMatch). Otherwise all the runners are started at once.
+     * The continuations of a pending runner run on the executor, bound to the snapshot and the session
+     * of current thread, never in the thread which completes the runner (e.g. the remote client thread).
+     *
+     * @param executor the executor of the continuations.
+     */
+    public <T, R> CompletableFuture<ExecuteResult<R>> reduceExecuteAsync(String extCode, Reducer<T, R> reducer,
+                                                                         ExtensionCallback<IBusinessExt, T> callback,
+                                                                         List<T> results, Executor executor) {
+        Executor continuation = InvokeContextExecutor.capture(executor);
+        List<InstantItem<T>> list = this.generateInstantItem();
+        String bizCode = this.bizInstance.getBizCode();
+        if (list.isEmpty()) {
+            return CompletableFuture.completedFuture(ExecuteResult.success(bizCode, extCode, reducer.reduceName(),
+                    reducer.reduce(results), null, null));
+        }
+        List<ExtensionRunner.CollectionRunnerExecuteResult> executeResults = new ArrayList<>(list.size());
+        if (reducer.mayBreak()) {
+            return chainAsync(0, list, bizCode, extCode, reducer, callback, results, executeResults, continuation);
+        }
+        List<CompletableFuture<List<T>>> futures = new ArrayList<>(list.size());
+        for (InstantItem<T> item : list) {
+            ExtensionRunner.CollectionRunnerExecuteResult executeResult = newExecuteResult();
+            executeResults.add(executeResult);
+            futures.add(runItemAsync(item, callback, executeResult));
+        }
+        CompletableFuture<Void> all = CompletableFuture.allOf(futures.toArray(new CompletableFuture[0]));
+        Function<Void, ExecuteResult<R>> reduce = v -> {
+            for (int i = 0; i < futures.size(); i++) {
+                List<T> itemResult = futures.get(i).join();
+                executeResults.get(i).setResults(itemResult);
+                results.addAll(itemResult);
+            }
+            return ExecuteResult.success(bizCode, extCode, reducer.reduceName(),
+                    reducer.reduce(results), convertToTemplateList(list), executeResults);
+        };
+        return all.isDone() ? all.thenApply(reduce) : all.thenApplyAsync(reduce, continuation);
+    }
+
+    private <T, R> CompletableFuture<ExecuteResult<R>> chainAsync(
+            int index, List<InstantItem<T>> list, String bizCode, String extCode, Reducer<T, R> reducer,
+            ExtensionCallback<IBusinessExt, T> callback, List<T> results,
+            List<ExtensionRunner.CollectionRunnerExecuteResult> executeResults, Executor continuation) {
+        if (index >= list.size()) {
+            return CompletableFuture.completedFuture(ExecuteResult.success(bizCode, extCode, reducer.reduceName(),
+                    reducer.reduce(results), convertToTemplateList(list), executeResults));
+        }
+        InstantItem<T> item = list.get(index);
+        ExtensionRunner.CollectionRunnerExecuteResult executeResult = newExecuteResult();
+        executeResults.add(executeResult);
+        CompletableFuture<List<T>> future = runItemAsync(item, callback, executeResult);
+        Function<List<T>, CompletableFuture<ExecuteResult<R>>> next = itemResult -> {
+            executeResult.setResults(itemResult);
+            if (reducer.willBreak(itemResult)) {
+                return CompletableFuture.completedFuture(ExecuteResult.success(bizCode, extCode, reducer.reduceName(),
+                        reducer.reduce(itemResult), convertToTemplateList(list), executeResults));
+            }
+            results.addAll(itemResult);
+            return chainAsync(index + 1, list, bizCode, extCode, reducer, callback, results, executeResults,
+                    continuation);
+        };
+        // 已完成的runner（如本地runner）在当前线程继续，否则在continuation线程中继续，
+        // 不占用完成runner的线程（如远程调用的IO线程）
+        return future.isDone() ? future.thenCompose(next) : future.thenComposeAsync(next, continuation);
+    }
+
+    private <T> List<T> runItem(InstantItem<T> item, IBizObject bizObject, ExtensionCallback<IBusinessExt, T> callback,
+                                ExtensionRunner.CollectionRunnerExecuteResult executeResult) {
+        RunnerResultCache scope = this.resultCacheScope;
+        if (null == scope) {
+            return item.runAllMatched(bizObject, callback, executeResult);
+        }
+        List<T> cached = getCachedResult(scope, item, executeResult);
+        if (null != cached) {
+            return cached;
+        }
+        List<T> itemResult = item.runAllMatched(bizObject, callback, executeResult);
+        cacheResult(scope, item, executeResult, itemResult);
+        return itemResult;
+    }
+
+    private <T> CompletableFuture<List<T>> runItemAsync(InstantItem<T> item, ExtensionCallback<IBusinessExt, T> callback,
+                                                        ExtensionRunner.CollectionRunnerExecuteResult executeResult) {
+        RunnerResultCache scope = this.resultCacheScope;
+        if (null == scope) {
+            return item.runAllMatchedAsync(item.bizObject, callback, executeResult);
+        }
+        List<T> cached = getCachedResult(scope, item, executeResult);
+        if (null != cached) {
+            return CompletableFuture.completedFuture(cached);
+        }
+        return item.runAllMatchedAsync(item.bizObject, callback, executeResult)
+                .whenComplete((itemResult, ex) -> {
+                    if (null == ex) {
+                        cacheResult(scope, item, executeResult, itemResult);
+                    }
+                });
+    }
+
+    private <T> List<T> getCachedResult(RunnerResultCache scope, InstantItem<T> item,
+                                        ExtensionRunner.CollectionRunnerExecuteResult executeResult) {
+        RunnerResultCache.CachedResult cached = scope.get(item.runnerItemEntry.getTemplate(),
+                item.runnerItemEntry.getRunnerType());
+        if (null == cached) {
+            return null;
+        }
+        executeResult.setExecute(true);
+        executeResult.setRunnerType(cached.getRunnerType());
+        return (List<T>) cached.getResults();
+    }
+
+    private <T> void cacheResult(RunnerResultCache scope, InstantItem<T> item,
+                                 ExtensionRunner.CollectionRunnerExecuteResult executeResult, List<T> itemResult) {
+        // the runner not executed, or the remote runner failed silently.
+        if (!executeResult.isExecute() || null == itemResult || itemResult.stream().allMatch(Objects::isNull)) {
+            return;
+        }
+        scope.put(item.runnerItemEntry.getTemplate(), item.runnerItemEntry.getRunnerType(), itemResult);
+    }
+
+    private <T> List<T> runAsWorker(InstantItem<T> item, ExtensionCallback<IBusinessExt, T> callback,
+                                    ExtensionRunner.CollectionRunnerExecuteResult executeResult) {
+        Boolean worker = PARALLEL_WORKER.get();
+        PARALLEL_WORKER.set(Boolean.TRUE);
+        try {
+            return runItem(item, item.bizObject, callback, executeResult);
+        } finally {
+            if (null == worker) {
+                PARALLEL_WORKER.remove();
+            }
+        }
+    }
+
+    private <T> void collectParallelResult(String extCode, InstantItem<T> item,
+                                           ExtensionRunner.CollectionRunnerExecuteResult executeResult,
+                                           List<T> itemResult, Throwable error, List<T> results) {
+        if (error instanceof Error) {
+            throw (Error) error;
+        }
+        if (null != error) {
+            TemplateSpec template = item.runnerItemEntry.getTemplate();
+            log.error("[Lattice] parallel runner failed, extCode: {}, template: {}, error: {}",
+                    extCode, null == template ? null : template.getCode(), error.getMessage());
+            executeResult.setError(error);
+            executeResult.setResults(Collections.emptyList());
+            return;
+        }
+        executeResult.setResults(itemResult);
+        if (itemResult.size() == 1) {
+            results.add(itemResult.get(0));
+        } else {
+            results.addAll(itemResult);
+        }
+    }
+
     private <T> List<TemplateSpec> convertToTemplateList(List<InstantItem<T>> list) {
         List<TemplateSpec> templates = new ArrayList<>(list.size());
         list.forEach(p -> templates.add(p.runnerItemEntry.getTemplate()));
@@ -225,15 +495,32 @@ public class RunnerCollection<R> {
         }
 
         @SuppressWarnings("unchecked")
-        public List<R> runAllMatched(
+        public List<R> runAllMatched(IBizObject bizObject,
                 ExtensionCallback<IBusinessExt, R> callback, ExtensionRunner.RunnerExecuteResult result) {
             RunnerItemEntry<R> entry = this.runnerItemEntry;
             try {
-                return entry.getRunner().runAllMatched(this.bizObject, callback, result);
+                return entry.getRunner().runAllMatched(bizObject, callback, result);
             } catch (Exception ex) {
                 log.error(ex.getMessage(), ex);
                 throw ex;
             }
         }
+
+        public CompletableFuture<List<R>> runAllMatchedAsync(IBizObject bizObject,
+                ExtensionCallback<IBusinessExt, R> callback, ExtensionRunner.RunnerExecuteResult result) {
+            RunnerItemEntry<R> entry = this.runnerItemEntry;
+            CompletableFuture<List<R>> future;
+            try {
+                future = entry.getRunner().runAllMatchedAsync(bizObject, callback, result);
+            } catch (Exception ex) {
+                future = new CompletableFuture<>();
+                future.completeExceptionally(ex);
+            }
+            return future.whenComplete((r, ex) -> {
+                if (null != ex) {
+                    log.error(ex.getMessage(), ex);
+                }
+            });
+        }
     }
 }
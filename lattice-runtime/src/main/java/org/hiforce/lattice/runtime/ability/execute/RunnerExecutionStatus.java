@@ -32,4 +32,11 @@ public class RunnerExecutionStatus {
     @Getter
     @Setter
     private ExtensionRunnerType type;
+
+    /**
+     * The failure of the runner executed in parallel.
+     */
+    @Getter
+    @Setter
+    private Throwable error;
 }
@@ -0,0 +1,46 @@
+package org.hiforce.lattice.runtime.ability.execute;
+
+import lombok.Getter;
+import org.hiforce.lattice.extension.ExtensionRunnerType;
+import org.hiforce.lattice.model.register.TemplateSpec;
+
+import java.util.List;
+
+/**
+ * The cache of the runner results of one invocation, consulted by the {@link RunnerCollection}
+ * before executing a runner, the cached results are still reduced by the reducer of the invocation.
+ *
+ * @author Rocky Yu
+ * @since 2026/10/18
+ */
+@SuppressWarnings("rawtypes")
+public interface RunnerResultCache {
+
+    /**
+     * @param template   the template of the runner.
+     * @param runnerType the type of the runner.
+     * @return the cached results of the runner, or null.
+     */
+    CachedResult get(TemplateSpec template, ExtensionRunnerType runnerType);
+
+    /**
+     * @param template   the template of the runner.
+     * @param runnerType the type of the runner.
+     * @param results    the results of the runner.
+     */
+    void put(TemplateSpec template, ExtensionRunnerType runnerType, List<?> results);
+
+    final class CachedResult {
+
+        @Getter
+        private final ExtensionRunnerType runnerType;
+
+        @Getter
+        private final List<?> results;
+
+        public CachedResult(ExtensionRunnerType runnerType, List<?> results) {
+            this.runnerType = runnerType;
+            this.results = results;
+        }
+    }
+}
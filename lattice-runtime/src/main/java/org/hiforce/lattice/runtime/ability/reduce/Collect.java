@@ -31,6 +31,11 @@ public class Collect<T> extends Reducer<T, List<T>> {
         return false;
     }
 
+    @Override
+    public boolean mayBreak() {
+        return false;
+    }
+
     @Override
     public ReduceType reducerType() {
         return ReduceType.ALL;
@@ -32,6 +32,11 @@ public class FlatMap<K, V> extends Reducer<Map<K, V>, Map<K, V>> {
         return false;
     }
 
+    @Override
+    public boolean mayBreak() {
+        return false;
+    }
+
     @Override
     public ReduceType reducerType() {
         return ReduceType.ALL;
@@ -23,6 +23,11 @@ public class None<T> extends Reducer<T, List<T>> {
         return false;
     }
 
+    @Override
+    public boolean mayBreak() {
+        return false;
+    }
+
     @Override
     public ReduceType reducerType() {
         return ReduceType.NONE;
@@ -249,9 +249,15 @@ public class AbilityRegister {
         if (null == annotation)
             return null;
 
-        return buildExtensionPointSpec(abilitySpec, annotation.getCode(),
+        ExtensionSpec extensionSpec = buildExtensionPointSpec(abilitySpec, annotation.getCode(),
                 annotation.getName(), annotation.getDesc(), itfClass, method,
                 annotation.getReduceType(), annotation.getProtocolType());
+        extensionSpec.setParallel(annotation.isParallel());
+        extensionSpec.setCacheable(annotation.isCacheable());
+        extensionSpec.setCacheTtl(annotation.getCacheTtl());
+        extensionSpec.setCacheSize(annotation.getCacheSize());
+        extensionSpec.setSessionMemoized(annotation.isSessionMemoized());
+        return extensionSpec;
     }
 
     private ExtensionSpec buildExtensionPointSpec(AbilitySpec abilitySpec, String extensionCode,
@@ -0,0 +1,127 @@
+package org.hiforce.lattice.runtime.ability.register;
+
+import org.apache.commons.lang3.StringUtils;
+import org.hiforce.lattice.model.register.BaseSpec;
+
+import java.util.AbstractList;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.RandomAccess;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Predicate;
+
+/**
+ * The registered spec list with a hash index on the code, every modification
+ * of the list keeps the index in sync, so the lookup by code is O(1).
+ * The index points to the first spec with the code, the same as a linear scan does.
+ *
+ * @author Rocky Yu
+ * @since 2026/10/18
+ */
+public class IndexedSpecList<V extends BaseSpec> extends AbstractList<V> implements RandomAccess {
+
+    private final List<V> elements = new ArrayList<>();
+
+    private final Map<String, V> codeIndex = new ConcurrentHashMap<>(120);
+
+    /**
+     * @param code the code of the spec.
+     * @return the first registered spec with the code, or null.
+     */
+    public V getByCode(String code) {
+        if (null == code) {
+            return null;
+        }
+        return codeIndex.get(code);
+    }
+
+    public boolean containsCode(String code) {
+        return null != getByCode(code);
+    }
+
+    @Override
+    public V get(int index) {
+        return elements.get(index);
+    }
+
+    @Override
+    public int size() {
+        return elements.size();
+    }
+
+    @Override
+    public void add(int index, V element) {
+        elements.add(index, element);
+        if (index == elements.size() - 1) {
+            if (null != element && null != element.getCode()) {
+                codeIndex.putIfAbsent(element.getCode(), element);
+            }
+        } else {
+            reindex(element);
+        }
+    }
+
+    @Override
+    public V set(int index, V element) {
+        V old = elements.set(index, element);
+        reindex(old);
+        reindex(element);
+        return old;
+    }
+
+    @Override
+    public V remove(int index) {
+        V old = elements.remove(index);
+        reindex(old);
+        return old;
+    }
+
+    @Override
+    public boolean removeIf(Predicate<? super V> filter) {
+        boolean removed = elements.removeIf(filter);
+        if (removed) {
+            rebuildIndex();
+        }
+        return removed;
+    }
+
+    @Override
+    public void sort(Comparator<? super V> c) {
+        elements.sort(c);
+        rebuildIndex();
+    }
+
+    @Override
+    public void clear() {
+        elements.clear();
+        codeIndex.clear();
+    }
+
+    private void reindex(V element) {
+        if (null == element || null == element.getCode()) {
+            return;
+        }
+        String code = element.getCode();
+        V first = elements.stream().filter(p -> null != p && StringUtils.equals(code, p.getCode()))
+                .findFirst().orElse(null);
+        if (null == first) {
+            codeIndex.remove(code);
+        } else {
+            codeIndex.put(code, first);
+        }
+    }
+
+    private void rebuildIndex() {
+        Map<String, V> firstElements = new HashMap<>(elements.size() * 2);
+        for (V element : elements) {
+            if (null != element && null != element.getCode()) {
+                firstElements.putIfAbsent(element.getCode(), element);
+            }
+        }
+        codeIndex.keySet().retainAll(firstElements.keySet());
+        codeIndex.putAll(firstElements);
+    }
+}
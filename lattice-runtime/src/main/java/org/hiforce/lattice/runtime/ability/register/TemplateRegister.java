@@ -10,14 +10,16 @@ import org.hiforce.lattice.model.ability.IBusinessExt;
 import org.hiforce.lattice.model.business.BusinessTemplate;
 import org.hiforce.lattice.model.register.*;
 import org.hiforce.lattice.model.scenario.ScenarioRequest;
+import org.hiforce.lattice.runtime.LatticeSnapshot;
 import org.hiforce.lattice.runtime.cache.index.TemplateIndex;
-import org.hiforce.lattice.utils.BizCodeUtils;
+import org.hiforce.lattice.utils.BizCodeMatcher;
 import org.hiforce.lattice.utils.BusinessExtUtils;
 
 import java.lang.reflect.Method;
 import java.util.Comparator;
 import java.util.List;
 import java.util.Set;
+import java.util.concurrent.atomic.AtomicLong;
 import java.util.stream.Collectors;
 
 import static org.hiforce.lattice.utils.LatticeAnnotationUtils.*;
@@ -27,38 +29,70 @@ import static org.hiforce.lattice.utils.LatticeAnnotationUtils.*;
  * @since 2022/9/18
  */
 // Spec的业务语义是啥？
-public class TemplateRegister {
+public class TemplateRegister implements LatticeSnapshot.Copyable<TemplateRegister> {
 
-    private static TemplateRegister instance;
+    @Getter
+    private final IndexedSpecList<RealizationSpec> realizations = new IndexedSpecList<>();
 
     @Getter
-    private final List<RealizationSpec> realizations = Lists.newArrayList();
+    private final IndexedSpecList<ProductSpec> products = new IndexedSpecList<>();
 
     @Getter
-    private final List<ProductSpec> products = Lists.newArrayList();
+    private final IndexedSpecList<UseCaseSpec> useCases = new IndexedSpecList<>();
 
     @Getter
-    private final List<UseCaseSpec> useCases = Lists.newArrayList();
+    private final IndexedSpecList<BusinessSpec> businesses = new IndexedSpecList<>();
+
+    private final BizCodeMatcher<RealizationSpec> realizationMatcher = new BizCodeMatcher<>();
 
+    private static final AtomicLong REALIZATION_VERSION_SEQUENCE = new AtomicLong();
+
+    /**
+     * Renewed on every change of the registered realizations, so the indexes built
+     * over the realizations can detect whether they are stale. The versions are unique
+     * among the snapshots.
+     */
     @Getter
-    private final List<BusinessSpec> businesses = Lists.newArrayList();
+    private volatile long realizationVersion = REALIZATION_VERSION_SEQUENCE.incrementAndGet();
 
     private TemplateRegister() {
 
     }
 
     public static TemplateRegister getInstance() {
-        if (null == instance) {
-            instance = new TemplateRegister();
+        return LatticeSnapshot.current().getComponent(TemplateRegister.class, TemplateRegister::new);
+    }
+
+    /**
+     * The specs are shared by the copy, only the registered lists are copied.
+     */
+    @Override
+    public synchronized TemplateRegister copy() {
+        TemplateRegister register = new TemplateRegister();
+        synchronized (TemplateRegister.class) {
+            register.realizations.addAll(realizations);
+            realizations.forEach(p -> register.realizationMatcher.add(p.getCode(), p));
+            register.realizationVersion = realizationVersion;
+            register.products.addAll(products);
+            register.useCases.addAll(useCases);
+            register.businesses.addAll(businesses);
         }
-        return instance;
+        return register;
     }
 
     public BusinessTemplate getFirstMatchedBusiness(ScenarioRequest request) {
-        return businesses.stream()
-                .map(BusinessSpec::newInstance)
-                .filter(p -> p.isEffect(request))
-                .findFirst().orElse(null);
+        for (BusinessSpec spec : businesses) {
+            BusinessTemplate template = spec.borrowInstance();
+            if (null == template) {
+                continue;
+            }
+            if (template.isEffect(request)) {
+                // the matched instance is handed out, not returned to the pool.
+                return template;
+            }
+            spec.returnInstance(template);
+        }
+        return null;
     }
 
     @SuppressWarnings("rawtypes")
@@ -76,9 +110,7 @@ public class TemplateRegister {
                 businessSpec.setName(annotation.getName());
                 businessSpec.setDescription(annotation.getDesc());
                 businessSpec.setPriority(annotation.getPriority());
-                businessSpec.getRealizations().addAll(realizations.stream()
-                        .filter(p -> BizCodeUtils.isCodesMatched(p.getCode(), businessSpec.getCode()))
-                        .collect(Collectors.toList()));
+                businessSpec.getRealizations().addAll(getMatchedRealizations(businessSpec.getCode()));
                 TemplateIndex.getInstance().addTemplateIndex(businessSpec);
                 businesses.add(businessSpec);
                 businessSpecs.add(businessSpec);
@@ -149,6 +181,11 @@ public class TemplateRegister {
         spec.setCode(annotation.getCode());
         spec.setName(StringUtils.isEmpty(annotation.getName()) ? invokeMethod.getName() : annotation.getName());
         spec.setReduceType(annotation.getReduceType());
+        spec.setParallel(annotation.isParallel());
+        spec.setCacheable(annotation.isCacheable());
+        spec.setCacheTtl(annotation.getCacheTtl());
+        spec.setCacheSize(annotation.getCacheSize());
+        spec.setSessionMemoized(annotation.isSessionMemoized());
         spec.setDescription(annotation.getDesc());
         return spec;
     }
@@ -182,34 +219,104 @@ public class TemplateRegister {
     @SuppressWarnings("rawtypes")
     public synchronized List<RealizationSpec> registerRealizations(Set<Class> classSet) {
         List<RealizationSpec> realizationSpecs = Lists.newArrayList();
-        synchronized (TemplateRegister.class) {
-            for (Class clz : classSet) {
-                RealizationAnnotation annotation = getRealizationAnnotation(clz);
-                if (null == annotation) {
-                    continue;
-                }
-                for (String code : annotation.getCodes()) {
-                    RealizationSpec spec = new RealizationSpec();
-                    spec.setCode(code);
-                    spec.setScenario(annotation.getScenario());
-                    spec.setBusinessExtClass(annotation.getBusinessExtClass());
-                    try {
-                        spec.setBusinessExt(annotation.getBusinessExtClass().newInstance());
-                    } catch (Exception e) {
-                        throw new LatticeRuntimeException("LATTICE-CORE-RT-0005", clz.getName());
-                    }
-                    spec.getExtensionCodes().addAll(BusinessExtUtils.supportedExtCodes(spec.getBusinessExt()));
-                    realizations.add(spec);
-                    realizationSpecs.add(spec);
-                }
+        for (Class clz : classSet) {
+            realizationSpecs.addAll(buildRealizations(clz));
+        }
+        addRealizations(realizationSpecs);
+        return realizationSpecs;
+    }
+
+    /**
+     * Build the realizations of the class without registering them, so the classes can be parsed in parallel.
+     *
+     * @param clz the class of the BusinessExt.
+     * @return one realization for each code of the class, or empty if not annotated.
+     */
+    @SuppressWarnings("rawtypes")
+    public static List<RealizationSpec> buildRealizations(Class clz) {
+        List<RealizationSpec> realizationSpecs = Lists.newArrayList();
+        RealizationAnnotation annotation = getRealizationAnnotation(clz);
+        if (null == annotation) {
+            return realizationSpecs;
+        }
+        for (String code : annotation.getCodes()) {
+            RealizationSpec spec = new RealizationSpec();
+            spec.setCode(code);
+            spec.setScenario(annotation.getScenario());
+            spec.setBusinessExtClass(annotation.getBusinessExtClass());
+            try {
+                spec.setBusinessExt(annotation.getBusinessExtClass().newInstance());
+            } catch (Exception e) {
+                throw new LatticeRuntimeException("LATTICE-CORE-RT-0005", clz.getName());
             }
+            spec.getExtensionCodes().addAll(BusinessExtUtils.supportedExtCodes(spec.getBusinessExt()));
+            realizationSpecs.add(spec);
         }
         return realizationSpecs;
     }
 
+    /**
+     * @param realizationSpecs the realizations built by {@link #buildRealizations(Class)}, registered in order.
+     */
+    public synchronized void addRealizations(List<RealizationSpec> realizationSpecs) {
+        synchronized (TemplateRegister.class) {
+            for (RealizationSpec spec : realizationSpecs) {
+                realizations.add(spec);
+                realizationMatcher.add(spec.getCode(), spec);
+            }
+            realizationVersion = REALIZATION_VERSION_SEQUENCE.incrementAndGet();
+        }
+    }
+
+    /**
+     * @param code the code of the template.
+     * @return the realizations whose (wildcard) code matches the template code, in the registering order.
+     */
+    public List<RealizationSpec> getMatchedRealizations(String code) {
+        return realizationMatcher.match(code);
+    }
+
+    public synchronized void addBusiness(BusinessSpec businessSpec) {
+        synchronized (TemplateRegister.class) {
+            businesses.add(businessSpec);
+        }
+    }
+
+    public synchronized void addProduct(ProductSpec productSpec) {
+        synchronized (TemplateRegister.class) {
+            products.add(productSpec);
+            products.sort(Comparator.comparingInt(ProductSpec::getPriority));
+        }
+    }
+
+    public synchronized void removeBusiness(String code) {
+        synchronized (TemplateRegister.class) {
+            businesses.removeIf(p -> StringUtils.equals(p.getCode(), code));
+        }
+    }
+
+    public synchronized void removeProduct(String code) {
+        synchronized (TemplateRegister.class) {
+            products.removeIf(p -> StringUtils.equals(p.getCode(), code));
+        }
+    }
+
+    public synchronized void removeRealizations(String code) {
+        synchronized (TemplateRegister.class) {
+            if (!realizations.removeIf(p -> StringUtils.equals(p.getCode(), code))) {
+                return;
+            }
+            realizationMatcher.clear();
+            realizations.forEach(p -> realizationMatcher.add(p.getCode(), p));
+            realizationVersion = REALIZATION_VERSION_SEQUENCE.incrementAndGet();
+        }
+    }
+
     public synchronized void clear() {
         synchronized (TemplateRegister.class) {
             realizations.clear();
+            realizationMatcher.clear();
+            realizationVersion = REALIZATION_VERSION_SEQUENCE.incrementAndGet();
             products.clear();
             useCases.clear();
             businesses.clear();
@@ -0,0 +1,69 @@
+package org.hiforce.lattice.runtime.cache;
+
+import org.apache.commons.lang3.StringUtils;
+
+import java.util.Collections;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * The inverted index from the template and extension codes to the keys of the cached entries
+ * derived from them, so the change of one code evicts only the affected entries.
+ * <p>
+ * A key evicted via one code may be still indexed by its other codes, it only leads
+ * to a no-op removal later.
+ *
+ * @author Rocky Yu
+ * @since 2026/10/18
+ */
+public class CacheDependencyIndex {
+
+    private final Map<String, Set<Long>> KEYS_BY_CODE = new ConcurrentHashMap<>(120);
+
+    /**
+     * @param key   the key of the cached entry.
+     * @param codes the template and extension codes which the entry is derived from.
+     */
+    public void record(long key, String... codes) {
+        for (String code : codes) {
+            if (StringUtils.isEmpty(code)) {
+                continue;
+            }
+            Set<Long> keys = KEYS_BY_CODE.get(code);
+            if (null == keys) {
+                keys = KEYS_BY_CODE.computeIfAbsent(code, k -> ConcurrentHashMap.newKeySet());
+            }
+            keys.add(key);
+        }
+    }
+
+    /**
+     * @param code the template or extension code.
+     * @return the keys of the entries derived from the code, which are removed from the index.
+     */
+    public Set<Long> remove(String code) {
+        if (null == code) {
+            return Collections.emptySet();
+        }
+        Set<Long> keys = KEYS_BY_CODE.remove(code);
+        return null == keys ? Collections.emptySet() : keys;
+    }
+
+    /**
+     * @return the copy of the index, with its own key sets.
+     */
+    public CacheDependencyIndex copy() {
+        CacheDependencyIndex index = new CacheDependencyIndex();
+        KEYS_BY_CODE.forEach((code, keys) -> {
+            Set<Long> copied = ConcurrentHashMap.newKeySet();
+            copied.addAll(keys);
+            index.KEYS_BY_CODE.put(code, copied);
+        });
+        return index;
+    }
+
+    public void clear() {
+        KEYS_BY_CODE.clear();
+    }
+}
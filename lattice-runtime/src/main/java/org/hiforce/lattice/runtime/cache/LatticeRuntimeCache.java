@@ -1,19 +1,26 @@
 package org.hiforce.lattice.runtime.cache;
 
 import com.google.auto.service.AutoService;
-import lombok.Getter;
-import org.apache.commons.lang3.StringUtils;
 import org.hiforce.lattice.cache.ILatticeRuntimeCache;
+import org.hiforce.lattice.model.register.RealizationSpec;
 import org.hiforce.lattice.runtime.ability.cache.AbilityInstCache;
 import org.hiforce.lattice.runtime.ability.cache.BusinessExtCache;
 import org.hiforce.lattice.runtime.ability.register.TemplateRegister;
 import org.hiforce.lattice.runtime.cache.ability.AbilityCache;
 import org.hiforce.lattice.runtime.cache.config.BusinessConfigCache;
+import org.hiforce.lattice.runtime.cache.dispatch.ExtensionDispatchTable;
 import org.hiforce.lattice.runtime.cache.exension.ExtensionCache;
 import org.hiforce.lattice.runtime.cache.exension.ExtensionInvokeCache;
+import org.hiforce.lattice.runtime.cache.exension.ExtensionResolveCache;
+import org.hiforce.lattice.runtime.cache.exension.ExtensionResultCache;
 import org.hiforce.lattice.runtime.cache.index.TemplateIndex;
+import org.hiforce.lattice.runtime.cache.key.ObjectCacheKeyEncoder;
+
+import java.util.List;
 
 /**
+ * The caches are resolved from the current {@link org.hiforce.lattice.runtime.LatticeSnapshot}.
+ *
  * @author Rocky Yu
  * @since 2022/9/16
  */
@@ -21,41 +28,85 @@ import org.hiforce.lattice.runtime.cache.index.TemplateIndex;
 @AutoService(ILatticeRuntimeCache.class)
 public class LatticeRuntimeCache implements ILatticeRuntimeCache, LatticeCache {
 
-    @Getter
-    private final TemplateIndex templateIndex = TemplateIndex.getInstance();
+    public TemplateIndex getTemplateIndex() {
+        return TemplateIndex.getInstance();
+    }
 
-    @Getter
-    private final ExtensionCache extensionCache = ExtensionCache.getInstance();
+    public ExtensionCache getExtensionCache() {
+        return ExtensionCache.getInstance();
+    }
 
-    @Getter
-    private final AbilityCache abilityCache = AbilityCache.getInstance();
+    public AbilityCache getAbilityCache() {
+        return AbilityCache.getInstance();
+    }
 
-    @Getter
-    private final BusinessConfigCache businessConfigCache = BusinessConfigCache.getInstance();
+    public BusinessConfigCache getBusinessConfigCache() {
+        return BusinessConfigCache.getInstance();
+    }
 
-    @Getter
-    private final ExtensionInvokeCache invokeCache = ExtensionInvokeCache.getInstance();
+    public ExtensionDispatchTable getDispatchTable() {
+        return ExtensionDispatchTable.getInstance();
+    }
+
+    public ExtensionInvokeCache getInvokeCache() {
+        return ExtensionInvokeCache.getInstance();
+    }
 
-    @Getter
-    private final BusinessExtCache businessExtCache = BusinessExtCache.getInstance();
+    public BusinessExtCache getBusinessExtCache() {
+        return BusinessExtCache.getInstance();
+    }
+
+    public ExtensionResolveCache getResolveCache() {
+        return ExtensionResolveCache.getInstance();
+    }
+
+    public ExtensionResultCache getResultCache() {
+        return ExtensionResultCache.getInstance();
+    }
+
+    /**
+     * Evict the cached runners, realizations, sub BusinessExt and results derived from the
+     * template or extension code, the entries of the other codes keep warm.
+     *
+     * @param code the code of the template or the extension.
+     */
+    public synchronized void evict(String code) {
+        evict(code, TemplateRegister.getInstance().getMatchedRealizations(code));
+    }
+
+    private void evict(String code, List<RealizationSpec> realizations) {
+        getBusinessExtCache().evict(realizations);
+        getAbilityCache().evictExtensionRunners(code);
+        getInvokeCache().evictRealizations(code);
+        getResultCache().invalidate(code);
+    }
 
+    /**
+     * Remove the product, only the business configs referring to it are recompiled,
+     * and only the cached entries derived from it are evicted.
+     */
     public synchronized void clearProductCache(String code) {
-        TemplateRegister.getInstance().getProducts().removeIf(p -> StringUtils.equals(p.getCode(), code));
-        TemplateRegister.getInstance().getRealizations().removeIf(p -> StringUtils.equals(p.getCode(), code));
+        // the realizations are looked up before removed, the entries are evicted after the removal,
+        // so the entries cached by the invocations in the meantime are evicted as well.
+        List<RealizationSpec> realizations = TemplateRegister.getInstance().getMatchedRealizations(code);
+        TemplateRegister.getInstance().removeProduct(code);
+        TemplateRegister.getInstance().removeRealizations(code);
         TemplateIndex.getInstance().remove(code);
-        ExtensionInvokeCache.getInstance().clear();
-        BusinessExtCache.getInstance().clear();
-        AbilityCache.getInstance().clear();
+        ExtensionDispatchTable.getInstance().recompileReferring(code);
+        evict(code, realizations);
     }
 
+    /**
+     * Remove the business, only the cached entries derived from it are evicted.
+     */
     public synchronized void clearBusinessCache(String bizCode) {
-        TemplateRegister.getInstance().getBusinesses().removeIf(p -> StringUtils.equals(p.getCode(), bizCode));
-        TemplateRegister.getInstance().getRealizations().removeIf(p -> StringUtils.equals(p.getCode(), bizCode));
+        List<RealizationSpec> realizations = TemplateRegister.getInstance().getMatchedRealizations(bizCode);
+        TemplateRegister.getInstance().removeBusiness(bizCode);
+        TemplateRegister.getInstance().removeRealizations(bizCode);
         TemplateIndex.getInstance().remove(bizCode);
-        ExtensionInvokeCache.getInstance().clear();
         BusinessConfigCache.getInstance().removeBusinessConfig(bizCode);
-        BusinessExtCache.getInstance().clear();
-        AbilityCache.getInstance().clear();
+        ExtensionDispatchTable.getInstance().remove(bizCode);
+        evict(bizCode, realizations);
     }
 
 
@@ -69,7 +120,10 @@ public class LatticeRuntimeCache implements ILatticeRuntimeCache, LatticeCache {
         //
         getInvokeCache().init();
         getBusinessConfigCache().init();
+        getDispatchTable().init();
         getBusinessExtCache().init();
+        getResolveCache().init();
+        getResultCache().init();
         AbilityInstCache.getInstance().init();
     }
 
@@ -79,7 +133,11 @@ public class LatticeRuntimeCache implements ILatticeRuntimeCache, LatticeCache {
         getAbilityCache().clear();
         getInvokeCache().clear();
         getBusinessConfigCache().clear();
+        getDispatchTable().clear();
         getBusinessExtCache().clear();
+        getResolveCache().clear();
+        getResultCache().clear();
         AbilityInstCache.getInstance().clear();
+        ObjectCacheKeyEncoder.clearOverflowKeys();
     }
 }
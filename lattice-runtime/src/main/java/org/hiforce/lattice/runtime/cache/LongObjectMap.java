@@ -0,0 +1,226 @@
+package org.hiforce.lattice.runtime.cache;
+
+import java.util.Collection;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * An open-addressing map with primitive long keys, used by the hot runtime caches.
+ * The reads are lock-free and allocation-free; the writes are serialized, as the
+ * caches are filled only once per key.
+ * <p>
+ * Entries are never removed in place, the table is rebuilt without the removed keys
+ * (see {@link #removeAll(Collection)}) or replaced on clear, so the readers never see a moved entry.
+ *
+ * @author Rocky Yu
+ * @since 2026/10/18
+ */
+@SuppressWarnings("unchecked")
+public class LongObjectMap<V> {
+
+    private static final long FREE = Long.MIN_VALUE;
+
+    private static final int MAXIMUM_CAPACITY = 1 << 30;
+
+    private final Object writeLock = new Object();
+
+    private final int initialCapacity;
+
+    private volatile Table table;
+
+    private volatile int size;
+
+    public LongObjectMap() {
+        this(64);
+    }
+
+    public LongObjectMap(int initialCapacity) {
+        this.initialCapacity = tableSizeFor(initialCapacity);
+        this.table = new Table(this.initialCapacity);
+    }
+
+    public V get(long key) {
+        Table tab = table;
+        int mask = tab.mask;
+        int i = spread(key) & mask;
+        while (true) {
+            long k = tab.keys.get(i);
+            if (k == key) {
+                return (V) tab.values.get(i);
+            }
+            if (k == FREE) {
+                return null;
+            }
+            i = (i + 1) & mask;
+        }
+    }
+
+    public V put(long key, V value) {
+        return doPut(key, value, false);
+    }
+
+    public V putIfAbsent(long key, V value) {
+        return doPut(key, value, true);
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public boolean isEmpty() {
+        return 0 == size;
+    }
+
+    public void clear() {
+        synchronized (writeLock) {
+            table = new Table(initialCapacity);
+            size = 0;
+        }
+    }
+
+    /**
+     * @return the copy of the map, with its own table.
+     */
+    public LongObjectMap<V> copy() {
+        synchronized (writeLock) {
+            Table old = table;
+            LongObjectMap<V> map = new LongObjectMap<>(initialCapacity);
+            Table tab = new Table(old.length());
+            for (int j = 0; j < old.length(); j++) {
+                tab.values.set(j, old.values.get(j));
+                tab.keys.set(j, old.keys.get(j));
+            }
+            map.table = tab;
+            map.size = size;
+            return map;
+        }
+    }
+
+    /**
+     * Remove the keys by rebuilding the table, the removal is expected to be rare.
+     *
+     * @param keys the keys to be removed.
+     * @return the number of the removed entries.
+     */
+    public int removeAll(Collection<Long> keys) {
+        if (null == keys || keys.isEmpty()) {
+            return 0;
+        }
+        synchronized (writeLock) {
+            Table old = table;
+            int removed = 0;
+            for (Long key : keys) {
+                if (null != key && key != FREE && old.keys.get(indexOf(old, key)) == key) {
+                    removed++;
+                }
+            }
+            if (0 == removed) {
+                return 0;
+            }
+            Table tab = new Table(old.length());
+            for (int j = 0; j < old.length(); j++) {
+                long k = old.keys.get(j);
+                if (k == FREE || keys.contains(k)) {
+                    continue;
+                }
+                int i = indexOf(tab, k);
+                tab.values.set(i, old.values.get(j));
+                tab.keys.set(i, k);
+            }
+            size -= removed;
+            table = tab;
+            return removed;
+        }
+    }
+
+    private V doPut(long key, V value, boolean onlyIfAbsent) {
+        if (key == FREE) {
+            throw new IllegalArgumentException("unsupported key: " + key);
+        }
+        if (null == value) {
+            throw new NullPointerException();
+        }
+        synchronized (writeLock) {
+            Table tab = table;
+            int i = indexOf(tab, key);
+            if (tab.keys.get(i) == key) {
+                V old = (V) tab.values.get(i);
+                if (!onlyIfAbsent) {
+                    tab.values.set(i, value);
+                }
+                return old;
+            }
+            if ((size + 1) * 2 > tab.length() && tab.length() < MAXIMUM_CAPACITY) {
+                tab = resize(tab);
+                i = indexOf(tab, key);
+            }
+            // the value must be visible before the key, the readers check the key only.
+            tab.values.set(i, value);
+            tab.keys.set(i, key);
+            size++;
+            table = tab;
+            return null;
+        }
+    }
+
+    private Table resize(Table old) {
+        Table tab = new Table(old.length() << 1);
+        for (int j = 0; j < old.length(); j++) {
+            long k = old.keys.get(j);
+            if (k == FREE) {
+                continue;
+            }
+            int i = indexOf(tab, k);
+            tab.values.set(i, old.values.get(j));
+            tab.keys.set(i, k);
+        }
+        return tab;
+    }
+
+    private static int indexOf(Table tab, long key) {
+        int mask = tab.mask;
+        int i = spread(key) & mask;
+        while (true) {
+            long k = tab.keys.get(i);
+            if (k == key || k == FREE) {
+                return i;
+            }
+            i = (i + 1) & mask;
+        }
+    }
+
+    private static int spread(long key) {
+        long h = key * 0x9E3779B97F4A7C15L;
+        return (int) (h ^ (h >>> 32));
+    }
+
+    private static int tableSizeFor(int capacity) {
+        int n = 16;
+        while (n < capacity && n < MAXIMUM_CAPACITY) {
+            n <<= 1;
+        }
+        return n;
+    }
+
+    private static final class Table {
+
+        final AtomicLongArray keys;
+
+        final AtomicReferenceArray<Object> values;
+
+        final int mask;
+
+        Table(int capacity) {
+            keys = new AtomicLongArray(capacity);
+            for (int i = 0; i < capacity; i++) {
+                keys.lazySet(i, FREE);
+            }
+            values = new AtomicReferenceArray<>(capacity);
+            mask = capacity - 1;
+        }
+
+        int length() {
+            return mask + 1;
+        }
+    }
+}
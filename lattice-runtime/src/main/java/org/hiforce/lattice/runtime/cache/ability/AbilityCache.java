@@ -1,15 +1,24 @@
 package org.hiforce.lattice.runtime.cache.ability;
 
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
 import com.google.common.collect.Maps;
-import org.apache.commons.collections4.MapUtils;
+import lombok.EqualsAndHashCode;
+import lombok.RequiredArgsConstructor;
 import org.apache.commons.lang3.StringUtils;
 import org.hiforce.lattice.annotation.model.AbilityAnnotation;
 import org.hiforce.lattice.model.register.AbilitySpec;
+import org.hiforce.lattice.runtime.LatticeSnapshot;
+import org.hiforce.lattice.runtime.cache.CacheDependencyIndex;
 import org.hiforce.lattice.runtime.cache.LatticeCache;
+import org.hiforce.lattice.runtime.cache.LongObjectMap;
+import org.hiforce.lattice.runtime.cache.exension.ExtensionInvokeCache;
 import org.hiforce.lattice.runtime.cache.key.ExtensionRunnerCacheKey;
+import org.hiforce.lattice.runtime.cache.key.ObjectCacheKeyEncoder;
 
 import java.util.Collection;
 import java.util.Map;
+import java.util.Set;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ConcurrentMap;
 
@@ -17,23 +26,44 @@ import java.util.concurrent.ConcurrentMap;
  * @author Rocky Yu
  * @since 2022/10/12
  */
-public class AbilityCache implements LatticeCache {
+public class AbilityCache implements LatticeCache, LatticeSnapshot.Copyable<AbilityCache> {
 
-    private static AbilityCache instance;
+    private static final int MAX_SCENARIO_RUNNER_SIZE = 4096;
 
     private final ConcurrentMap<String, AbilitySpec> ABILITY_SPEC_CACHE = new ConcurrentHashMap<>(120);
 
-    private final Map<Class<?>, Map<Long, Object>> ABILITY_RUNNER_CACHE = Maps.newConcurrentMap();
+    private final Map<Class<?>, LongObjectMap<Object>> ABILITY_RUNNER_CACHE = Maps.newConcurrentMap();
+
+    /**
+     * The runners of the scenarios no realization declares, keyed with the raw scenario, as
+     * the remote runners capture it. The scenario comes from the caller, so the cache is bounded.
+     */
+    private final Cache<ScenarioRunnerKey, Object> SCENARIO_RUNNER_CACHE = CacheBuilder.newBuilder()
+            .maximumSize(MAX_SCENARIO_RUNNER_SIZE)
+            .build();
+
+    private final CacheDependencyIndex RUNNER_DEPENDENCIES;
 
     private AbilityCache() {
+        this(new CacheDependencyIndex());
+    }
 
+    private AbilityCache(CacheDependencyIndex runnerDependencies) {
+        this.RUNNER_DEPENDENCIES = runnerDependencies;
     }
 
     public static AbilityCache getInstance() {
-        if (null == instance) {
-            instance = new AbilityCache();
-        }
-        return instance;
+        return LatticeSnapshot.current().getComponent(AbilityCache.class, AbilityCache::new);
+    }
+
+    @Override
+    public AbilityCache copy() {
+        AbilityCache cache = new AbilityCache(RUNNER_DEPENDENCIES.copy());
+        cache.ABILITY_SPEC_CACHE.putAll(ABILITY_SPEC_CACHE);
+        ABILITY_RUNNER_CACHE.forEach((abilityClass, runners) ->
+                cache.ABILITY_RUNNER_CACHE.put(abilityClass, runners.copy()));
+        cache.SCENARIO_RUNNER_CACHE.putAll(SCENARIO_RUNNER_CACHE.asMap());
+        return cache;
     }
 
     @Override
@@ -45,23 +75,93 @@ public class AbilityCache implements LatticeCache {
     public void clear() {
         ABILITY_SPEC_CACHE.clear();
         ABILITY_RUNNER_CACHE.clear();
+        SCENARIO_RUNNER_CACHE.invalidateAll();
+        RUNNER_DEPENDENCIES.clear();
+    }
+
+    public void clearExtensionRunners() {
+        ABILITY_RUNNER_CACHE.clear();
+        SCENARIO_RUNNER_CACHE.invalidateAll();
+        RUNNER_DEPENDENCIES.clear();
+    }
+
+    /**
+     * Evict the cached runners derived from the template or extension code.
+     *
+     * @param code the code of the template or the extension.
+     */
+    public void evictExtensionRunners(String code) {
+        Set<Long> keys = RUNNER_DEPENDENCIES.remove(code);
+        if (keys.isEmpty()) {
+            return;
+        }
+        // the runner keys are encoded with the extension internal id, which is unique among the abilities.
+        ABILITY_RUNNER_CACHE.values().forEach(p -> p.removeAll(keys));
+        SCENARIO_RUNNER_CACHE.asMap().keySet().removeIf(p -> keys.contains(p.uniqueId));
     }
 
     public void doCacheExtensionRunner(Class<?> abilityClass, ExtensionRunnerCacheKey key, Object runner) {
-        Map<Long, Object> cache = ABILITY_RUNNER_CACHE.get(abilityClass);
-        if (MapUtils.isEmpty(cache)) {
-            cache = new ConcurrentHashMap<>(200);
-            ABILITY_RUNNER_CACHE.put(abilityClass, cache);
+        doCacheExtensionRunner(abilityClass, key.getUniqueId(), getUndeclaredScenario(key), runner);
+    }
+
+    public void doCacheExtensionRunner(Class<?> abilityClass, long uniqueId, Object runner) {
+        if (uniqueId == ObjectCacheKeyEncoder.NO_INDEX) {
+            return;
+        }
+        LongObjectMap<Object> cache = ABILITY_RUNNER_CACHE.get(abilityClass);
+        if (null == cache) {
+            cache = ABILITY_RUNNER_CACHE.computeIfAbsent(abilityClass, k -> new LongObjectMap<>(256));
+        }
+        cache.put(uniqueId, runner);
+    }
+
+    /**
+     * @param dependencies the template and extension codes which the runner is derived from.
+     */
+    public void doCacheExtensionRunner(Class<?> abilityClass, long uniqueId, Object runner, String... dependencies) {
+        doCacheExtensionRunner(abilityClass, uniqueId, null, runner, dependencies);
+    }
+
+    /**
+     * @param undeclaredScenario the scenario if no realization declares it, otherwise null.
+     * @param dependencies       the template and extension codes which the runner is derived from.
+     */
+    public void doCacheExtensionRunner(Class<?> abilityClass, long uniqueId, String undeclaredScenario,
+                                       Object runner, String... dependencies) {
+        if (uniqueId == ObjectCacheKeyEncoder.NO_INDEX) {
+            return;
         }
-        cache.put(key.getUniqueId(), runner);
+        RUNNER_DEPENDENCIES.record(uniqueId, dependencies);
+        if (null == undeclaredScenario) {
+            doCacheExtensionRunner(abilityClass, uniqueId, runner);
+            return;
+        }
+        SCENARIO_RUNNER_CACHE.put(new ScenarioRunnerKey(abilityClass, uniqueId, undeclaredScenario), runner);
     }
 
     public Object getCachedExtensionRunner(Class<?> abilityClass, ExtensionRunnerCacheKey key) {
-        Map<Long, Object> cache = ABILITY_RUNNER_CACHE.get(abilityClass);
-        if (null == cache) {
+        return getCachedExtensionRunner(abilityClass, key.getUniqueId(), getUndeclaredScenario(key));
+    }
+
+    /**
+     * @param undeclaredScenario the scenario if no realization declares it, otherwise null.
+     */
+    public Object getCachedExtensionRunner(Class<?> abilityClass, long uniqueId, String undeclaredScenario) {
+        if (null == undeclaredScenario) {
+            return getCachedExtensionRunner(abilityClass, uniqueId);
+        }
+        if (uniqueId == ObjectCacheKeyEncoder.NO_INDEX) {
             return null;
         }
-        return cache.get(key.getUniqueId());
+        return SCENARIO_RUNNER_CACHE.getIfPresent(new ScenarioRunnerKey(abilityClass, uniqueId, undeclaredScenario));
+    }
+
+    public Object getCachedExtensionRunner(Class<?> abilityClass, long uniqueId) {
+        LongObjectMap<Object> cache = ABILITY_RUNNER_CACHE.get(abilityClass);
+        if (null == cache || uniqueId == ObjectCacheKeyEncoder.NO_INDEX) {
+            return null;
+        }
+        return cache.get(uniqueId);
     }
 
     public AbilitySpec doCacheAbilitySpec(AbilityAnnotation ability, Class<?> targetClass) {
@@ -93,4 +193,19 @@ public class AbilityCache implements LatticeCache {
     public Collection<AbilitySpec> getAllCachedAbilities() {
         return ABILITY_SPEC_CACHE.values();
     }
+
+    private static String getUndeclaredScenario(ExtensionRunnerCacheKey key) {
+        return ExtensionInvokeCache.getInstance().isScenarioUndeclared(key.getScenario()) ? key.getScenario() : null;
+    }
+
+    @EqualsAndHashCode
+    @RequiredArgsConstructor
+    private static final class ScenarioRunnerKey {
+
+        private final Class<?> abilityClass;
+
+        private final long uniqueId;
+
+        private final String scenario;
+    }
 }
@@ -5,58 +5,106 @@ import lombok.Getter;
 import org.apache.commons.lang3.StringUtils;
 import org.hiforce.lattice.model.config.BusinessConfig;
 import org.hiforce.lattice.model.config.ReadonlyBusinessConfig;
+import org.hiforce.lattice.runtime.LatticeSnapshot;
 import org.hiforce.lattice.runtime.cache.LatticeCache;
 
+import java.util.Collections;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 
 /**
  * @author Rocky Yu
  * @since 2022/10/12
  */
-public class BusinessConfigCache implements LatticeCache {
+public class BusinessConfigCache implements LatticeCache, LatticeSnapshot.Copyable<BusinessConfigCache> {
 
-    private static BusinessConfigCache instance;
+    private static final ReadonlyBusinessConfig NOT_CONFIGURED =
+            new ReadonlyBusinessConfig(null, 0, Collections.emptySet(), Collections.emptyList());
 
+    /**
+     * The source business configs. After modifying a config in place,
+     * {@link #refresh(String)} should be called to recompile the readonly view.
+     */
     @Getter
     private final List<BusinessConfig> businessConfigs = Lists.newArrayList();
 
+    private final Map<String, ReadonlyBusinessConfig> compiledConfigs = new ConcurrentHashMap<>(120);
+
     private BusinessConfigCache() {
 
     }
 
     public static BusinessConfigCache getInstance() {
-        if (null == instance) {
-            instance = new BusinessConfigCache();
-        }
-        return instance;
+        return LatticeSnapshot.current().getComponent(BusinessConfigCache.class, BusinessConfigCache::new);
     }
 
+    /**
+     * The configs are shared by the copy, a config should be replaced by its copy before modified.
+     */
     @Override
-    public void init() {
+    public BusinessConfigCache copy() {
+        BusinessConfigCache cache = new BusinessConfigCache();
+        cache.businessConfigs.addAll(businessConfigs);
+        cache.compiledConfigs.putAll(compiledConfigs);
+        return cache;
+    }
 
+    @Override
+    public void init() {
+        compiledConfigs.clear();
+        for (BusinessConfig config : businessConfigs) {
+            if (null != config.getBizCode()) {
+                compiledConfigs.putIfAbsent(config.getBizCode(), ReadonlyBusinessConfig.of(config));
+            }
+        }
     }
 
     @Override
     public void clear() {
         businessConfigs.clear();
+        compiledConfigs.clear();
     }
 
     public void addBusinessConfigs(List<BusinessConfig> configs) {
         businessConfigs.addAll(configs);
+        compiledConfigs.clear();
     }
 
     public void removeBusinessConfig(String bizCode) {
         businessConfigs.removeIf(p ->
                 !p.isAutoBuild() && StringUtils.equals(bizCode, p.getBizCode()));
+        refresh(bizCode);
     }
 
-    public BusinessConfig getBusinessConfigByBizCode(String bizCode) {
-        BusinessConfig config = businessConfigs.stream().filter(p -> StringUtils.equals(bizCode, p.getBizCode()))
-                .findFirst().orElse(null);
-        if (null == config) {
+    /**
+     * Drop the compiled readonly view of the business, it will be recompiled on next read.
+     *
+     * @param bizCode the code of the business.
+     */
+    public void refresh(String bizCode) {
+        if (null != bizCode) {
+            compiledConfigs.remove(bizCode);
+        }
+    }
+
+    /**
+     * @param bizCode the code of the business.
+     * @return the shared readonly business config, or null if the business not configured.
+     */
+    public ReadonlyBusinessConfig getBusinessConfigByBizCode(String bizCode) {
+        if (null == bizCode) {
             return null;
         }
-        return new ReadonlyBusinessConfig(config.getBizCode(), config.getPriority(),
-                config.getProducts(), config.getExtensions());
+        ReadonlyBusinessConfig config = compiledConfigs.get(bizCode);
+        if (null == config) {
+            config = compiledConfigs.computeIfAbsent(bizCode, this::compileBusinessConfig);
+        }
+        return config == NOT_CONFIGURED ? null : config;
+    }
+
+    private ReadonlyBusinessConfig compileBusinessConfig(String bizCode) {
+        return businessConfigs.stream().filter(p -> StringUtils.equals(bizCode, p.getBizCode()))
+                .findFirst().map(ReadonlyBusinessConfig::of).orElse(NOT_CONFIGURED);
     }
 }
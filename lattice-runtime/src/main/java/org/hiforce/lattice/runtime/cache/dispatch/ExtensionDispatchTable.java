@@ -0,0 +1,223 @@
+package org.hiforce.lattice.runtime.cache.dispatch;
+
+import lombok.Getter;
+import org.apache.commons.lang3.StringUtils;
+import org.hiforce.lattice.model.config.BusinessConfig;
+import org.hiforce.lattice.model.config.ExtPriority;
+import org.hiforce.lattice.model.config.ExtPriorityConfig;
+import org.hiforce.lattice.model.register.TemplateSpec;
+import org.hiforce.lattice.runtime.Lattice;
+import org.hiforce.lattice.runtime.LatticeSnapshot;
+import org.hiforce.lattice.runtime.cache.LatticeCache;
+import org.hiforce.lattice.runtime.cache.config.BusinessConfigCache;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * The extension dispatch table compiled from the business configs.
+ * It maps (bizCode, extCode) to the final arrays of the templates which realize the extension,
+ * with the priorities filtered, the templates resolved and the not installed products removed.
+ *
+ * @author Rocky Yu
+ * @since 2026/10/18
+ */
+@SuppressWarnings("rawtypes")
+public class ExtensionDispatchTable implements LatticeCache, LatticeSnapshot.Copyable<ExtensionDispatchTable> {
+
+    private static final Map<String, DispatchEntry> EMPTY_BUSINESS = Collections.emptyMap();
+
+    private final Map<String, Map<String, DispatchEntry>> DISPATCH_TABLE = new ConcurrentHashMap<>(120);
+
+    private ExtensionDispatchTable() {
+
+    }
+
+    public static ExtensionDispatchTable getInstance() {
+        return LatticeSnapshot.current().getComponent(ExtensionDispatchTable.class, ExtensionDispatchTable::new);
+    }
+
+    @Override
+    public ExtensionDispatchTable copy() {
+        // the compiled business entries are immutable, shared by the copy.
+        ExtensionDispatchTable table = new ExtensionDispatchTable();
+        table.DISPATCH_TABLE.putAll(DISPATCH_TABLE);
+        return table;
+    }
+
+    @Override
+    public void init() {
+        for (BusinessConfig config : BusinessConfigCache.getInstance().getBusinessConfigs()) {
+            compile(config);
+        }
+    }
+
+    @Override
+    public void clear() {
+        DISPATCH_TABLE.clear();
+    }
+
+    public void compile(BusinessConfig config) {
+        if (null == config || StringUtils.isEmpty(config.getBizCode())) {
+            return;
+        }
+        DISPATCH_TABLE.put(config.getBizCode(), compileBusiness(config));
+    }
+
+    public void remove(String bizCode) {
+        if (null == bizCode) {
+            return;
+        }
+        DISPATCH_TABLE.remove(bizCode);
+    }
+
+    /**
+     * Recompile the business configs which install or prioritize the template,
+     * e.g. the template is installed or uninstalled at runtime.
+     *
+     * @param code the code of the template.
+     * @return the biz codes of the recompiled business configs.
+     */
+    public List<String> recompileReferring(String code) {
+        List<String> bizCodes = new ArrayList<>();
+        if (StringUtils.isEmpty(code)) {
+            return bizCodes;
+        }
+        for (BusinessConfig config : BusinessConfigCache.getInstance().getBusinessConfigs()) {
+            if (isReferring(config, code)) {
+                compile(config);
+                bizCodes.add(config.getBizCode());
+            }
+        }
+        return bizCodes;
+    }
+
+    /**
+     * @return whether the business config installs or prioritizes the template.
+     */
+    public static boolean isReferring(BusinessConfig config, String code) {
+        if (config.productInstalled(code)) {
+            return true;
+        }
+        for (ExtPriorityConfig priorityConfig : config.getExtensions()) {
+            if (null == priorityConfig) {
+                continue;
+            }
+            for (ExtPriority priority : priorityConfig.getPriorities()) {
+                if (null != priority && StringUtils.equals(code, priority.getCode())) {
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+
+    /**
+     * @param config  the business config of current business.
+     * @param extCode the code of the extension.
+     * @return the compiled dispatch entry, or null if the business not config the extension.
+     */
+    public DispatchEntry getDispatchEntry(BusinessConfig config, String extCode) {
+        Map<String, DispatchEntry> business = DISPATCH_TABLE.get(config.getBizCode());
+        if (null == business) {
+            business = DISPATCH_TABLE.computeIfAbsent(config.getBizCode(), k -> compileBusiness(config));
+        }
+        return business.get(extCode);
+    }
+
+    private Map<String, DispatchEntry> compileBusiness(BusinessConfig config) {
+        if (config.getExtensions().isEmpty()) {
+            return EMPTY_BUSINESS;
+        }
+        Map<String, DispatchEntry> business = new HashMap<>(config.getExtensions().size() * 2);
+        for (ExtPriorityConfig priorityConfig : config.getExtensions()) {
+            if (null == priorityConfig || business.containsKey(priorityConfig.getExtCode())) {
+                continue;
+            }
+            business.put(priorityConfig.getExtCode(), compileEntry(config, priorityConfig));
+        }
+        return Collections.unmodifiableMap(business);
+    }
+
+    private DispatchEntry compileEntry(BusinessConfig config, ExtPriorityConfig priorityConfig) {
+        List<DispatchItem> items = new ArrayList<>(priorityConfig.getPriorities().size());
+        List<DispatchItem> horizontalItems = new ArrayList<>(priorityConfig.getPriorities().size());
+        for (ExtPriority priority : priorityConfig.getPriorities()) {
+            if (null == priority || null == priority.getType()) {
+                continue;
+            }
+            // 未安装的产品总是被剔除。原先没有BizSessionContext时会保留它们，但没有会话时
+            // 水平模板本就不会被执行（见filterEffectiveRunners），所以执行结果不变。
+            if (priority.getType().isHorizontal() && priority.getType().needInstall()
+                    && !config.productInstalled(priority.getCode())) {
+                continue;
+            }
+            TemplateSpec template = priority.getType().isVertical() ?
+                    getBusinessSpec(priority.getCode()) : getHorizontalTemplateSpec(priority.getCode());
+            if (null == template) {
+                continue;
+            }
+            DispatchItem item = new DispatchItem(priority, template);
+            items.add(item);
+            if (priority.getType().isHorizontal()) {
+                horizontalItems.add(item);
+            }
+        }
+        return new DispatchEntry(priorityConfig.getExtCode(),
+                items.toArray(new DispatchItem[0]), horizontalItems.toArray(new DispatchItem[0]));
+    }
+
+    private TemplateSpec getBusinessSpec(String bizCode) {
+        return Lattice.getInstance().getRegisteredBusinessByCode(bizCode);
+    }
+
+    private TemplateSpec getHorizontalTemplateSpec(String code) {
+        TemplateSpec spec = Lattice.getInstance().getRegisteredProductByCode(code);
+        if (null != spec) {
+            return spec;
+        }
+        return Lattice.getInstance().getRegisteredUseCaseByCode(code);
+    }
+
+    public static final class DispatchEntry {
+
+        @Getter
+        private final String extCode;
+
+        private final DispatchItem[] items;
+
+        private final DispatchItem[] horizontalItems;
+
+        DispatchEntry(String extCode, DispatchItem[] items, DispatchItem[] horizontalItems) {
+            this.extCode = extCode;
+            this.items = items;
+            this.horizontalItems = horizontalItems;
+        }
+
+        /**
+         * @param onlyHorizontal only load the Horizontal type template.
+         * @return the dispatch items ordered by priority, should not be modified.
+         */
+        public DispatchItem[] getItems(boolean onlyHorizontal) {
+            return onlyHorizontal ? horizontalItems : items;
+        }
+    }
+
+    public static final class DispatchItem {
+
+        @Getter
+        private final ExtPriority priority;
+
+        @Getter
+        private final TemplateSpec template;
+
+        DispatchItem(ExtPriority priority, TemplateSpec template) {
+            this.priority = priority;
+            this.template = template;
+        }
+    }
+}
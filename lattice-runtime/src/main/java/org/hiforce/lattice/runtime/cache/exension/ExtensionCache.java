@@ -4,6 +4,7 @@ import com.google.common.collect.Maps;
 import lombok.Getter;
 import org.hiforce.lattice.model.register.ExtensionSpec;
 import org.hiforce.lattice.runtime.Lattice;
+import org.hiforce.lattice.runtime.LatticeSnapshot;
 import org.hiforce.lattice.runtime.cache.LatticeCache;
 import org.hiforce.lattice.runtime.cache.index.ExtensionIndex;
 
@@ -18,8 +19,6 @@ import java.util.stream.Collectors;
  */
 public class ExtensionCache implements LatticeCache {
 
-    private static ExtensionCache instance;
-
     private final Map<String, ExtensionSpec> extensionSpecCache = Maps.newConcurrentMap();
 
     @Getter
@@ -31,10 +30,7 @@ public class ExtensionCache implements LatticeCache {
     }
 
     public static ExtensionCache getInstance() {
-        if (null == instance) {
-            instance = new ExtensionCache();
-        }
-        return instance;
+        return LatticeSnapshot.current().getComponent(ExtensionCache.class, ExtensionCache::new);
     }
 
     public void doCacheExtensionSpec(Set<ExtensionSpec> extensionSet) {
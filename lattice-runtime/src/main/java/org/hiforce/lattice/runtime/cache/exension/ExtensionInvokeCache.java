@@ -5,12 +5,17 @@ import org.apache.commons.lang3.StringUtils;
 import org.hiforce.lattice.model.ability.IBusinessExt;
 import org.hiforce.lattice.model.register.RealizationSpec;
 import org.hiforce.lattice.runtime.Lattice;
+import org.hiforce.lattice.runtime.LatticeSnapshot;
+import org.hiforce.lattice.runtime.cache.CacheDependencyIndex;
 import org.hiforce.lattice.runtime.cache.LatticeCache;
+import org.hiforce.lattice.runtime.cache.LongObjectMap;
 import org.hiforce.lattice.runtime.cache.key.ExtensionInvokeCacheKey;
+import org.hiforce.lattice.runtime.cache.key.ObjectCacheKeyEncoder;
 
 import java.util.List;
 import java.util.Map;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
 
 
 /**
@@ -18,62 +23,137 @@ import java.util.concurrent.ConcurrentHashMap;
  * @since 2022/9/19
  */
 @Slf4j
-public class ExtensionInvokeCache implements LatticeCache {
+public class ExtensionInvokeCache implements LatticeCache, LatticeSnapshot.Copyable<ExtensionInvokeCache> {
 
-    private static ExtensionInvokeCache INSTANCE;
+    private final LongObjectMap<IBusinessExt> EXT_REALIZATION_CACHE;
 
-    private static final Object LOCK = new Object();
+    private final CacheDependencyIndex REALIZATION_DEPENDENCIES;
 
-    private final Map<Long, IBusinessExt> EXT_REALIZATION_CACHE = new ConcurrentHashMap<>(2000);
+    /**
+     * The shared index of the scenarios no realization declares. They resolve the same realizations
+     * as the empty scenario, so the realizations are cached under one index, instead of one per scenario.
+     */
+    public static final long UNDECLARED_SCENARIO_INDEX = 1L;
 
     private final Map<String, Long> SCENARIO_IDX_MAP = new ConcurrentHashMap<>(120);
 
+    private final AtomicLong scenarioSequence = new AtomicLong(UNDECLARED_SCENARIO_INDEX);
+
     private ExtensionInvokeCache() {
+        this(new LongObjectMap<>(2048), new CacheDependencyIndex());
+    }
 
+    private ExtensionInvokeCache(LongObjectMap<IBusinessExt> realizationCache,
+                                 CacheDependencyIndex realizationDependencies) {
+        this.EXT_REALIZATION_CACHE = realizationCache;
+        this.REALIZATION_DEPENDENCIES = realizationDependencies;
     }
 
     public static ExtensionInvokeCache getInstance() {
-        if (null == INSTANCE) {
-            synchronized (LOCK) {
-                if (null == INSTANCE) {
-                    INSTANCE = new ExtensionInvokeCache();
-                }
-            }
-        }
-        return INSTANCE;
+        return LatticeSnapshot.current().getComponent(ExtensionInvokeCache.class, ExtensionInvokeCache::new);
+    }
+
+    @Override
+    public ExtensionInvokeCache copy() {
+        ExtensionInvokeCache cache = new ExtensionInvokeCache(EXT_REALIZATION_CACHE.copy(), REALIZATION_DEPENDENCIES.copy());
+        // the indexes are kept, as they are encoded in the keys of the copied entries.
+        cache.SCENARIO_IDX_MAP.putAll(SCENARIO_IDX_MAP);
+        cache.scenarioSequence.set(scenarioSequence.get());
+        return cache;
     }
 
     public Long getScenarioIndex(String scenario) {
         return SCENARIO_IDX_MAP.get(scenario);
     }
 
+    /**
+     * Only the scenarios declared by the realizations are indexed, as the scenario comes from
+     * the caller and is unbounded. The others share {@link #UNDECLARED_SCENARIO_INDEX}.
+     *
+     * @param scenario the scenario.
+     * @return the index of the scenario, 0 if the scenario is empty, or
+     * {@link #UNDECLARED_SCENARIO_INDEX} if no realization declares the scenario.
+     */
+    public long getScenarioIndexOrDefault(String scenario) {
+        if (StringUtils.isEmpty(scenario)) {
+            return 0L;
+        }
+        Long index = SCENARIO_IDX_MAP.get(scenario);
+        return null == index ? UNDECLARED_SCENARIO_INDEX : index;
+    }
+
+    /**
+     * @return whether the scenario is not empty and no realization declares it.
+     */
+    public boolean isScenarioUndeclared(String scenario) {
+        return StringUtils.isNotEmpty(scenario) && !SCENARIO_IDX_MAP.containsKey(scenario);
+    }
+
     public IBusinessExt doCacheExtensionRealization(ExtensionInvokeCacheKey cacheKey, IBusinessExt realization) {
-        EXT_REALIZATION_CACHE.putIfAbsent(cacheKey.getUniqueId(), null == realization ?
+        if (null == cacheKey) {
+            return realization;
+        }
+        return doCacheExtensionRealization(cacheKey.getUniqueId(), realization);
+    }
+
+    public IBusinessExt doCacheExtensionRealization(long uniqueId, IBusinessExt realization) {
+        if (uniqueId == ObjectCacheKeyEncoder.NO_INDEX) {
+            return realization;
+        }
+        EXT_REALIZATION_CACHE.putIfAbsent(uniqueId, null == realization ?
                 new NotExistedRealization() : realization);
         return realization;
     }
 
+    /**
+     * @param dependencies the template and extension codes which the realization is derived from.
+     */
+    public IBusinessExt doCacheExtensionRealization(long uniqueId, IBusinessExt realization, String... dependencies) {
+        if (uniqueId == ObjectCacheKeyEncoder.NO_INDEX) {
+            return realization;
+        }
+        REALIZATION_DEPENDENCIES.record(uniqueId, dependencies);
+        return doCacheExtensionRealization(uniqueId, realization);
+    }
+
+    /**
+     * Evict the cached realizations derived from the template or extension code.
+     *
+     * @param code the code of the template or the extension.
+     */
+    public void evictRealizations(String code) {
+        EXT_REALIZATION_CACHE.removeAll(REALIZATION_DEPENDENCIES.remove(code));
+    }
+
     public IBusinessExt getCachedExtensionRealization(ExtensionInvokeCacheKey cacheKey) {
         if (null == cacheKey) {
             return null;
         }
-        return EXT_REALIZATION_CACHE.get(cacheKey.getUniqueId());
+        return getCachedExtensionRealization(cacheKey.getUniqueId());
+    }
+
+    public IBusinessExt getCachedExtensionRealization(long uniqueId) {
+        if (uniqueId == ObjectCacheKeyEncoder.NO_INDEX) {
+            return null;
+        }
+        return EXT_REALIZATION_CACHE.get(uniqueId);
     }
 
     @Override
     public void init() {
-        long scenarioIdx = 1;
         List<RealizationSpec> realizationSpecs = Lattice.getInstance().getAllRealizations();
         for (RealizationSpec realizationSpec : realizationSpecs) {
             if (StringUtils.isEmpty(realizationSpec.getScenario()))
                 continue;
-            SCENARIO_IDX_MAP.putIfAbsent(realizationSpec.getScenario(), scenarioIdx++);
+            SCENARIO_IDX_MAP.computeIfAbsent(realizationSpec.getScenario(), k -> scenarioSequence.incrementAndGet());
         }
     }
 
     @Override
     public void clear() {
         EXT_REALIZATION_CACHE.clear();
+        REALIZATION_DEPENDENCIES.clear();
         SCENARIO_IDX_MAP.clear();
+        scenarioSequence.set(UNDECLARED_SCENARIO_INDEX);
     }
 }
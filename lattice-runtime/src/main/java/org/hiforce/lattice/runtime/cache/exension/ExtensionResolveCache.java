@@ -0,0 +1,138 @@
+package org.hiforce.lattice.runtime.cache.exension;
+
+import lombok.extern.slf4j.Slf4j;
+import org.hiforce.lattice.annotation.model.ExtensionAnnotation;
+import org.hiforce.lattice.model.ability.IBusinessExt;
+import org.hiforce.lattice.model.ability.execute.ExtensionCallback;
+import org.hiforce.lattice.model.context.AbilityContext;
+import org.hiforce.lattice.runtime.LatticeSnapshot;
+import org.hiforce.lattice.runtime.cache.LatticeCache;
+import org.hiforce.lattice.utils.JacksonUtils;
+import org.hiforce.lattice.utils.LatticeAnnotationUtils;
+import org.springframework.cglib.proxy.Enhancer;
+import org.springframework.cglib.proxy.MethodInterceptor;
+
+import java.lang.reflect.Method;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Resolve which extension a callback invokes, without building a new proxy per invocation.
+ * The proxy of the default realization is created once per BusinessExt class and shared by
+ * all the threads, the intercepted method and params are written into the current thread's
+ * AbilityContext.
+ *
+ * @author Rocky Yu
+ * @since 2026/10/18
+ */
+@Slf4j
+public class ExtensionResolveCache implements LatticeCache {
+
+    private static final ThreadLocal<AbilityContext> RESOLVING_CONTEXT = new ThreadLocal<>();
+
+    private static final ExtensionAnnotation NOT_ANNOTATED = new ExtensionAnnotation();
+
+    private final Map<Class<?>, IBusinessExt> PROXY_CACHE = new ConcurrentHashMap<>(120);
+
+    private final Map<Method, ExtensionAnnotation> ANNOTATION_CACHE = new ConcurrentHashMap<>(500);
+
+    private ExtensionResolveCache() {
+
+    }
+
+    public static ExtensionResolveCache getInstance() {
+        return LatticeSnapshot.current().getComponent(ExtensionResolveCache.class, ExtensionResolveCache::new);
+    }
+
+    /**
+     * Run the callback against the cached proxy of the default realization, and fill the
+     * invoked extension's method, params, code and name into the ability context.
+     *
+     * @param context            the ability context of current invocation.
+     * @param defaultRealization the default realization of the ability.
+     * @param callback           the extension callback.
+     */
+    @SuppressWarnings("all")
+    public <BusinessExt extends IBusinessExt, T> void resolve(
+            AbilityContext context, BusinessExt defaultRealization, ExtensionCallback<BusinessExt, T> callback) {
+        BusinessExt proxy = (BusinessExt) getResolveProxy(defaultRealization.getClass());
+        AbilityContext previous = RESOLVING_CONTEXT.get();
+        RESOLVING_CONTEXT.set(context);
+        try {
+            callback.apply(proxy);
+        } finally {
+            if (null == previous) {
+                RESOLVING_CONTEXT.remove();
+            } else {
+                RESOLVING_CONTEXT.set(previous);
+            }
+        }
+    }
+
+    public IBusinessExt getResolveProxy(Class<?> businessExtClass) {
+        IBusinessExt proxy = PROXY_CACHE.get(businessExtClass);
+        if (null != proxy) {
+            return proxy;
+        }
+        return PROXY_CACHE.computeIfAbsent(businessExtClass, this::createResolveProxy);
+    }
+
+    public ExtensionAnnotation getExtensionAnnotation(Method method) {
+        ExtensionAnnotation annotation = ANNOTATION_CACHE.computeIfAbsent(method, p -> {
+            ExtensionAnnotation found = LatticeAnnotationUtils.getExtensionAnnotation(p);
+            return null == found ? NOT_ANNOTATED : found;
+        });
+        return annotation == NOT_ANNOTATED ? null : annotation;
+    }
+
+    private IBusinessExt createResolveProxy(Class<?> businessExtClass) {
+        Enhancer enhancer = new Enhancer();
+        enhancer.setSuperclass(businessExtClass);
+        enhancer.setCallback((MethodInterceptor) (o, method, params, methodProxy) -> {
+            AbilityContext context = RESOLVING_CONTEXT.get();
+            if (null == context) {
+                return null;
+            }
+            onExtensionIntercepted(context, method, params);
+            return null;
+        });
+        return (IBusinessExt) enhancer.create();
+    }
+
+    private void onExtensionIntercepted(AbilityContext context, Method method, Object[] params) {
+        context.setExtMethod(method);
+        List<Object> extParams = context.getInvokeParams();
+        if (null == extParams) {
+            extParams = new ArrayList<>(null == params ? 0 : params.length);
+            context.setInvokeParams(extParams);
+        }
+        if (null != params) {
+            Collections.addAll(extParams, params);
+        }
+        ExtensionAnnotation annotation = getExtensionAnnotation(method);
+        if (null == annotation) {
+            log.warn("[Lattice] invoke context, failed to get annotation, method={}", method.getName());
+        } else {
+            context.setExtCode(annotation.getCode());
+            context.setExtName(annotation.getName());
+        }
+        if (log.isDebugEnabled()) {
+            log.debug("[Lattice] invoke context, method={}, annotation=[code={}, name={}], params={}", method.getName(),
+                    context.getExtCode(), context.getExtName(), JacksonUtils.serializeWithoutException(extParams));
+        }
+    }
+
+    @Override
+    public void init() {
+
+    }
+
+    @Override
+    public void clear() {
+        PROXY_CACHE.clear();
+        ANNOTATION_CACHE.clear();
+    }
+}
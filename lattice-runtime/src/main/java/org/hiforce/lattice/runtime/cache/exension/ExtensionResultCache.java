@@ -0,0 +1,266 @@
+package org.hiforce.lattice.runtime.cache.exension;
+
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import org.apache.commons.lang3.StringUtils;
+import org.hiforce.lattice.extension.ExtensionRunnerType;
+import org.hiforce.lattice.model.register.ExtensionSpec;
+import org.hiforce.lattice.model.register.TemplateSpec;
+import org.hiforce.lattice.runtime.LatticeSnapshot;
+import org.hiforce.lattice.runtime.ability.execute.RunnerResultCache;
+import org.hiforce.lattice.runtime.cache.LatticeCache;
+
+import java.lang.reflect.Array;
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The cross-request result cache of the cacheable extension points, see
+ * {@link org.hiforce.lattice.annotation.Extension#cacheable()}.
+ * Each extension point has its own bounded cache (segmented LRU with TTL), keyed by
+ * the bizCode, scenario, template, runner type and the params of the invocation.
+ * <p>
+ * The key holds a copy of the params, so only the params of the immutable value types
+ * (null, String, the boxed primitives, BigDecimal, BigInteger, enums), and the arrays, lists,
+ * sets and maps of them, are copied. The invocation with any other param (e.g. a mutable DTO,
+ * or a type without value-based equals/hashCode) is not cached.
+ * The cached results are shared by the requests, they should not be modified.
+ *
+ * @author Rocky Yu
+ * @since 2026/10/18
+ */
+public class ExtensionResultCache implements LatticeCache, LatticeSnapshot.Copyable<ExtensionResultCache> {
+
+    static final Object NOT_VALUE = new Object();
+
+    private static final Set<Class<?>> VALUE_TYPES = new HashSet<>(Arrays.asList(
+            String.class, Boolean.class, Character.class, Byte.class, Short.class, Integer.class,
+            Long.class, Float.class, Double.class, BigDecimal.class, BigInteger.class));
+
+    private final Map<String, Cache<ResultKey, RunnerResultCache.CachedResult>> caches = new ConcurrentHashMap<>();
+
+    private ExtensionResultCache() {
+
+    }
+
+    public static ExtensionResultCache getInstance() {
+        return LatticeSnapshot.current().getComponent(ExtensionResultCache.class, ExtensionResultCache::new);
+    }
+
+    /**
+     * The copy starts empty, the results are cached again on the installed snapshot.
+     */
+    @Override
+    public ExtensionResultCache copy() {
+        return new ExtensionResultCache();
+    }
+
+    /**
+     * @param extensionSpec the extension point.
+     * @param bizCode       the business code.
+     * @param scenario      the scenario.
+     * @param params        the params of the invocation.
+     * @return the cache scope of the invocation, or null if the extension point is not cacheable,
+     * or the params are not values.
+     */
+    public Scope scope(ExtensionSpec extensionSpec, String bizCode, String scenario, List<Object> params) {
+        if (null == extensionSpec || !extensionSpec.isCacheable()) {
+            return null;
+        }
+        Cache<ResultKey, RunnerResultCache.CachedResult> cache = caches.computeIfAbsent(extensionSpec.getCode(),
+                k -> CacheBuilder.newBuilder()
+                        .maximumSize(Math.max(1, extensionSpec.getCacheSize()))
+                        .expireAfterWrite(Math.max(1, extensionSpec.getCacheTtl()), TimeUnit.SECONDS)
+                        .build());
+        Object[] args = copyParams(params);
+        if (null == args) {
+            return null;
+        }
+        return new Scope(cache, bizCode, StringUtils.defaultString(scenario), args);
+    }
+
+    /**
+     * @return the copy of the params, or null if any param can not be copied as a value.
+     */
+    static Object[] copyParams(List<Object> params) {
+        if (null == params) {
+            return new Object[0];
+        }
+        Object[] args = new Object[params.size()];
+        for (int i = 0; i < args.length; i++) {
+            args[i] = copyParam(params.get(i));
+            if (NOT_VALUE == args[i]) {
+                return null;
+            }
+        }
+        return args;
+    }
+
+    @SuppressWarnings("unchecked")
+    private static Object copyParam(Object param) {
+        if (null == param || param instanceof Enum || VALUE_TYPES.contains(param.getClass())) {
+            return param;
+        }
+        Class<?> type = param.getClass();
+        if (type.isArray()) {
+            int length = Array.getLength(param);
+            if (type.getComponentType().isPrimitive()) {
+                Object copy = Array.newInstance(type.getComponentType(), length);
+                System.arraycopy(param, 0, copy, 0, length);
+                return copy;
+            }
+            Object[] copy = new Object[length];
+            for (int i = 0; i < length; i++) {
+                copy[i] = copyParam(Array.get(param, i));
+                if (NOT_VALUE == copy[i]) {
+                    return NOT_VALUE;
+                }
+            }
+            return copy;
+        }
+        if (param instanceof List || param instanceof Set) {
+            Collection<Object> copy = param instanceof List ?
+                    new ArrayList<>(((List<Object>) param).size()) : new HashSet<>();
+            for (Object element : (Collection<Object>) param) {
+                Object value = copyParam(element);
+                if (NOT_VALUE == value) {
+                    return NOT_VALUE;
+                }
+                copy.add(value);
+            }
+            return copy;
+        }
+        if (param instanceof Map) {
+            Map<Object, Object> copy = new HashMap<>();
+            for (Map.Entry<Object, Object> entry : ((Map<Object, Object>) param).entrySet()) {
+                Object key = copyParam(entry.getKey());
+                Object value = copyParam(entry.getValue());
+                if (NOT_VALUE == key || NOT_VALUE == value) {
+                    return NOT_VALUE;
+                }
+                copy.put(key, value);
+            }
+            return copy;
+        }
+        return NOT_VALUE;
+    }
+
+    /**
+     * Invalidate the cached results of the template, or invoked by the business.
+     *
+     * @param code the code of the business or the product.
+     */
+    public void invalidate(String code) {
+        for (Cache<ResultKey, RunnerResultCache.CachedResult> cache : caches.values()) {
+            cache.asMap().keySet().removeIf(p -> StringUtils.equals(code, p.bizCode)
+                    || StringUtils.equals(code, p.templateCode));
+        }
+    }
+
+    @Override
+    public void init() {
+
+    }
+
+    @Override
+    public void clear() {
+        caches.values().forEach(Cache::invalidateAll);
+        caches.clear();
+    }
+
+    /**
+     * The cache of one invocation.
+     */
+    public static final class Scope implements RunnerResultCache {
+
+        private final Cache<ResultKey, RunnerResultCache.CachedResult> cache;
+
+        private final String bizCode;
+
+        private final String scenario;
+
+        private final Object[] params;
+
+        private final int paramsHash;
+
+        Scope(Cache<ResultKey, RunnerResultCache.CachedResult> cache, String bizCode, String scenario, Object[] params) {
+            this.cache = cache;
+            this.bizCode = bizCode;
+            this.scenario = scenario;
+            this.params = params;
+            this.paramsHash = Arrays.deepHashCode(params);
+        }
+
+        @Override
+        @SuppressWarnings("rawtypes")
+        public RunnerResultCache.CachedResult get(TemplateSpec template, ExtensionRunnerType runnerType) {
+            if (null == template) {
+                return null;
+            }
+            return cache.getIfPresent(new ResultKey(this, template.getCode(), runnerType));
+        }
+
+        @Override
+        @SuppressWarnings("rawtypes")
+        public void put(TemplateSpec template, ExtensionRunnerType runnerType, List<?> results) {
+            if (null == template || null == results) {
+                return;
+            }
+            cache.put(new ResultKey(this, template.getCode(), runnerType),
+                    new RunnerResultCache.CachedResult(runnerType, Collections.unmodifiableList(new ArrayList<>(results))));
+        }
+    }
+
+    private static final class ResultKey {
+
+        private final String bizCode;
+
+        private final String scenario;
+
+        private final String templateCode;
+
+        private final ExtensionRunnerType runnerType;
+
+        private final Object[] params;
+
+        private final int hash;
+
+        ResultKey(Scope scope, String templateCode, ExtensionRunnerType runnerType) {
+            this.bizCode = scope.bizCode;
+            this.scenario = scope.scenario;
+            this.templateCode = templateCode;
+            this.runnerType = runnerType;
+            this.params = scope.params;
+            this.hash = 31 * Objects.hash(bizCode, scenario, templateCode, runnerType) + scope.paramsHash;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) return true;
+            if (o == null || getClass() != o.getClass()) return false;
+            ResultKey that = (ResultKey) o;
+            return hash == that.hash && runnerType == that.runnerType
+                    && Objects.equals(templateCode, that.templateCode)
+                    && Objects.equals(bizCode, that.bizCode)
+                    && scenario.equals(that.scenario)
+                    && Arrays.deepEquals(params, that.params);
+        }
+
+        @Override
+        public int hashCode() {
+            return hash;
+        }
+    }
+}
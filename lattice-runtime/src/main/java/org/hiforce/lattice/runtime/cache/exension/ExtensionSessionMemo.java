@@ -0,0 +1,186 @@
+package org.hiforce.lattice.runtime.cache.exension;
+
+import org.hiforce.lattice.cache.invoke.InvokeCache;
+import org.hiforce.lattice.extension.ExtensionRunnerType;
+import org.hiforce.lattice.model.register.ExtensionSpec;
+import org.hiforce.lattice.model.register.TemplateSpec;
+import org.hiforce.lattice.runtime.ability.execute.RunnerResultCache;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+
+/**
+ * The session memoization of the extension points, see
+ * {@link org.hiforce.lattice.annotation.Extension#sessionMemoized()}.
+ * <p>
+ * The result of each runner is kept in a bounded store held by the {@link InvokeCache} of current thread,
+ * keyed by (extCode, bizCode, bizId, scenario, params, template, runner type), so it takes effect only in
+ * a session, and is released together with the InvokeCache when the session exits.
+ * The key holds a copy of the params, as {@link ExtensionResultCache} does, the invocation with any
+ * param not copied as a value is not memoized.
+ * The memo captures the store when scoped, so the result of an asynchronous runner completed in
+ * another thread (e.g. the remote client thread) is memoized in the session as well.
+ * The memoized results are still reduced by the reducer of each invocation.
+ *
+ * @author Rocky Yu
+ * @since 2026/10/18
+ */
+public final class ExtensionSessionMemo implements RunnerResultCache {
+
+    /**
+     * The max size of the memoized results of a session.
+     */
+    private static final int MAX_MEMO_SIZE = 1024;
+
+    private final RunnerResultCache delegate;
+
+    private final MemoStore store;
+
+    private final String extCode;
+
+    private final String bizCode;
+
+    private final Object bizId;
+
+    private final String scenario;
+
+    private final Object[] params;
+
+    private final int hash;
+
+    private ExtensionSessionMemo(RunnerResultCache delegate, MemoStore store, String extCode, String bizCode,
+                                 Object bizId, String scenario, Object[] params) {
+        this.delegate = delegate;
+        this.store = store;
+        this.extCode = extCode;
+        this.bizCode = bizCode;
+        this.bizId = bizId;
+        this.scenario = scenario;
+        this.params = params;
+        this.hash = 31 * Objects.hash(extCode, bizCode, bizId, scenario) + Arrays.deepHashCode(params);
+    }
+
+    /**
+     * @param extensionSpec the extension point.
+     * @param delegate      the cross-request result cache, consulted when not memoized, nullable.
+     * @param bizCode       the business code.
+     * @param bizId         the id of the business object.
+     * @param scenario      the scenario.
+     * @param params        the invoke params.
+     * @return the memo of the invocation, or the delegate if the extension point is not memoized,
+     * not in a session, or any param is not a value.
+     */
+    public static RunnerResultCache scope(ExtensionSpec extensionSpec, RunnerResultCache delegate,
+                                          String bizCode, Object bizId, String scenario, List<Object> params) {
+        if (null == extensionSpec || !extensionSpec.isSessionMemoized() || !InvokeCache.isThreadLocalInit()) {
+            return delegate;
+        }
+        Object[] args = ExtensionResultCache.copyParams(params);
+        if (null == args) {
+            return delegate;
+        }
+        MemoStore store = InvokeCache.instance().get(MemoStore.class, MemoStore.class, MemoStore::new);
+        return new ExtensionSessionMemo(delegate, store, extensionSpec.getCode(), bizCode, bizId, scenario, args);
+    }
+
+    /**
+     * Release the memoized results of current thread.
+     */
+    public static void clear() {
+        if (InvokeCache.isThreadLocalInit()) {
+            InvokeCache.instance().clear(MemoStore.class);
+        }
+    }
+
+    @Override
+    @SuppressWarnings("rawtypes")
+    public CachedResult get(TemplateSpec template, ExtensionRunnerType runnerType) {
+        if (null == template) {
+            return null;
+        }
+        MemoKey key = new MemoKey(this, template.getCode(), runnerType);
+        CachedResult cached = store.get(key);
+        if (null == cached && null != delegate) {
+            cached = delegate.get(template, runnerType);
+            if (null != cached) {
+                store.put(key, cached);
+            }
+        }
+        return cached;
+    }
+
+    @Override
+    @SuppressWarnings("rawtypes")
+    public void put(TemplateSpec template, ExtensionRunnerType runnerType, List<?> results) {
+        if (null == template || null == results) {
+            return;
+        }
+        store.put(new MemoKey(this, template.getCode(), runnerType),
+                new CachedResult(runnerType, Collections.unmodifiableList(new ArrayList<>(results))));
+        if (null != delegate) {
+            delegate.put(template, runnerType, results);
+        }
+    }
+
+    private static final class MemoKey {
+
+        private final ExtensionSessionMemo memo;
+
+        private final String templateCode;
+
+        private final ExtensionRunnerType runnerType;
+
+        MemoKey(ExtensionSessionMemo memo, String templateCode, ExtensionRunnerType runnerType) {
+            this.memo = memo;
+            this.templateCode = templateCode;
+            this.runnerType = runnerType;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) return true;
+            if (o == null || getClass() != o.getClass()) return false;
+            MemoKey that = (MemoKey) o;
+            ExtensionSessionMemo m1 = memo, m2 = that.memo;
+            return runnerType == that.runnerType && m1.hash == m2.hash
+                    && Objects.equals(templateCode, that.templateCode)
+                    && Objects.equals(m1.extCode, m2.extCode)
+                    && Objects.equals(m1.bizCode, m2.bizCode)
+                    && Objects.equals(m1.bizId, m2.bizId)
+                    && Objects.equals(m1.scenario, m2.scenario)
+                    && Arrays.deepEquals(m1.params, m2.params);
+        }
+
+        @Override
+        public int hashCode() {
+            return 31 * memo.hash + Objects.hash(templateCode, runnerType);
+        }
+    }
+
+    /**
+     * The memoized results of a session, the least recently used are evicted beyond {@link #MAX_MEMO_SIZE}.
+     * Synchronized, as the asynchronous runners complete in other threads.
+     */
+    private static final class MemoStore {
+
+        private final Map<MemoKey, CachedResult> results = new LinkedHashMap<MemoKey, CachedResult>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<MemoKey, CachedResult> eldest) {
+                return size() > MAX_MEMO_SIZE;
+            }
+        };
+
+        synchronized CachedResult get(MemoKey key) {
+            return results.get(key);
+        }
+
+        synchronized void put(MemoKey key, CachedResult result) {
+            results.put(key, result);
+        }
+    }
+}
@@ -6,6 +6,7 @@ import org.hiforce.lattice.model.business.ITemplate;
 import org.hiforce.lattice.model.register.BaseSpec;
 import org.hiforce.lattice.model.register.TemplateSpec;
 import org.hiforce.lattice.runtime.Lattice;
+import org.hiforce.lattice.runtime.LatticeSnapshot;
 import org.hiforce.lattice.runtime.cache.LatticeCache;
 import org.hiforce.lattice.runtime.cache.MultiKeyCache;
 import org.hiforce.lattice.sequence.SequenceGenerator;
@@ -15,15 +16,10 @@ import org.hiforce.lattice.sequence.SequenceGenerator;
  * @since 2018/7/30
  */
 public class TemplateIndex extends MultiKeyCache<String, Long, BaseSpec>
-        implements ITemplateCache, LatticeCache {
-
-    private static TemplateIndex instance;
+        implements ITemplateCache, LatticeCache, LatticeSnapshot.Copyable<TemplateIndex> {
 
     public static TemplateIndex getInstance() {
-        if (null == instance) {
-            instance = new TemplateIndex();
-        }
-        return instance;
+        return LatticeSnapshot.current().getComponent(TemplateIndex.class, TemplateIndex::new);
     }
 
     private TemplateIndex() {
@@ -36,6 +32,15 @@ public class TemplateIndex extends MultiKeyCache<String, Long, BaseSpec>
         put(template.getCode(),SequenceGenerator.next(ITemplate.class.getName()), template);
     }
 
+    @Override
+    public TemplateIndex copy() {
+        TemplateIndex index = new TemplateIndex();
+        index.firstKeyCacheMap.putAll(firstKeyCacheMap);
+        index.secondKeyCacheMap.putAll(secondKeyCacheMap);
+        index.firstKey2SecondKeyMap.putAll(firstKey2SecondKeyMap);
+        return index;
+    }
+
     @Override
     public void init() {
         Lattice.getInstance().getAllRegisteredProducts()
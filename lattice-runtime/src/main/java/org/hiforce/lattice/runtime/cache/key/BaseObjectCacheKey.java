@@ -3,7 +3,6 @@ package org.hiforce.lattice.runtime.cache.key;
 
 import lombok.Getter;
 import lombok.Setter;
-import org.apache.commons.lang3.StringUtils;
 import org.hiforce.lattice.runtime.Lattice;
 import org.hiforce.lattice.runtime.cache.LatticeRuntimeCache;
 
@@ -13,22 +12,7 @@ import org.hiforce.lattice.runtime.cache.LatticeRuntimeCache;
  */
 public abstract class BaseObjectCacheKey {
 
-    private static final int templateCodeLen = 5;
-    private static final int supportCustomBitLen = 1;
-    private static final int scenarioBitLen = 2;
-    private static final int bizCodeBitLen = 4;
-    private static final int extCodeBitLen = 6;
-
-    private static final int extCodeStart = 0;
-    private static final int bizCodeStart = extCodeStart + extCodeBitLen;//6
-    private static final int scenarioStart = bizCodeStart + bizCodeBitLen;//10
-    private static final int supportCustomStart = scenarioStart - scenarioBitLen;//12
-    private static final int templateStart = supportCustomStart - supportCustomBitLen; //13
-    private static final int productStart = templateStart + templateCodeLen; //18
-
-    private static final long[] uniqueIdStarts = new long[productStart + 1];
-
-    private static final Long NO_INDEX = (long) -1;
+    private static final Long NO_INDEX = ObjectCacheKeyEncoder.NO_INDEX;
 
     @Getter
     @Setter
@@ -50,12 +34,6 @@ public abstract class BaseObjectCacheKey {
     @Setter
     private Long scenarioIndex;
 
-    static {
-        for (int i = 0; i < uniqueIdStarts.length; i++) {
-            uniqueIdStarts[i] = (long) Math.pow(10, i);
-        }
-    }
-
     public abstract String getBizCode();
 
     public abstract String getTemplateCode();
@@ -92,15 +70,12 @@ public abstract class BaseObjectCacheKey {
             uniqueId = NO_INDEX;
             return;
         }
-        long customIndex = isSupportCustomization() ? 1L : 0L;
-        long onlyProductIndex = isOnlyProduct() ? 1L : 0L;
-
-        long uniqueId = onlyProductIndex * uniqueIdStarts[productStart]
-                + (null == templateIndex ? 0L : templateIndex) * uniqueIdStarts[templateStart]
-                + customIndex * uniqueIdStarts[supportCustomStart]
-                + (null == scenarioIndex ? 0L : scenarioIndex) * uniqueIdStarts[scenarioStart]
-                + (null == bizCodeIndex ? 0L : bizCodeIndex) * uniqueIdStarts[bizCodeStart]
-                + (null == extCodeIndex ? 0L : extCodeIndex) * uniqueIdStarts[extCodeStart];
+        long uniqueId = ObjectCacheKeyEncoder.encode(
+                null == extCodeIndex ? 0L : extCodeIndex,
+                null == bizCodeIndex ? 0L : bizCodeIndex,
+                null == scenarioIndex ? 0L : scenarioIndex,
+                null == templateIndex ? 0L : templateIndex,
+                isSupportCustomization(), isOnlyProduct());
 
         setUniqueId(uniqueId);
     }
@@ -120,12 +95,7 @@ public abstract class BaseObjectCacheKey {
                     .getSecondKeyViaFirstKey(getExtensionCode());
         }
         if (null == scenarioIndex) {
-            if (StringUtils.isEmpty(getScenario())) {
-                scenarioIndex = 0L;
-            } else {
-                Long scenario = runtimeCache.getInvokeCache().getScenarioIndex(getScenario());
-                scenarioIndex = scenario == null ? 0L : scenario;
-            }
+            scenarioIndex = runtimeCache.getInvokeCache().getScenarioIndexOrDefault(getScenario());
         }
         if (null == templateIndex || templateIndex <= 0) {
             templateIndex = null == getTemplateCode() ? null : runtimeCache
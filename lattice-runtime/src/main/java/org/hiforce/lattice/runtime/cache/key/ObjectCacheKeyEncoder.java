@@ -0,0 +1,161 @@
+package org.hiforce.lattice.runtime.cache.key;
+
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Encode the cache unique id from the interned indexes directly, so the hot lookups
+ * no need to create a cache key object.
+ * <p>
+ * The indexes are packed into explicit bit fields of a positive long:
+ * <pre>
+ * bit  0 - 23 : extension index
+ * bit 24 - 47 : template index (the business index or the template index)
+ * bit 48 - 58 : scenario index
+ * bit 59      : whether the template field holds the template index or the business index
+ * bit 60      : support customization
+ * bit 61      : only product
+ * bit 62      : overflow, the low bits is a sequence of the overflow key registry
+ * </pre>
+ * If any index outgrows its field, the indexes are kept as a composite key in the overflow
+ * registry and a sequence id with the overflow bit is returned, so the id is always collision-free.
+ *
+ * @author Rocky Yu
+ * @since 2026/10/18
+ */
+public final class ObjectCacheKeyEncoder {
+
+    public static final long NO_INDEX = -1L;
+
+    private static final int EXT_CODE_BITS = 24;
+    private static final int TEMPLATE_BITS = 24;
+    private static final int SCENARIO_BITS = 11;
+
+    private static final int EXT_CODE_SHIFT = 0;
+    private static final int TEMPLATE_SHIFT = EXT_CODE_SHIFT + EXT_CODE_BITS;//24
+    private static final int SCENARIO_SHIFT = TEMPLATE_SHIFT + TEMPLATE_BITS;//48
+    private static final int TEMPLATE_KIND_SHIFT = SCENARIO_SHIFT + SCENARIO_BITS;//59
+    private static final int SUPPORT_CUSTOM_SHIFT = TEMPLATE_KIND_SHIFT + 1;//60
+    private static final int ONLY_PRODUCT_SHIFT = SUPPORT_CUSTOM_SHIFT + 1;//61
+    private static final int OVERFLOW_SHIFT = ONLY_PRODUCT_SHIFT + 1;//62
+
+    public static final long MAX_EXT_CODE_INDEX = (1L << EXT_CODE_BITS) - 1;
+    public static final long MAX_TEMPLATE_INDEX = (1L << TEMPLATE_BITS) - 1;
+    public static final long MAX_SCENARIO_INDEX = (1L << SCENARIO_BITS) - 1;
+
+    private static final long OVERFLOW_FLAG = 1L << OVERFLOW_SHIFT;
+
+    private static final Map<CompositeKey, Long> OVERFLOW_KEYS = new ConcurrentHashMap<>();
+
+    private static final AtomicLong OVERFLOW_SEQUENCE = new AtomicLong();
+
+    private ObjectCacheKeyEncoder() {
+
+    }
+
+    /**
+     * @return the unique id of the extension runners cache.
+     */
+    public static long encodeRunnerKey(long extCodeIndex, long bizCodeIndex, long scenarioIndex,
+                                       boolean supportCustomization, boolean onlyProduct) {
+        return encode(extCodeIndex, bizCodeIndex, scenarioIndex, 0L, supportCustomization, onlyProduct);
+    }
+
+    /**
+     * @return the unique id of the extension realization cache.
+     */
+    public static long encodeInvokeKey(long templateIndex, long scenarioIndex, long extCodeIndex) {
+        return encode(extCodeIndex, 0L, scenarioIndex, templateIndex, false, false);
+    }
+
+    public static long encode(long extCodeIndex, long bizCodeIndex, long scenarioIndex, long templateIndex,
+                              boolean supportCustomization, boolean onlyProduct) {
+        if (!inRange(extCodeIndex, MAX_EXT_CODE_INDEX)
+                || !inRange(scenarioIndex, MAX_SCENARIO_INDEX)
+                || !inRange(bizCodeIndex, MAX_TEMPLATE_INDEX)
+                || !inRange(templateIndex, MAX_TEMPLATE_INDEX)
+                || (bizCodeIndex != 0L && templateIndex != 0L)) {
+            return encodeOverflow(new CompositeKey(extCodeIndex, bizCodeIndex, scenarioIndex, templateIndex,
+                    supportCustomization, onlyProduct));
+        }
+        boolean isTemplate = templateIndex != 0L;
+        return extCodeIndex << EXT_CODE_SHIFT
+                | (isTemplate ? templateIndex : bizCodeIndex) << TEMPLATE_SHIFT
+                | scenarioIndex << SCENARIO_SHIFT
+                | (isTemplate ? 1L : 0L) << TEMPLATE_KIND_SHIFT
+                | (supportCustomization ? 1L : 0L) << SUPPORT_CUSTOM_SHIFT
+                | (onlyProduct ? 1L : 0L) << ONLY_PRODUCT_SHIFT;
+    }
+
+    public static boolean isOverflow(long uniqueId) {
+        return uniqueId > 0 && (uniqueId & OVERFLOW_FLAG) != 0;
+    }
+
+    /**
+     * Clear the overflow key registry, should be called together with the caches using the ids.
+     */
+    public static void clearOverflowKeys() {
+        OVERFLOW_KEYS.clear();
+    }
+
+    private static boolean inRange(long index, long max) {
+        return index >= 0 && index <= max;
+    }
+
+    private static long encodeOverflow(CompositeKey key) {
+        Long uniqueId = OVERFLOW_KEYS.get(key);
+        if (null != uniqueId) {
+            return uniqueId;
+        }
+        return OVERFLOW_KEYS.computeIfAbsent(key, k -> OVERFLOW_FLAG | OVERFLOW_SEQUENCE.incrementAndGet());
+    }
+
+    private static final class CompositeKey {
+
+        private final long extCodeIndex;
+
+        private final long bizCodeIndex;
+
+        private final long scenarioIndex;
+
+        private final long templateIndex;
+
+        private final boolean supportCustomization;
+
+        private final boolean onlyProduct;
+
+        private final int hash;
+
+        CompositeKey(long extCodeIndex, long bizCodeIndex, long scenarioIndex, long templateIndex,
+                     boolean supportCustomization, boolean onlyProduct) {
+            this.extCodeIndex = extCodeIndex;
+            this.bizCodeIndex = bizCodeIndex;
+            this.scenarioIndex = scenarioIndex;
+            this.templateIndex = templateIndex;
+            this.supportCustomization = supportCustomization;
+            this.onlyProduct = onlyProduct;
+            this.hash = Objects.hash(extCodeIndex, bizCodeIndex, scenarioIndex, templateIndex,
+                    supportCustomization, onlyProduct);
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) return true;
+            if (o == null || getClass() != o.getClass()) return false;
+            CompositeKey that = (CompositeKey) o;
+            return extCodeIndex == that.extCodeIndex
+                    && bizCodeIndex == that.bizCodeIndex
+                    && scenarioIndex == that.scenarioIndex
+                    && templateIndex == that.templateIndex
+                    && supportCustomization == that.supportCustomization
+                    && onlyProduct == that.onlyProduct;
+        }
+
+        @Override
+        public int hashCode() {
+            return hash;
+        }
+    }
+}
@@ -11,11 +11,14 @@ import org.hiforce.lattice.model.business.ITemplate;
 import org.hiforce.lattice.model.config.BusinessConfig;
 import org.hiforce.lattice.model.config.ProductConfig;
 import org.hiforce.lattice.model.context.BizSessionContext;
+import org.hiforce.lattice.model.context.EffectiveTemplates;
 import org.hiforce.lattice.model.register.ProductSpec;
 import org.hiforce.lattice.model.register.TemplateSpec;
 import org.hiforce.lattice.model.register.UseCaseSpec;
 import org.hiforce.lattice.model.scenario.ScenarioRequest;
 import org.hiforce.lattice.runtime.Lattice;
+import org.hiforce.lattice.runtime.LatticeSnapshot;
+import org.hiforce.lattice.runtime.cache.exension.ExtensionSessionMemo;
 
 import java.util.Comparator;
 import java.util.List;
@@ -42,6 +45,8 @@ public abstract class BizSessionScope<Resp, BizObject extends IBizObject>
 
     private ClassLoader originClassLoader;
 
+    private LatticeSnapshot previousSnapshot;
+
 
     public BizSessionScope(List<BizObject> bizObjects) {
         if (CollectionUtils.isEmpty(bizObjects)) {
@@ -69,6 +74,8 @@ public abstract class BizSessionScope<Resp, BizObject extends IBizObject>
 
     @Override
     protected void entrance() {
+        // 会话期间固定使用进入时发布的快照，reload不影响进行中的会话
+        previousSnapshot = LatticeSnapshot.pin();
         if( !Lattice.getInstance().isInitialized()){
             throw new LatticeRuntimeException("LATTICE-CORE-RT-0023");
         }
@@ -92,7 +99,7 @@ public abstract class BizSessionScope<Resp, BizObject extends IBizObject>
                     .stream().filter(p -> isTemplateEffective(p, request))
                     .collect(Collectors.toList()));
             templates.sort(Comparator.comparingInt(TemplateSpec::getPriority));
-            context.getEffectiveTemplates().put(request.getBizObject().getBizContext().toString(), templates);
+            context.getEffectiveTemplates().put(request.getBizObject().getBizContext(), new EffectiveTemplates(templates));
         }
     }
 
@@ -107,11 +114,7 @@ public abstract class BizSessionScope<Resp, BizObject extends IBizObject>
         if (null == templateSpec) {
             return false;
         }
-        ITemplate template = templateSpec.newInstance();
-        if (null == template) {
-            return false;
-        }
-        return template.isEffect(request);
+        return templateSpec.isEffect(request);
     }
 
     private List<ProductSpec> loadBusinessInstalledProducts(String bizCode) {
@@ -145,8 +148,11 @@ public abstract class BizSessionScope<Resp, BizObject extends IBizObject>
         //TODO: clear the lattice BizSession Context.
         if (!invokeCacheInit) { //if InvokeCache is init by BizSessionScope, release it.
             InvokeCache.forceClear();
+        } else {
+            ExtensionSessionMemo.clear();
         }
         BizSessionContext.destroy();
+        LatticeSnapshot.restore(previousSnapshot);
     }
 
     @Override
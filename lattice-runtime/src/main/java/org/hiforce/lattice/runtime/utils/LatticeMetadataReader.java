@@ -0,0 +1,211 @@
+package org.hiforce.lattice.runtime.utils;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.commons.lang3.StringUtils;
+import org.hiforce.lattice.utils.JacksonUtils;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URL;
+import java.net.URLClassLoader;
+import java.util.Enumeration;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.jar.JarEntry;
+import java.util.jar.JarFile;
+
+/**
+ * Reads the build-time metadata <code>META-INF/lattice/lattice.json</code> written by the
+ * lattice-maven-build-plugin. It is read as a json tree, as the runtime does not depend on the plugin model.
+ *
+ * @author Rocky Yu
+ * @since 2026/10/18
+ */
+@Slf4j
+public final class LatticeMetadataReader {
+
+    public static final String METADATA_FILE = "META-INF/lattice/lattice.json";
+
+    private LatticeMetadataReader() {
+
+    }
+
+    /**
+     * A package is described only if every jar or directory containing the package, or one of its
+     * classes, has a metadata file describing the package. Otherwise, e.g. another jar adds the classes
+     * to the package, the package is left out and should be scanned.
+     * <p>
+     * The jars may have no directory entries, so the entries of every jar on the class path of the
+     * class loader (the urls of the URLClassLoaders and <code>java.class.path</code>) are checked as well.
+     *
+     * @param classLoader the class loader to find the metadata files.
+     * @return the lattice classes of the described packages (package name -> class names),
+     * merged from all the metadata files, or empty if no metadata found.
+     */
+    public static Map<String, Set<String>> loadPackageClasses(ClassLoader classLoader) {
+        Map<String, Set<String>> packageClasses = new HashMap<>();
+        Map<String, Set<String>> packageCodeSources = new HashMap<>();
+        try {
+            Enumeration<URL> urls = classLoader.getResources(METADATA_FILE);
+            while (urls.hasMoreElements()) {
+                URL url = urls.nextElement();
+                try (InputStream in = url.openStream()) {
+                    JsonNode packages = JacksonUtils.objectMapper.readTree(in).path("ability").path("packageClasses");
+                    Iterator<Map.Entry<String, JsonNode>> fields = packages.fields();
+                    while (fields.hasNext()) {
+                        Map.Entry<String, JsonNode> field = fields.next();
+                        Set<String> classNames = packageClasses.computeIfAbsent(field.getKey(), k -> new LinkedHashSet<>());
+                        field.getValue().forEach(p -> classNames.add(p.asText()));
+                        packageCodeSources.computeIfAbsent(field.getKey(), k -> new HashSet<>())
+                                .add(getCodeSource(url, METADATA_FILE));
+                    }
+                } catch (Exception ex) {
+                    log.warn("Lattice metadata ignored: " + url, ex);
+                }
+            }
+            Set<String> extendedPackages = getExtendedPackages(packageCodeSources, classLoader);
+            Iterator<Map.Entry<String, Set<String>>> iterator = packageClasses.entrySet().iterator();
+            while (iterator.hasNext()) {
+                Map.Entry<String, Set<String>> entry = iterator.next();
+                if (extendedPackages.contains(entry.getKey())
+                        || !isDescribed(entry.getKey(), entry.getValue(), packageCodeSources.get(entry.getKey()), classLoader)) {
+                    log.info("Lattice metadata not describe all the code sources of package: " + entry.getKey());
+                    iterator.remove();
+                }
+            }
+        } catch (Exception ex) {
+            log.warn(ex.getMessage(), ex);
+            packageClasses.clear();
+        }
+        return packageClasses;
+    }
+
+    private static boolean isDescribed(String pkg, Set<String> classNames, Set<String> codeSources,
+                                       ClassLoader classLoader) throws IOException {
+        String packagePath = pkg.replace('.', '/');
+        Enumeration<URL> urls = classLoader.getResources(packagePath);
+        while (urls.hasMoreElements()) {
+            if (!codeSources.contains(getCodeSource(urls.nextElement(), packagePath))) {
+                return false;
+            }
+        }
+        // the class loader may not expose its class path, checks the code sources of the classes as well.
+        for (String className : classNames) {
+            String classFile = className.replace('.', '/') + ".class";
+            URL url = classLoader.getResource(classFile);
+            if (null != url && !codeSources.contains(getCodeSource(url, classFile))) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * @return the packages which a jar or directory on the class path adds classes to, without
+     * describing the package in its metadata file.
+     */
+    private static Set<String> getExtendedPackages(Map<String, Set<String>> packageCodeSources,
+                                                   ClassLoader classLoader) {
+        Set<String> extendedPackages = new HashSet<>();
+        for (File root : getClassPathRoots(classLoader)) {
+            String codeSource = root.getAbsolutePath();
+            Map<String, String> packagePaths = new HashMap<>();
+            packageCodeSources.forEach((pkg, codeSources) -> {
+                if (!extendedPackages.contains(pkg) && !codeSources.contains(codeSource)) {
+                    packagePaths.put(pkg.replace('.', '/'), pkg);
+                }
+            });
+            if (packagePaths.isEmpty()) {
+                continue;
+            }
+            if (root.isDirectory()) {
+                packagePaths.forEach((path, pkg) -> {
+                    if (new File(root, path).isDirectory()) {
+                        extendedPackages.add(pkg);
+                    }
+                });
+            } else if (root.isFile()) {
+                extendedPackages.addAll(getJarPackages(root, packagePaths));
+            }
+        }
+        return extendedPackages;
+    }
+
+    /**
+     * @param packagePaths the package paths to find (package path -> package name).
+     * @return the packages which the jar has classes in, including the sub packages, as the packages
+     * are scanned recursively.
+     */
+    private static Set<String> getJarPackages(File jar, Map<String, String> packagePaths) {
+        Set<String> packages = new HashSet<>();
+        try (JarFile jarFile = new JarFile(jar)) {
+            Enumeration<JarEntry> entries = jarFile.entries();
+            while (entries.hasMoreElements() && packages.size() < packagePaths.size()) {
+                String name = entries.nextElement().getName();
+                if (!name.endsWith(".class")) {
+                    continue;
+                }
+                for (int index = name.lastIndexOf('/'); index > 0; index = name.lastIndexOf('/', index - 1)) {
+                    String pkg = packagePaths.get(name.substring(0, index));
+                    if (null != pkg) {
+                        packages.add(pkg);
+                    }
+                }
+            }
+        } catch (IOException ex) {
+            log.warn("Lattice failed to read the jar: " + jar, ex);
+            // the packages of an unreadable jar are scanned.
+            packages.addAll(packagePaths.values());
+        }
+        return packages;
+    }
+
+    private static Set<File> getClassPathRoots(ClassLoader classLoader) {
+        Set<File> roots = new LinkedHashSet<>();
+        ClassLoader systemClassLoader = ClassLoader.getSystemClassLoader();
+        for (ClassLoader loader = classLoader; null != loader; loader = loader.getParent()) {
+            if (loader instanceof URLClassLoader) {
+                for (URL url : ((URLClassLoader) loader).getURLs()) {
+                    if ("file".equals(url.getProtocol())) {
+                        roots.add(new File(toPath(url.toString())));
+                    }
+                }
+            }
+            if (loader == systemClassLoader) {
+                // the system class loader of JDK 9+ is not a URLClassLoader.
+                for (String path : StringUtils.split(System.getProperty("java.class.path", ""), File.pathSeparator)) {
+                    roots.add(new File(path).getAbsoluteFile());
+                }
+                break;
+            }
+        }
+        return roots;
+    }
+
+    /**
+     * @return the path of the jar or directory which contains the resource, or its url if not a local file.
+     */
+    private static String getCodeSource(URL url, String resourceName) {
+        String path = StringUtils.removeEnd(url.toString(), "/");
+        return toPath(StringUtils.removeEnd(path, resourceName));
+    }
+
+    private static String toPath(String codeSource) {
+        String path = StringUtils.removeEnd(StringUtils.removeStart(codeSource, "jar:"), "!/");
+        try {
+            URL url = new URL(path);
+            if ("file".equals(url.getProtocol())) {
+                return new File(url.toURI()).getAbsolutePath();
+            }
+        } catch (Exception ex) {
+            // not a local file, e.g. a nested jar.
+        }
+        return codeSource;
+    }
+}
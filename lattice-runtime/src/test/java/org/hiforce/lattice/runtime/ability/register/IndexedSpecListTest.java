@@ -0,0 +1,99 @@
+package org.hiforce.lattice.runtime.ability.register;
+
+import org.hiforce.lattice.model.register.BusinessSpec;
+import org.junit.Test;
+
+import java.util.Comparator;
+import java.util.Iterator;
+
+import static org.junit.Assert.*;
+
+/**
+ * @author Rocky Yu
+ * @since 2026/10/18
+ */
+public class IndexedSpecListTest {
+
+    @Test
+    public void testFirstWithTheCode() {
+        IndexedSpecList<BusinessSpec> list = new IndexedSpecList<>();
+        BusinessSpec a1 = spec("a", 2);
+        BusinessSpec a2 = spec("a", 1);
+        list.add(a1);
+        list.add(a2);
+        list.add(spec("b", 3));
+        assertSame(a1, list.getByCode("a"));
+        assertTrue(list.containsCode("b"));
+        assertNull(list.getByCode("c"));
+        assertNull(list.getByCode(null));
+
+        // insert before the first one.
+        BusinessSpec a0 = spec("a", 0);
+        list.add(0, a0);
+        assertSame(a0, list.getByCode("a"));
+    }
+
+    @Test
+    public void testRemove() {
+        IndexedSpecList<BusinessSpec> list = new IndexedSpecList<>();
+        BusinessSpec a1 = spec("a", 1);
+        BusinessSpec a2 = spec("a", 2);
+        list.add(a1);
+        list.add(a2);
+        list.remove(0);
+        assertSame(a2, list.getByCode("a"));
+        list.remove(a2);
+        assertNull(list.getByCode("a"));
+
+        list.add(a1);
+        list.add(spec("b", 1));
+        Iterator<BusinessSpec> iterator = list.iterator();
+        iterator.next();
+        iterator.remove();
+        assertNull(list.getByCode("a"));
+        assertNotNull(list.getByCode("b"));
+    }
+
+    @Test
+    public void testRemoveIf() {
+        IndexedSpecList<BusinessSpec> list = new IndexedSpecList<>();
+        BusinessSpec a1 = spec("a", 1);
+        BusinessSpec a2 = spec("a", 2);
+        list.add(a1);
+        list.add(spec("b", 1));
+        list.add(a2);
+        assertTrue(list.removeIf(p -> p == a1 || "b".equals(p.getCode())));
+        assertFalse(list.removeIf(p -> "c".equals(p.getCode())));
+        assertSame(a2, list.getByCode("a"));
+        assertNull(list.getByCode("b"));
+        assertEquals(1, list.size());
+    }
+
+    @Test
+    public void testSortAndSet() {
+        IndexedSpecList<BusinessSpec> list = new IndexedSpecList<>();
+        BusinessSpec a1 = spec("a", 2);
+        BusinessSpec a2 = spec("a", 1);
+        list.add(a1);
+        list.add(a2);
+        list.sort(Comparator.comparingInt(BusinessSpec::getPriority));
+        assertSame(a2, list.getByCode("a"));
+
+        BusinessSpec b = spec("b", 1);
+        assertSame(a2, list.set(0, b));
+        assertSame(a1, list.getByCode("a"));
+        assertSame(b, list.getByCode("b"));
+
+        list.clear();
+        assertTrue(list.isEmpty());
+        assertNull(list.getByCode("a"));
+        assertNull(list.getByCode("b"));
+    }
+
+    private static BusinessSpec spec(String code, int priority) {
+        BusinessSpec spec = new BusinessSpec();
+        spec.setCode(code);
+        spec.setPriority(priority);
+        return spec;
+    }
+}
@@ -0,0 +1,102 @@
+package org.hiforce.lattice.runtime.cache.exension;
+
+import org.hiforce.lattice.model.business.BizContext;
+import org.hiforce.lattice.model.register.ExtensionSpec;
+import org.hiforce.lattice.model.register.RealizationSpec;
+import org.hiforce.lattice.model.register.TemplateSpec;
+import org.hiforce.lattice.runtime.Lattice;
+import org.hiforce.lattice.runtime.cache.ability.AbilityCache;
+import org.hiforce.lattice.runtime.cache.key.ExtensionRunnerCacheKey;
+import org.hiforce.lattice.runtime.cache.key.ObjectCacheKeyEncoder;
+import org.hiforce.lattice.test.ability.SampleAbility;
+import org.hiforce.lattice.test.business.BusinessA;
+import org.hiforce.lattice.test.business.BusinessAExt;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+import java.io.Serializable;
+
+import static org.hiforce.lattice.runtime.cache.exension.ExtensionInvokeCache.UNDECLARED_SCENARIO_INDEX;
+import static org.junit.Assert.*;
+
+/**
+ * @author Rocky Yu
+ * @since 2026/10/18
+ */
+public class ExtensionInvokeCacheTest {
+
+    @BeforeClass
+    public static void start() {
+        Lattice.getInstance().setSimpleMode(true);
+        Lattice.getInstance().start();
+    }
+
+    @Test
+    public void testScenarioIndex() {
+        ExtensionInvokeCache cache = ExtensionInvokeCache.getInstance();
+        assertEquals(0L, cache.getScenarioIndexOrDefault(null));
+        assertEquals(0L, cache.getScenarioIndexOrDefault(""));
+        assertEquals(UNDECLARED_SCENARIO_INDEX, cache.getScenarioIndexOrDefault("scenario.a"));
+        assertEquals(UNDECLARED_SCENARIO_INDEX, cache.getScenarioIndexOrDefault("scenario.b"));
+        assertTrue(cache.isScenarioUndeclared("scenario.a"));
+        assertFalse(cache.isScenarioUndeclared(""));
+        assertFalse(cache.isScenarioUndeclared(null));
+    }
+
+    @Test
+    public void testUndeclaredScenarioCached() {
+        createAbility("scenario.x").invokeExtension();
+
+        ExtensionSpec extension = getExtension();
+        TemplateSpec template = Lattice.getInstance().getRegisteredBusinessByCode(BusinessA.CODE);
+        // the undeclared scenarios share the realizations.
+        long invokeKey = ObjectCacheKeyEncoder.encodeInvokeKey(
+                template.getInternalId(), UNDECLARED_SCENARIO_INDEX, extension.getInternalId());
+        assertTrue(ExtensionInvokeCache.getInstance().getCachedExtensionRealization(invokeKey) instanceof BusinessAExt);
+
+        // but not the runners, as the remote runners capture the scenario.
+        SampleAbility ability = createAbility("scenario.y");
+        ExtensionRunnerCacheKey runnerKeyX = new ExtensionRunnerCacheKey(extension.getCode(), BusinessA.CODE,
+                "scenario.x", ability.supportCustomization(), false);
+        ExtensionRunnerCacheKey runnerKeyY = new ExtensionRunnerCacheKey(extension.getCode(), BusinessA.CODE,
+                "scenario.y", ability.supportCustomization(), false);
+        assertEquals(runnerKeyX.getUniqueId(), runnerKeyY.getUniqueId());
+
+        Object runnersX = AbilityCache.getInstance().getCachedExtensionRunner(SampleAbility.class, runnerKeyX);
+        assertNotNull(runnersX);
+        assertNull(AbilityCache.getInstance().getCachedExtensionRunner(SampleAbility.class, runnerKeyY));
+
+        ability.invokeExtension();
+        Object runnersY = AbilityCache.getInstance().getCachedExtensionRunner(SampleAbility.class, runnerKeyY);
+        assertNotNull(runnersY);
+        assertNotSame(runnersX, runnersY);
+    }
+
+    private static ExtensionSpec getExtension() {
+        RealizationSpec realization = Lattice.getInstance().getAllRealizations().stream()
+                .filter(p -> BusinessAExt.class.equals(p.getBusinessExtClass()))
+                .findFirst().orElseThrow(IllegalStateException::new);
+        String extCode = realization.getExtensionCodes().iterator().next();
+        return ExtensionCache.getInstance().getExtensionSpecByCode(extCode);
+    }
+
+    private static SampleAbility createAbility(String scenario) {
+        return new SampleAbility(() -> new BizContext() {
+
+            @Override
+            public Serializable getBizId() {
+                return 1;
+            }
+
+            @Override
+            public String getBizCode() {
+                return BusinessA.CODE;
+            }
+
+            @Override
+            public String getScenario() {
+                return scenario;
+            }
+        });
+    }
+}
@@ -0,0 +1,114 @@
+package org.hiforce.lattice.runtime.cache.exension;
+
+import org.hiforce.lattice.extension.ExtensionRunnerType;
+import org.hiforce.lattice.model.register.BusinessSpec;
+import org.hiforce.lattice.model.register.ExtensionSpec;
+import org.hiforce.lattice.runtime.ability.execute.RunnerResultCache;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.Assert.*;
+
+/**
+ * @author Rocky Yu
+ * @since 2026/10/18
+ */
+public class ExtensionResultCacheTest {
+
+    private static final String BIZ_CODE = "business.result";
+
+    private final ExtensionSpec extension = ExtensionSpec.of(
+            Object.class.getMethods()[0], "ability.result", "ext.result", "result", null);
+
+    private final BusinessSpec template = new BusinessSpec();
+
+    @Before
+    public void setUp() {
+        extension.setCacheable(true);
+        extension.setCacheSize(100);
+        extension.setCacheTtl(60);
+        template.setCode(BIZ_CODE);
+        ExtensionResultCache.getInstance().invalidate(BIZ_CODE);
+    }
+
+    @Test
+    public void testNotCacheable() {
+        extension.setCacheable(false);
+        assertNull(scope("a"));
+    }
+
+    @Test
+    public void testValueParams() {
+        scope("a", 1, 2L, true, 'c', BigDecimal.ONE, ExtensionRunnerType.JAVA, null)
+                .put(template, ExtensionRunnerType.JAVA, Collections.singletonList("r"));
+        RunnerResultCache.CachedResult cached = scope("a", 1, 2L, true, 'c', BigDecimal.ONE, ExtensionRunnerType.JAVA, null)
+                .get(template, ExtensionRunnerType.JAVA);
+        assertNotNull(cached);
+        assertEquals(Collections.singletonList("r"), cached.getResults());
+        assertNull(scope("a", 1, 2L, true, 'c', BigDecimal.ONE, ExtensionRunnerType.RMI, null)
+                .get(template, ExtensionRunnerType.JAVA));
+        assertNull(scope("a", 1).get(template, ExtensionRunnerType.RMI));
+    }
+
+    @Test
+    public void testMutableParamsCopied() {
+        List<String> list = new ArrayList<>(Collections.singletonList("a"));
+        int[] array = {1, 2};
+        Map<String, List<String>> map = new HashMap<>();
+        map.put("k", new ArrayList<>(Collections.singletonList("v")));
+        scope(list, array, map).put(template, ExtensionRunnerType.JAVA, Collections.singletonList("r"));
+
+        // the key holds the copies, mutating the params does not change the cached key.
+        list.set(0, "b");
+        array[0] = 3;
+        map.get("k").add("w");
+        assertNull(scope(list, array, map).get(template, ExtensionRunnerType.JAVA));
+
+        Map<String, List<String>> origin = new HashMap<>();
+        origin.put("k", Collections.singletonList("v"));
+        assertNotNull(scope(Collections.singletonList("a"), new int[]{1, 2}, origin)
+                .get(template, ExtensionRunnerType.JAVA));
+    }
+
+    @Test
+    public void testNotValueParams() {
+        assertNull(scope(new StringBuilder("a")));
+        assertNull(scope(Collections.singletonList(new StringBuilder("a"))));
+        assertNull(scope((Object) new Object[]{"a", new Object()}));
+        assertNull(scope(Collections.singletonMap("k", new ArrayList<>(Collections.singletonList(new Object())))));
+    }
+
+    @Test
+    public void testInvalidate() {
+        scope("a").put(template, ExtensionRunnerType.JAVA, Collections.singletonList("r"));
+        assertNotNull(scope("a").get(template, ExtensionRunnerType.JAVA));
+        ExtensionResultCache.getInstance().invalidate(BIZ_CODE);
+        assertNull(scope("a").get(template, ExtensionRunnerType.JAVA));
+    }
+
+    @Test
+    public void testCachedResultsUnmodifiable() {
+        List<String> results = new ArrayList<>(Collections.singletonList("r"));
+        scope("a").put(template, ExtensionRunnerType.JAVA, results);
+        results.add("s");
+        List<?> cached = scope("a").get(template, ExtensionRunnerType.JAVA).getResults();
+        assertEquals(Collections.singletonList("r"), cached);
+        try {
+            cached.clear();
+            fail();
+        } catch (UnsupportedOperationException ignored) {
+        }
+    }
+
+    private RunnerResultCache scope(Object... params) {
+        return ExtensionResultCache.getInstance().scope(extension, BIZ_CODE, null, Arrays.asList(params));
+    }
+}
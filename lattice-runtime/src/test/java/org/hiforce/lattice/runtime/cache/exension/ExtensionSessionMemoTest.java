@@ -0,0 +1,105 @@
+package org.hiforce.lattice.runtime.cache.exension;
+
+import org.hiforce.lattice.cache.invoke.InvokeCache;
+import org.hiforce.lattice.extension.ExtensionRunnerType;
+import org.hiforce.lattice.model.register.BusinessSpec;
+import org.hiforce.lattice.model.register.ExtensionSpec;
+import org.hiforce.lattice.runtime.ability.execute.RunnerResultCache;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
+import static org.junit.Assert.*;
+
+/**
+ * @author Rocky Yu
+ * @since 2026/10/18
+ */
+public class ExtensionSessionMemoTest {
+
+    private final ExtensionSpec extension = ExtensionSpec.of(
+            Object.class.getMethods()[0], "ability.memo", "ext.memo", "memo", null);
+
+    private final BusinessSpec template = new BusinessSpec();
+
+    @Before
+    public void setUp() {
+        extension.setSessionMemoized(true);
+        template.setCode("business.memo");
+        InvokeCache.initInvokeCache();
+    }
+
+    @After
+    public void tearDown() {
+        InvokeCache.forceClear();
+    }
+
+    @Test
+    public void testNotInSession() {
+        InvokeCache.forceClear();
+        assertNull(scope("a"));
+    }
+
+    @Test
+    public void testNotMemoized() {
+        extension.setSessionMemoized(false);
+        assertNull(scope("a"));
+    }
+
+    @Test
+    public void testMemoized() {
+        scope("a", 1).put(template, ExtensionRunnerType.JAVA, Collections.singletonList("r"));
+
+        RunnerResultCache.CachedResult cached = scope("a", 1).get(template, ExtensionRunnerType.JAVA);
+        assertNotNull(cached);
+        assertEquals(Collections.singletonList("r"), cached.getResults());
+        assertNull(scope("a", 2).get(template, ExtensionRunnerType.JAVA));
+
+        ExtensionSessionMemo.clear();
+        assertNull(scope("a", 1).get(template, ExtensionRunnerType.JAVA));
+    }
+
+    @Test
+    public void testMutableParamCopied() {
+        List<String> param = new ArrayList<>(Collections.singletonList("a"));
+        scope(param).put(template, ExtensionRunnerType.JAVA, Collections.singletonList("r"));
+
+        // the key holds a copy, mutating the param does not change the memoized key.
+        param.set(0, "b");
+        assertNull(scope(param).get(template, ExtensionRunnerType.JAVA));
+        assertNotNull(scope(Collections.singletonList("a")).get(template, ExtensionRunnerType.JAVA));
+    }
+
+    @Test
+    public void testNotValueParamNotMemoized() {
+        assertNull(scope(new StringBuilder("a")));
+    }
+
+    @Test
+    public void testPutInAnotherThread() {
+        RunnerResultCache memo = scope("a");
+        // e.g. the asynchronous runner completed in the remote client thread.
+        CompletableFuture.runAsync(() -> memo.put(template, ExtensionRunnerType.JAVA,
+                Collections.singletonList("r"))).join();
+        assertNotNull(scope("a").get(template, ExtensionRunnerType.JAVA));
+    }
+
+    @Test
+    public void testBounded() {
+        for (int i = 0; i <= 1024; i++) {
+            scope(i).put(template, ExtensionRunnerType.JAVA, Collections.singletonList(i));
+        }
+        assertNull(scope(0).get(template, ExtensionRunnerType.JAVA));
+        assertNotNull(scope(1024).get(template, ExtensionRunnerType.JAVA));
+    }
+
+    private RunnerResultCache scope(Object... params) {
+        return ExtensionSessionMemo.scope(extension, null, "business.memo", 1L, null, Arrays.asList(params));
+    }
+}
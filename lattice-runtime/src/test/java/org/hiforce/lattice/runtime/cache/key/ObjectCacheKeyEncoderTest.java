@@ -0,0 +1,55 @@
+package org.hiforce.lattice.runtime.cache.key;
+
+import org.junit.Test;
+
+import static org.hiforce.lattice.runtime.cache.key.ObjectCacheKeyEncoder.*;
+import static org.junit.Assert.*;
+
+/**
+ * @author Rocky Yu
+ * @since 2026/10/18
+ */
+public class ObjectCacheKeyEncoderTest {
+
+    @Test
+    public void testFieldsAreDistinct() {
+        long key = encodeRunnerKey(1L, 2L, 3L, false, false);
+        assertTrue(key > 0);
+        assertFalse(isOverflow(key));
+        assertNotEquals(key, encodeRunnerKey(2L, 1L, 3L, false, false));
+        assertNotEquals(key, encodeRunnerKey(1L, 2L, 4L, false, false));
+        assertNotEquals(key, encodeRunnerKey(1L, 2L, 3L, true, false));
+        assertNotEquals(key, encodeRunnerKey(1L, 2L, 3L, false, true));
+        assertNotEquals(encodeRunnerKey(1L, 2L, 3L, true, false), encodeRunnerKey(1L, 2L, 3L, false, true));
+    }
+
+    @Test
+    public void testRunnerAndInvokeKeysNeverCollide() {
+        // the business index and the template index share the same field.
+        assertNotEquals(encodeRunnerKey(5L, 7L, 1L, false, false), encodeInvokeKey(7L, 1L, 5L));
+        assertEquals(encodeInvokeKey(7L, 1L, 5L), encodeInvokeKey(7L, 1L, 5L));
+    }
+
+    @Test
+    public void testMaxIndexesInRange() {
+        long key = encodeRunnerKey(MAX_EXT_CODE_INDEX, MAX_TEMPLATE_INDEX, MAX_SCENARIO_INDEX, true, true);
+        assertTrue(key > 0);
+        assertFalse(isOverflow(key));
+        assertNotEquals(key, encodeInvokeKey(MAX_TEMPLATE_INDEX, MAX_SCENARIO_INDEX, MAX_EXT_CODE_INDEX));
+    }
+
+    @Test
+    public void testOverflowIndexes() {
+        long key = encodeRunnerKey(1L, 2L, MAX_SCENARIO_INDEX + 1, false, false);
+        assertTrue(isOverflow(key));
+        assertEquals(key, encodeRunnerKey(1L, 2L, MAX_SCENARIO_INDEX + 1, false, false));
+        assertNotEquals(key, encodeRunnerKey(1L, 2L, MAX_SCENARIO_INDEX + 2, false, false));
+        assertNotEquals(key, encodeRunnerKey(1L, 2L, MAX_SCENARIO_INDEX + 1, true, false));
+
+        long extOverflow = encodeInvokeKey(1L, 0L, MAX_EXT_CODE_INDEX + 1);
+        assertTrue(isOverflow(extOverflow));
+        assertNotEquals(key, extOverflow);
+        // never collides with an in range key.
+        assertNotEquals(extOverflow, encodeInvokeKey(1L, 0L, 0L));
+    }
+}
@@ -13,7 +13,10 @@ import org.hiforce.lattice.dynamic.model.PluginFileInfo;
 import org.hiforce.lattice.dynamic.properties.LatticeDynamicProperties;
 import org.hiforce.lattice.exception.LatticeRuntimeException;
 import org.hiforce.lattice.message.Message;
+import org.hiforce.lattice.model.ability.IAbility;
+import org.hiforce.lattice.model.business.IUseCase;
 import org.hiforce.lattice.runtime.Lattice;
+import org.hiforce.lattice.runtime.LatticeSnapshot;
 import org.springframework.beans.factory.InitializingBean;
 import org.springframework.context.annotation.DependsOn;
 import org.springframework.stereotype.Service;
@@ -25,6 +28,9 @@ import java.util.List;
 import java.util.Set;
 import java.util.stream.Collectors;
 
+import static org.hiforce.lattice.dynamic.utils.DynamicUtils.isPluginDefined;
+import static org.hiforce.lattice.runtime.Lattice.getServiceProviderClasses;
+
 /**
  * @author Rocky Yu
  * @since 2022/10/12
@@ -133,15 +139,20 @@ public class LatticeDynamic implements InitializingBean {
         try {
             URL[] urls = new URL[]{new URL("file:" + pluginFile.getFile().getPath())};
             try (LatticeClassLoader classLoader = new LatticeClassLoader(urls, LatticeDynamic.class.getClassLoader())) {
-                InstallResult result = installers.stream()
-                        .map(p -> p.install(classLoader, pluginFile))
-                        .filter(p -> !p.isSuccess())
-                        .findFirst().orElse(null);
-                if (null != result) {
-                    throw new LatticeRuntimeException(Message.of(result.getErrCode(), result.getErrText()));
+                if (needReload(classLoader, pluginFile)) {
+                    // the reload registers the plugin from scratch, the installers only check it on a fork never published.
+                    LatticeSnapshot.runWith(LatticeSnapshot.published().fork(),
+                            () -> install(installers, classLoader, pluginFile));
+                    currentFiles.add(pluginFile);
+                    Lattice.getInstance().reload();
+                } else {
+                    // registered and installed on a fork of the published snapshot, then published at once.
+                    Lattice.getInstance().update(() -> {
+                        install(installers, classLoader, pluginFile);
+                        Lattice.getInstance().installTemplates(pluginFile.getBizCodes(), pluginFile.getProductCodes());
+                    });
+                    currentFiles.add(pluginFile);
                 }
-                currentFiles.add(pluginFile);
-                Lattice.getInstance().reload();
                 log.info("....... Lattice plugin " + pluginFile.getFile().getName() + "...installed successfully.");
             }
         } catch (LatticeRuntimeException ex) {
@@ -151,6 +162,31 @@ public class LatticeDynamic implements InitializingBean {
         }
     }
 
+    private static void install(List<LatticeInstaller> installers, LatticeClassLoader classLoader,
+                                PluginFileInfo pluginFile) {
+        InstallResult result = installers.stream()
+                .map(p -> p.install(classLoader, pluginFile))
+                .filter(p -> !p.isSuccess())
+                .findFirst().orElse(null);
+        if (null != result) {
+            throw new LatticeRuntimeException(Message.of(result.getErrCode(), result.getErrText()));
+        }
+    }
+
+    /**
+     * The abilities and use cases are not installed incrementally, the plugin defines them needs a full reload.
+     */
+    @SuppressWarnings("rawtypes")
+    private boolean needReload(LatticeClassLoader classLoader, PluginFileInfo pluginFile) {
+        for (String spiClassName : new String[]{IAbility.class.getName(), IUseCase.class.getName()}) {
+            Set<Class> classSet = getServiceProviderClasses(spiClassName, classLoader);
+            if (classSet.stream().anyMatch(p -> isPluginDefined(p, pluginFile))) {
+                return true;
+            }
+        }
+        return false;
+    }
+
     public synchronized void uninstallPlugin(String id) {
         PluginFileInfo info = currentFiles.stream().filter(p -> StringUtils.equals(id, p.getId()))
                 .findFirst().orElse(null);
@@ -167,13 +203,16 @@ public class LatticeDynamic implements InitializingBean {
         try {
             URL[] urls = new URL[]{new URL("file:" + info.getFile().getPath())};
             try (LatticeClassLoader classLoader = new LatticeClassLoader(urls, LatticeDynamic.class.getClassLoader())) {
-                DestroyResult result = uninstallers.stream()
-                        .map(p -> p.uninstall(classLoader, info))
-                        .filter(p -> !p.isSuccess())
-                        .findFirst().orElse(null);
-                if (null != result) {
-                    throw new LatticeRuntimeException(Message.of(result.getErrCode(), result.getErrText()));
-                }
+                // removed from a fork of the published snapshot, then published at once.
+                Lattice.getInstance().update(() -> {
+                    DestroyResult result = uninstallers.stream()
+                            .map(p -> p.uninstall(classLoader, info))
+                            .filter(p -> !p.isSuccess())
+                            .findFirst().orElse(null);
+                    if (null != result) {
+                        throw new LatticeRuntimeException(Message.of(result.getErrCode(), result.getErrText()));
+                    }
+                });
             }
             info.getFile().delete();
             currentFiles.remove(info);
@@ -1,10 +1,13 @@
 package org.hiforce.lattice.maven.model;
 
 import com.google.common.collect.Lists;
+import com.google.common.collect.Maps;
 import lombok.Getter;
 
 import java.io.Serializable;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
 
 /**
  * @author Rocky Yu
@@ -19,4 +22,11 @@ public class AbilitySet implements Serializable {
 
     @Getter
     private final List<AbilityInfo> using = Lists.newArrayList();
+
+    /**
+     * The lattice classes in the packages of the providing abilities (package name -> class names),
+     * so the runtime can boot without scanning the packages.
+     */
+    @Getter
+    private final Map<String, Set<String>> packageClasses = Maps.newTreeMap();
 }
@@ -1,5 +1,6 @@
 package org.hiforce.lattice.maven.builder;
 
+import org.apache.commons.lang3.StringUtils;
 import org.hiforce.lattice.model.ability.IAbility;
 import org.hiforce.lattice.model.register.AbilityInstSpec;
 import org.hiforce.lattice.model.register.AbilitySpec;
@@ -11,9 +12,12 @@ import org.hiforce.lattice.maven.model.ExtParam;
 import org.hiforce.lattice.maven.model.ExtensionInfo;
 import org.hiforce.lattice.runtime.ability.register.AbilityBuildRequest;
 import org.hiforce.lattice.runtime.ability.register.AbilityRegister;
+import org.hiforce.lattice.runtime.utils.ClassLoaderUtil;
 
 import java.lang.reflect.Parameter;
 import java.util.List;
+import java.util.Set;
+import java.util.TreeSet;
 import java.util.stream.Collectors;
 
 /**
@@ -36,12 +40,31 @@ public class AbilityInfoBuilder extends LatticeInfoBuilder {
         List<String> definedAbilityNames = getProvidedInfoClassNames();
         List<AbilityInfo> providedAbilities = getLoadAbilityClass(definedAbilityNames);
         getPlugin().getLatticeInfo().getAbility().getProviding().addAll(providedAbilities);
+        buildPackageClasses(providedAbilities);
 
         List<String> importAbilityNames = getImportInfoClassNames();
         List<AbilityInfo> importedAbilityInfos = getLoadAbilityClass(importAbilityNames);
         getPlugin().getLatticeInfo().getAbility().getUsing().addAll(importedAbilityInfos);
     }
 
+    private void buildPackageClasses(List<AbilityInfo> abilities) {
+        Set<String> packages = abilities.stream()
+                .map(p -> StringUtils.substringBeforeLast(p.getClassName(), "."))
+                .collect(Collectors.toSet());
+        ClassLoader originClassLoader = Thread.currentThread().getContextClassLoader();
+        Thread.currentThread().setContextClassLoader(getTotalClassLoader());
+        try {
+            for (String pkg : packages) {
+                getPlugin().getLatticeInfo().getAbility().getPackageClasses().put(pkg,
+                        ClassLoaderUtil.scanLatticeClasses(pkg).stream()
+                                .map(Class::getName)
+                                .collect(Collectors.toCollection(TreeSet::new)));
+            }
+        } finally {
+            Thread.currentThread().setContextClassLoader(originClassLoader);
+        }
+    }
+
     @SuppressWarnings("all")
     private List<AbilityInfo> getLoadAbilityClass(List<String> classNames) {
         AbilityRegister register = AbilityRegister.getInstance();